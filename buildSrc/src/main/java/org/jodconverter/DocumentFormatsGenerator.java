@@ -0,0 +1,167 @@
+package org.jodconverter;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+/**
+ * Generates the Java source of the default document formats from the document-formats.json file,
+ * so the default registry can be created at runtime without parsing JSON.
+ */
+public class DocumentFormatsGenerator {
+
+  private static final String PACKAGE = "org.jodconverter.core.document";
+  private static final String CLASS_NAME = "DefaultDocumentFormats";
+
+  /**
+   * Generates the source file of the default document formats.
+   *
+   * @param jsonFile The document-formats.json file.
+   * @param outputDir The root directory of the generated sources.
+   * @return The generated source file.
+   * @throws IOException If an I/O error occurs.
+   */
+  public static File generate(final File jsonFile, final File outputDir) throws IOException {
+
+    final JsonArray formats;
+    try (Reader reader =
+        new InputStreamReader(Files.newInputStream(jsonFile.toPath()), StandardCharsets.UTF_8)) {
+      formats = JsonParser.parseReader(reader).getAsJsonArray();
+    }
+
+    final StringBuilder src = new StringBuilder(32768);
+    src.append("package ").append(PACKAGE).append(";\n\n");
+    src.append("import java.util.ArrayList;\n");
+    src.append("import java.util.List;\n\n");
+    src.append("/**\n");
+    src.append(" * The default document formats, generated at build time from\n");
+    src.append(" * document-formats.json. DO NOT EDIT.\n");
+    src.append(" */\n");
+    src.append("final class ").append(CLASS_NAME).append(" {\n\n");
+    src.append("  static List<DocumentFormat> create() {\n\n");
+    src.append("    final List<DocumentFormat> formats = new ArrayList<DocumentFormat>(")
+        .append(formats.size())
+        .append(");\n");
+    for (final JsonElement element : formats) {
+      appendFormat(src, element.getAsJsonObject());
+    }
+    src.append("    return formats;\n");
+    src.append("  }\n\n");
+    src.append("  private ").append(CLASS_NAME).append("() {\n");
+    src.append("    throw new AssertionError(\"Utility class must not be instantiated\");\n");
+    src.append("  }\n");
+    src.append("}\n");
+
+    final File outputFile =
+        new File(new File(outputDir, PACKAGE.replace('.', '/')), CLASS_NAME + ".java");
+    Files.createDirectories(outputFile.getParentFile().toPath());
+    try (Writer writer =
+        new OutputStreamWriter(
+            Files.newOutputStream(outputFile.toPath()), StandardCharsets.UTF_8)) {
+      writer.write(src.toString());
+    }
+    return outputFile;
+  }
+
+  private static void appendFormat(final StringBuilder src, final JsonObject format) {
+
+    src.append("    formats.add(\n");
+    src.append("        DocumentFormat.builder()\n");
+    src.append("            .name(").append(literal(format.get("name"))).append(")\n");
+    for (final JsonElement extension : format.getAsJsonArray("extensions")) {
+      src.append("            .extension(").append(literal(extension)).append(")\n");
+    }
+    src.append("            .mediaType(").append(literal(format.get("mediaType"))).append(")\n");
+    src.append("            .inputFamily(DocumentFamily.")
+        .append(format.get("inputFamily").getAsString())
+        .append(")\n");
+    if (format.has("importFilterName")) {
+      src.append("            .importFilterName(")
+          .append(literal(format.get("importFilterName")))
+          .append(")\n");
+    }
+    if (format.has("loadProperties")) {
+      for (final Map.Entry<String, JsonElement> prop :
+          format.getAsJsonObject("loadProperties").entrySet()) {
+        src.append("            .loadProperty(")
+            .append(literal(new JsonPrimitive(prop.getKey())))
+            .append(", ")
+            .append(literal(prop.getValue()))
+            .append(")\n");
+      }
+    }
+    if (format.has("storeProperties")) {
+      for (final Map.Entry<String, JsonElement> family :
+          format.getAsJsonObject("storeProperties").entrySet()) {
+        for (final Map.Entry<String, JsonElement> prop :
+            family.getValue().getAsJsonObject().entrySet()) {
+          src.append("            .storeProperty(DocumentFamily.")
+              .append(family.getKey())
+              .append(", ")
+              .append(literal(new JsonPrimitive(prop.getKey())))
+              .append(", ")
+              .append(literal(prop.getValue()))
+              .append(")\n");
+        }
+      }
+    }
+    if (format.has("refreshMode")) {
+      src.append("            .refreshMode(RefreshMode.")
+          .append(format.get("refreshMode").getAsString())
+          .append(")\n");
+    }
+    src.append("            .unmodifiable(true)\n");
+    src.append("            .build());\n");
+  }
+
+  // Converts a JSON primitive to a Java literal of the type Gson would have deserialized.
+  private static String literal(final JsonElement element) {
+
+    if (!element.isJsonPrimitive()) {
+      throw new IllegalArgumentException("Unsupported document format property value: " + element);
+    }
+    final JsonPrimitive primitive = element.getAsJsonPrimitive();
+    if (primitive.isBoolean()) {
+      return primitive.getAsBoolean() ? "Boolean.TRUE" : "Boolean.FALSE";
+    }
+    if (primitive.isNumber()) {
+      return "Double.valueOf(" + primitive.getAsDouble() + "D)";
+    }
+    final StringBuilder str = new StringBuilder("\"");
+    for (final char c : primitive.getAsString().toCharArray()) {
+      switch (c) {
+        case '"':
+          str.append("\\\"");
+          break;
+        case '\\':
+          str.append("\\\\");
+          break;
+        case '\n':
+          str.append("\\n");
+          break;
+        case '\t':
+          str.append("\\t");
+          break;
+        default:
+          if (c < 0x20 || c > 0x7E) {
+            str.append(String.format("\\u%04x", (int) c));
+          } else {
+            str.append(c);
+          }
+      }
+    }
+    return str.append('"').toString();
+  }
+}
@@ -19,8 +19,7 @@
 
 package org.jodconverter.core.document;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.util.List;
 
 /**
  * Holds the default {@link DocumentFormatRegistry} instance. The {@link
@@ -41,24 +40,14 @@ class DefaultDocumentFormatRegistryInstanceHolder { // NOPMD - Disable class nam
   public static DocumentFormatRegistry getInstance() {
     synchronized (DocumentFormatRegistry.class) {
       if (instance == null) {
-        InputStream input = null;
-        try {
-          input =
-              DefaultDocumentFormatRegistryInstanceHolder.class.getResourceAsStream(
-                  "/document-formats.json");
-          instance = JsonDocumentFormatRegistry.create(input);
-        } catch (IOException ex) {
-          throw new DocumentFormatRegistryException(
-              "Could not load the default document-formats.json configuration file", ex);
-        } finally {
-          try {
-            if (input != null) {
-              input.close();
-            }
-          } catch (IOException e) {
-            e.printStackTrace();
-          }
+        // The default formats are generated at build time from document-formats.json,
+        // sparing the JSON parsing (and reflection) at startup.
+        final List<DocumentFormat> formats = DefaultDocumentFormats.create();
+        final SimpleDocumentFormatRegistry.Builder builder = SimpleDocumentFormatRegistry.builder();
+        for (final DocumentFormat format : formats) {
+          builder.format(format);
         }
+        instance = builder.build();
       }
 
       return instance;
@@ -30,8 +30,11 @@ public class DocumentFormat {
   private final List<String> extensions;
   private final String mediaType;
   private final DocumentFamily inputFamily;
+  private final String importFilterName;
   private final Map<String, Object> loadProperties;
   private final Map<DocumentFamily, Map<String, Object>> storeProperties;
+  private final RefreshMode refreshMode;
+  private final boolean unmodifiable;
 
   /**
    * Creates a new builder instance.
@@ -71,9 +74,13 @@ public class DocumentFormat {
    * @param extensions The file name extensions of the format.
    * @param mediaType The media type (mime type) of the format.
    * @param inputFamily The input {@link DocumentFamily} of the document.
+   * @param importFilterName The name of the office filter used to load a document of this format,
+   *     may be null.
    * @param loadProperties The properties required to load(open) a document of this format.
    * @param storeProperties The properties required to store(save) a document of this format to a
    *     document of another family.
+   * @param refreshMode Whether a document is refreshed before being stored to this format, may be
+   *     null.
    * @param unmodifiable {@code true} if the created document format cannot be modified after
    *     creation, {@code false} otherwise.
    */
@@ -82,8 +89,10 @@ public class DocumentFormat {
       final Collection<String> extensions,
       final String mediaType,
       final DocumentFamily inputFamily,
+      final String importFilterName,
       final Map<String, Object> loadProperties,
       final Map<DocumentFamily, Map<String, Object>> storeProperties,
+      final RefreshMode refreshMode,
       final boolean unmodifiable) {
 
     AssertUtils.notBlank(name, "name must not be null nor blank");
@@ -95,6 +104,7 @@ public class DocumentFormat {
     this.extensions = new ArrayList<String>(extensions);
     this.mediaType = mediaType;
     this.inputFamily = inputFamily;
+    this.importFilterName = importFilterName;
     if (loadProperties == null) {
       this.loadProperties = null;
     } else {
@@ -117,6 +127,8 @@ public class DocumentFormat {
       }
       this.storeProperties = unmodifiable ? Collections.unmodifiableMap(familyMap) : familyMap;
     }
+    this.refreshMode = refreshMode;
+    this.unmodifiable = unmodifiable;
   }
 
   /**
@@ -147,6 +159,19 @@ public class DocumentFormat {
     return inputFamily;
   }
 
+  /**
+   * Gets the name of the office filter used to load(open) a document of this format. When the
+   * format of a document is known, loading it with this filter spares office the detection of the
+   * type of the document. The filter is ignored if the load properties already specify a {@code
+   * FilterName}.
+   *
+   * @return The name of the import filter, or {@code null} if the type of the document must be
+   *     detected by office.
+   */
+  public String getImportFilterName() {
+    return importFilterName;
+  }
+
   /**
    * Gets the properties required to load(open) a document of this format.
    *
@@ -197,6 +222,26 @@ public class DocumentFormat {
     return storeProperties == null ? null : storeProperties.get(family);
   }
 
+  /**
+   * Gets whether a document is refreshed before being stored to this format, when no filter
+   * explicitly refreshes it.
+   *
+   * @return The refresh mode, never null.
+   */
+  public RefreshMode getRefreshMode() {
+    return refreshMode == null ? RefreshMode.AUTO : refreshMode;
+  }
+
+  /**
+   * Gets whether this document format is unmodifiable. The properties of an unmodifiable format
+   * cannot change after its creation.
+   *
+   * @return {@code true} if the format is unmodifiable, {@code false} otherwise.
+   */
+  public boolean isUnmodifiable() {
+    return unmodifiable;
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName()
@@ -209,10 +254,14 @@ public class DocumentFormat {
         + mediaType
         + "\", inputFamily="
         + inputFamily
+        + ", importFilterName="
+        + importFilterName
         + ", loadProperties="
         + loadProperties
         + ", storeProperties="
         + storeProperties
+        + ", refreshMode="
+        + getRefreshMode()
         + '}';
   }
 
@@ -227,8 +276,10 @@ public class DocumentFormat {
     private Set<String> extensions;
     private String mediaType;
     private DocumentFamily inputFamily;
+    private String importFilterName;
     private Map<String, Object> loadProperties;
     private Map<DocumentFamily, Map<String, Object>> storeProperties;
+    private RefreshMode refreshMode;
     private boolean unmodifiable = true;
 
     // Private constructor so only DocumentFormat can initialize an instance of this builder.
@@ -244,7 +295,15 @@ public class DocumentFormat {
     public DocumentFormat build() {
 
       return new DocumentFormat(
-          name, extensions, mediaType, inputFamily, loadProperties, storeProperties, unmodifiable);
+          name,
+          extensions,
+          mediaType,
+          inputFamily,
+          importFilterName,
+          loadProperties,
+          storeProperties,
+          refreshMode,
+          unmodifiable);
     }
 
     /**
@@ -260,6 +319,7 @@ public class DocumentFormat {
       this.extensions = new LinkedHashSet<String>(sourceFormat.getExtensions());
       this.mediaType = sourceFormat.getMediaType();
       this.inputFamily = sourceFormat.getInputFamily();
+      this.importFilterName = sourceFormat.getImportFilterName();
       this.loadProperties =
           sourceFormat.getLoadProperties() == null
               ? null
@@ -273,6 +333,7 @@ public class DocumentFormat {
           this.storeProperties.put(entry.getKey(), new HashMap<String, Object>(entry.getValue()));
         }
       }
+      this.refreshMode = sourceFormat.getRefreshMode();
 
       return this;
     }
@@ -307,6 +368,19 @@ public class DocumentFormat {
       return this;
     }
 
+    /**
+     * Specifies the name of the office filter used to load (open) a document of this format.
+     *
+     * @param importFilterName The name of the import filter, may be null. If null, office will
+     *     detect the type of the loaded documents.
+     * @return This builder instance.
+     */
+    public Builder importFilterName(final String importFilterName) {
+
+      this.importFilterName = importFilterName;
+      return this;
+    }
+
     /**
      * Adds a property to the builder that will be applied when loading (open) a document of this
      * format.
@@ -365,6 +439,22 @@ public class DocumentFormat {
       return this;
     }
 
+    /**
+     * Specifies whether a document is refreshed before being stored to this format, when no filter
+     * explicitly refreshes it. Refreshing a document (updating its fields, indexes, links, data
+     * pilots...) may be expensive, and is useless for most documents.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: {@link RefreshMode#AUTO}
+     *
+     * @param refreshMode The refresh mode, may be null.
+     * @return This builder instance.
+     */
+    public Builder refreshMode(final RefreshMode refreshMode) {
+
+      this.refreshMode = refreshMode;
+      return this;
+    }
+
     /**
      * Specifies whether the document format is unmodifiable after creation. Default to {@code
      * true}.
@@ -417,8 +507,8 @@ public class DocumentFormat {
 
         if (!storeProperties.containsKey(documentFamily)) {
           storeProperties.put(documentFamily, new HashMap<String, Object>());
-          storeProperties.get(documentFamily).put(name, value);
         }
+        storeProperties.get(documentFamily).put(name, value);
       }
       return this;
     }
@@ -0,0 +1,442 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.document;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Detects the format of a document from its content (magic bytes), for sources whose format is
+ * unknown, typically documents provided as a stream. Only the first few KB of the document are
+ * inspected:
+ *
+ * <ul>
+ *   <li>ZIP containers: the {@code mimetype} entry of ODF documents, the content types (or the
+ *       names of the entries) of OOXML documents.
+ *   <li>OLE2 containers: the CLSID of the root storage, or the names of the streams of the first
+ *       directory sector.
+ *   <li>PDF, RTF, HTML, flat ODF, SVG, WordPerfect and common image signatures.
+ * </ul>
+ *
+ * <p>The detected format is resolved through a {@link DocumentFormatRegistry}. The returned format
+ * keeps its import filter (see {@link DocumentFormat#getImportFilterName()}) only when the content
+ * matches it without ambiguity, so office does not need to run its own type detection on the
+ * document.
+ */
+public final class DocumentFormatSniffer {
+
+  private static final int HEAD_SIZE = 8192;
+  private static final int OLE2_HEADER_SIZE = 512;
+  private static final int OLE2_DIR_ENTRY_SIZE = 128;
+  private static final int ZIP_LOCAL_HEADER_SIZE = 30;
+  private static final int ZIP_LOCAL_SIGNATURE = 0x04034B50;
+  private static final int ZIP_DATA_DESCRIPTOR_FLAG = 0x08;
+
+  private static final Charset ASCII = Charset.forName("ISO-8859-1");
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+  private static final Charset UTF_16LE = Charset.forName("UTF-16LE");
+
+  private static final String DOCX =
+      "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+  private static final String XLSX =
+      "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+  private static final String PPTX =
+      "application/vnd.openxmlformats-officedocument.presentationml.presentation";
+  private static final String VSDX = "application/vnd-ms-visio.drawing";
+  private static final String DOC = "application/msword";
+  private static final String XLS = "application/vnd.ms-excel";
+  private static final String PPT = "application/vnd.ms-powerpoint";
+  private static final String VSD = "application/vnd-visio";
+
+  // OLE2 root storage CLSID -> media type.
+  private static final Map<String, String> OLE2_CLSIDS;
+  // OLE2 stream name -> media type.
+  private static final Map<String, String> OLE2_STREAMS;
+
+  static {
+    final Map<String, String> clsids = new HashMap<String, String>();
+    clsids.put("00020906-0000-0000-c000-000000000046", DOC); // Word 97
+    clsids.put("00020820-0000-0000-c000-000000000046", XLS); // Excel 97
+    clsids.put("64818d10-4f9b-11cf-86ea-00aa00b929e8", PPT); // PowerPoint 97
+    OLE2_CLSIDS = Collections.unmodifiableMap(clsids);
+
+    final Map<String, String> streams = new HashMap<String, String>();
+    streams.put("WordDocument", DOC);
+    streams.put("Workbook", XLS);
+    streams.put("Book", XLS);
+    streams.put("PowerPoint Document", PPT);
+    streams.put("VisioDocument", VSD);
+    OLE2_STREAMS = Collections.unmodifiableMap(streams);
+  }
+
+  /** The result of the inspection of a document. */
+  private static final class Detection {
+
+    private final String mediaType;
+    // Whether the import filter of the format is known to match the content.
+    private final boolean exact;
+
+    private Detection(final String mediaType, final boolean exact) {
+      this.mediaType = mediaType;
+      this.exact = exact;
+    }
+  }
+
+  /**
+   * Detects the format of the specified document and resolves it through the specified registry.
+   *
+   * @param file The document to inspect.
+   * @param registry The registry used to resolve the detected media type.
+   * @return The detected format, or {@code null} if the format cannot be detected or is not
+   *     supported by the registry.
+   * @throws IOException If the document cannot be read.
+   */
+  public static DocumentFormat detect(final File file, final DocumentFormatRegistry registry)
+      throws IOException {
+
+    final Detection detection = inspect(file);
+    if (detection == null) {
+      return null;
+    }
+    final DocumentFormat format = registry.getFormatByMediaType(detection.mediaType);
+    if (format == null) {
+      return null;
+    }
+
+    if (detection.exact || format.getImportFilterName() == null) {
+      return format;
+    }
+    // The content only matches a variant of the format (template, macro-enabled document...),
+    // whose import filter may differ; let office detect the type of the document.
+    return DocumentFormat.builder().from(format).importFilterName(null).unmodifiable(true).build();
+  }
+
+  /**
+   * Detects the media type of the specified document.
+   *
+   * @param file The document to inspect.
+   * @return The detected media type, or {@code null} if it cannot be detected.
+   * @throws IOException If the document cannot be read.
+   */
+  public static String detectMediaType(final File file) throws IOException {
+
+    final Detection detection = inspect(file);
+    return detection == null ? null : detection.mediaType;
+  }
+
+  private static Detection inspect(final File file) throws IOException {
+
+    final RandomAccessFile raf = new RandomAccessFile(file, "r");
+    try {
+      final byte[] head = new byte[(int) Math.min(raf.length(), HEAD_SIZE)];
+      raf.readFully(head);
+
+      if (head.length >= 4 && readInt(head, 0) == ZIP_LOCAL_SIGNATURE) {
+        return inspectZip(head);
+      }
+      if (head.length >= OLE2_HEADER_SIZE
+          && readInt(head, 0) == 0xE011CFD0
+          && readInt(head, 4) == 0xE11AB1A1) {
+        return inspectOle2(raf, head);
+      }
+      return inspectSignature(head);
+    } finally {
+      raf.close();
+    }
+  }
+
+  private static Detection inspectZip(final byte[] head) {
+
+    String byEntryName = null;
+    int pos = 0;
+    while (pos + ZIP_LOCAL_HEADER_SIZE <= head.length
+        && readInt(head, pos) == ZIP_LOCAL_SIGNATURE) {
+
+      final int flags = readShort(head, pos + 6);
+      final int method = readShort(head, pos + 8);
+      final int compressedSize = readInt(head, pos + 18);
+      final int nameLength = readShort(head, pos + 26);
+      final int extraLength = readShort(head, pos + 28);
+      final int dataStart = pos + ZIP_LOCAL_HEADER_SIZE + nameLength + extraLength;
+      if (dataStart > head.length) {
+        break;
+      }
+      final String name = new String(head, pos + ZIP_LOCAL_HEADER_SIZE, nameLength, UTF_8);
+      final boolean sizeKnown = (flags & ZIP_DATA_DESCRIPTOR_FLAG) == 0 && compressedSize >= 0;
+      final boolean dataAvailable = sizeKnown && dataStart + compressedSize <= head.length;
+
+      if ("mimetype".equals(name) && method == 0 && dataAvailable) {
+        // ODF: the first entry is the stored media type of the document.
+        final String mediaType = new String(head, dataStart, compressedSize, ASCII).trim();
+        return new Detection(mediaType, true);
+      }
+      if ("[Content_Types].xml".equals(name) && dataAvailable) {
+        final String contentTypes = inflate(head, dataStart, compressedSize, method);
+        if (contentTypes != null) {
+          final Detection detection = inspectContentTypes(contentTypes);
+          if (detection != null) {
+            return detection;
+          }
+        }
+      }
+      if (byEntryName == null) {
+        byEntryName = getOoxmlMediaType(name);
+      }
+      if (!sizeKnown) {
+        break;
+      }
+      pos = dataStart + compressedSize;
+    }
+    return byEntryName == null ? null : new Detection(byEntryName, false);
+  }
+
+  private static Detection inspectContentTypes(final String contentTypes) {
+
+    // The content type of the main part identifies the document.
+    if (contentTypes.contains("wordprocessingml.document.main+xml")) {
+      return new Detection(DOCX, true);
+    }
+    if (contentTypes.contains("spreadsheetml.sheet.main+xml")) {
+      return new Detection(XLSX, true);
+    }
+    if (contentTypes.contains("presentationml.presentation.main+xml")) {
+      return new Detection(PPTX, true);
+    }
+    if (contentTypes.contains("ms-visio.drawing.main+xml")) {
+      return new Detection(VSDX, false);
+    }
+    // Templates, macro-enabled documents... share the format but not the filter.
+    if (contentTypes.contains("wordprocessingml.") || contentTypes.contains("ms-word.")) {
+      return new Detection(DOCX, false);
+    }
+    if (contentTypes.contains("spreadsheetml.") || contentTypes.contains("ms-excel.")) {
+      return new Detection(XLSX, false);
+    }
+    if (contentTypes.contains("presentationml.") || contentTypes.contains("ms-powerpoint.")) {
+      return new Detection(PPTX, false);
+    }
+    return null;
+  }
+
+  private static String getOoxmlMediaType(final String entryName) {
+
+    if (entryName.startsWith("word/")) {
+      return DOCX;
+    }
+    if (entryName.startsWith("xl/")) {
+      return XLSX;
+    }
+    if (entryName.startsWith("ppt/")) {
+      return PPTX;
+    }
+    if (entryName.startsWith("visio/")) {
+      return VSDX;
+    }
+    return null;
+  }
+
+  private static String inflate(
+      final byte[] bytes, final int offset, final int length, final int method) {
+
+    if (method == 0) {
+      return new String(bytes, offset, length, UTF_8);
+    }
+    if (method != 8) {
+      return null;
+    }
+    final Inflater inflater = new Inflater(true);
+    try {
+      // The input requires an extra dummy byte when using the "nowrap" option.
+      final byte[] input = new byte[length + 1];
+      System.arraycopy(bytes, offset, input, 0, length);
+      inflater.setInput(input);
+      final byte[] output = new byte[HEAD_SIZE * 4];
+      final int inflated = inflater.inflate(output);
+      return new String(output, 0, inflated, UTF_8);
+    } catch (DataFormatException ex) {
+      return null;
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static Detection inspectOle2(final RandomAccessFile raf, final byte[] head)
+      throws IOException {
+
+    final int sectorShift = readShort(head, 30);
+    if (sectorShift != 9 && sectorShift != 12) {
+      return null;
+    }
+    final long sectorSize = 1L << sectorShift;
+    final long directoryOffset = ((readInt(head, 48) & 0xFFFFFFFFL) + 1L) * sectorSize;
+    if (directoryOffset + sectorSize > raf.length()) {
+      return null;
+    }
+
+    // Read the first directory sector, the first entry being the root storage.
+    final byte[] directory = new byte[(int) sectorSize];
+    raf.seek(directoryOffset);
+    raf.readFully(directory);
+
+    final String mediaType = OLE2_CLSIDS.get(readClsid(directory, 80));
+    if (mediaType != null) {
+      return new Detection(mediaType, true);
+    }
+    for (int pos = 0; pos + OLE2_DIR_ENTRY_SIZE <= directory.length; pos += OLE2_DIR_ENTRY_SIZE) {
+      final int nameLength = readShort(directory, pos + 64);
+      if (nameLength < 2 || nameLength > 64) {
+        continue;
+      }
+      final String name = new String(directory, pos, nameLength - 2, UTF_16LE);
+      if ("EncryptedPackage".equals(name)) {
+        // Encrypted OOXML document, the actual format is unknown.
+        return null;
+      }
+      final String streamMediaType = OLE2_STREAMS.get(name);
+      if (streamMediaType != null) {
+        return new Detection(streamMediaType, !VSD.equals(streamMediaType));
+      }
+    }
+    return null;
+  }
+
+  private static String readClsid(final byte[] bytes, final int offset) {
+
+    return String.format(
+        "%08x-%04x-%04x-%02x%02x-%02x%02x%02x%02x%02x%02x",
+        readInt(bytes, offset),
+        readShort(bytes, offset + 4),
+        readShort(bytes, offset + 6),
+        bytes[offset + 8],
+        bytes[offset + 9],
+        bytes[offset + 10],
+        bytes[offset + 11],
+        bytes[offset + 12],
+        bytes[offset + 13],
+        bytes[offset + 14],
+        bytes[offset + 15]);
+  }
+
+  private static Detection inspectSignature(final byte[] head) {
+
+    // Binary signatures
+    if (startsWith(head, 0, 0x89, 'P', 'N', 'G')) {
+      return new Detection("image/png", false);
+    }
+    if (startsWith(head, 0, 0xFF, 0xD8, 0xFF)) {
+      return new Detection("image/jpeg", false);
+    }
+    if (startsWith(head, 0, 'G', 'I', 'F', '8')) {
+      return new Detection("image/gif", false);
+    }
+    if (startsWith(head, 0, 'I', 'I', '*', 0) || startsWith(head, 0, 'M', 'M', 0, '*')) {
+      return new Detection("image/tiff", false);
+    }
+    if (startsWith(head, 0, 'B', 'M') && head.length >= 14) {
+      return new Detection("image/bmp", false);
+    }
+    if (startsWith(head, 0, 0xFF, 'W', 'P', 'C')) {
+      return new Detection("application/wordperfect", false);
+    }
+
+    // Text signatures, skipping a UTF-8 BOM and leading whitespaces.
+    int start = startsWith(head, 0, 0xEF, 0xBB, 0xBF) ? 3 : 0;
+    while (start < head.length && Character.isWhitespace((char) (head[start] & 0xFF))) {
+      start++;
+    }
+    final String text =
+        new String(head, start, head.length - start, ASCII).toLowerCase(Locale.ROOT);
+    if (text.startsWith("{\\rtf")) {
+      return new Detection("text/rtf", true);
+    }
+    // A PDF header must be found within the first 1024 bytes.
+    final int pdf = text.indexOf("%pdf-");
+    if (pdf >= 0 && pdf < 1024) {
+      return new Detection("application/pdf", true);
+    }
+    if (text.startsWith("<!doctype html") || text.startsWith("<html")) {
+      return new Detection("text/html", true);
+    }
+    if (text.startsWith("<")) {
+      return inspectXml(text);
+    }
+    return null;
+  }
+
+  private static Detection inspectXml(final String text) {
+
+    // Flat ODF documents specify their media type on the root element.
+    final String mimetypeAttr = "office:mimetype=\"";
+    final int mimetype = text.indexOf(mimetypeAttr);
+    if (mimetype >= 0) {
+      final int begin = mimetype + mimetypeAttr.length();
+      final int end = text.indexOf('"', begin);
+      if (end > begin) {
+        final String mediaType = text.substring(begin, end);
+        // The flat variants are not registered under the media type of the document.
+        return new Detection(
+            mediaType.endsWith("-flat-xml") ? mediaType : mediaType + "-flat-xml", true);
+      }
+    }
+    if (text.contains("<svg")) {
+      return new Detection("image/svg+xml", false);
+    }
+    if (text.contains("<html")) {
+      return new Detection(
+          text.contains("http://www.w3.org/1999/xhtml") ? "application/xhtml+xml" : "text/html",
+          false);
+    }
+    return null;
+  }
+
+  private static boolean startsWith(final byte[] bytes, final int offset, final int... prefix) {
+
+    if (bytes.length < offset + prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if ((bytes[offset + i] & 0xFF) != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int readShort(final byte[] bytes, final int offset) {
+    return bytes[offset] & 0xFF | (bytes[offset + 1] & 0xFF) << 8;
+  }
+
+  private static int readInt(final byte[] bytes, final int offset) {
+    return readShort(bytes, offset) | readShort(bytes, offset + 2) << 16;
+  }
+
+  // Suppresses default constructor, ensuring non-instantiability.
+  private DocumentFormatSniffer() {
+    throw new AssertionError("Utility class must not be instantiated");
+  }
+}
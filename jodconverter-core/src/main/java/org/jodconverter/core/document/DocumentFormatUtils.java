@@ -0,0 +1,70 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.document;
+
+import org.jodconverter.core.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/** Contains document format helper functions. */
+public final class DocumentFormatUtils {
+
+  // Media types of binary formats that are not already compressed.
+  private static final Set<String> UNCOMPRESSED_BINARY_MEDIA_TYPES =
+      Collections.unmodifiableSet(
+          new HashSet<String>(
+              Arrays.asList(
+                  "application/msword",
+                  "application/vnd.ms-excel",
+                  "application/vnd.ms-powerpoint",
+                  "application/vnd-visio",
+                  "application/wordperfect",
+                  "image/bmp",
+                  "image/tiff")));
+
+  /**
+   * Gets whether the content of a document of the specified format would benefit from compression
+   * when it is transferred. Text based formats (plain text, CSV, RTF, HTML, flat XML, SVG...) and
+   * uncompressed binary formats are compressible, while formats that are already compressed (zip
+   * based formats like docx or odt, PDF, PNG, JPEG...) are not.
+   *
+   * @param format The document format, may be {@code null}.
+   * @return {@code true} if the content is compressible, {@code false} otherwise.
+   */
+  public static boolean isCompressible(final DocumentFormat format) {
+
+    if (format == null || format.getMediaType() == null) {
+      return false;
+    }
+    final String mediaType = format.getMediaType().toLowerCase(Locale.ROOT);
+    return mediaType.startsWith("text/")
+        || StringUtils.endsWithAny(mediaType, "/xml", "+xml", "-xml")
+        || UNCOMPRESSED_BINARY_MEDIA_TYPES.contains(mediaType);
+  }
+
+  // Suppresses default constructor, ensuring non-instantiability.
+  private DocumentFormatUtils() {
+    throw new AssertionError("Utility class must not be instantiated");
+  }
+}
@@ -0,0 +1,431 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.document;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Contains the statistics (page, word, sheet counts...) and the core metadata (title, author...) of
+ * a document. A statistic or a metadata that is not known is {@code null}.
+ */
+public final class DocumentMetadata {
+
+  private final Integer pageCount;
+  private final Integer sheetCount;
+  private final Integer wordCount;
+  private final Integer characterCount;
+  private final Integer paragraphCount;
+  private final Integer tableCount;
+  private final Integer imageCount;
+  private final String title;
+  private final String subject;
+  private final String description;
+  private final String author;
+  private final List<String> keywords;
+  private final Date creationDate;
+  private final Date modificationDate;
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private DocumentMetadata(final Builder builder) {
+
+    this.pageCount = builder.pageCount;
+    this.sheetCount = builder.sheetCount;
+    this.wordCount = builder.wordCount;
+    this.characterCount = builder.characterCount;
+    this.paragraphCount = builder.paragraphCount;
+    this.tableCount = builder.tableCount;
+    this.imageCount = builder.imageCount;
+    this.title = builder.title;
+    this.subject = builder.subject;
+    this.description = builder.description;
+    this.author = builder.author;
+    this.keywords = Collections.unmodifiableList(new ArrayList<String>(builder.keywords));
+    this.creationDate = copy(builder.creationDate);
+    this.modificationDate = copy(builder.modificationDate);
+  }
+
+  private static Date copy(final Date date) {
+    return date == null ? null : new Date(date.getTime());
+  }
+
+  /**
+   * Gets the number of pages of the document. For a presentation, this is the number of slides.
+   *
+   * @return The page count, or {@code null} if unknown.
+   */
+  public Integer getPageCount() {
+    return pageCount;
+  }
+
+  /**
+   * Gets the number of sheets of a spreadsheet document.
+   *
+   * @return The sheet count, or {@code null} if unknown or if the document is not a spreadsheet.
+   */
+  public Integer getSheetCount() {
+    return sheetCount;
+  }
+
+  /**
+   * Gets the number of words of the document.
+   *
+   * @return The word count, or {@code null} if unknown.
+   */
+  public Integer getWordCount() {
+    return wordCount;
+  }
+
+  /**
+   * Gets the number of characters of the document.
+   *
+   * @return The character count, or {@code null} if unknown.
+   */
+  public Integer getCharacterCount() {
+    return characterCount;
+  }
+
+  /**
+   * Gets the number of paragraphs of the document.
+   *
+   * @return The paragraph count, or {@code null} if unknown.
+   */
+  public Integer getParagraphCount() {
+    return paragraphCount;
+  }
+
+  /**
+   * Gets the number of tables of the document.
+   *
+   * @return The table count, or {@code null} if unknown.
+   */
+  public Integer getTableCount() {
+    return tableCount;
+  }
+
+  /**
+   * Gets the number of images of the document.
+   *
+   * @return The image count, or {@code null} if unknown.
+   */
+  public Integer getImageCount() {
+    return imageCount;
+  }
+
+  /**
+   * Gets the title of the document.
+   *
+   * @return The title, or {@code null} if unknown.
+   */
+  public String getTitle() {
+    return title;
+  }
+
+  /**
+   * Gets the subject of the document.
+   *
+   * @return The subject, or {@code null} if unknown.
+   */
+  public String getSubject() {
+    return subject;
+  }
+
+  /**
+   * Gets the description of the document.
+   *
+   * @return The description, or {@code null} if unknown.
+   */
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * Gets the author (initial creator) of the document.
+   *
+   * @return The author, or {@code null} if unknown.
+   */
+  public String getAuthor() {
+    return author;
+  }
+
+  /**
+   * Gets the keywords of the document.
+   *
+   * @return An unmodifiable list of keywords, empty if none.
+   */
+  public List<String> getKeywords() {
+    return keywords;
+  }
+
+  /**
+   * Gets the creation date of the document.
+   *
+   * @return The creation date, or {@code null} if unknown.
+   */
+  public Date getCreationDate() {
+    return copy(creationDate);
+  }
+
+  /**
+   * Gets the last modification date of the document.
+   *
+   * @return The modification date, or {@code null} if unknown.
+   */
+  public Date getModificationDate() {
+    return copy(modificationDate);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "pageCount="
+        + pageCount
+        + ", sheetCount="
+        + sheetCount
+        + ", wordCount="
+        + wordCount
+        + ", characterCount="
+        + characterCount
+        + ", paragraphCount="
+        + paragraphCount
+        + ", tableCount="
+        + tableCount
+        + ", imageCount="
+        + imageCount
+        + ", title="
+        + title
+        + ", subject="
+        + subject
+        + ", author="
+        + author
+        + ", keywords="
+        + keywords
+        + ", creationDate="
+        + creationDate
+        + ", modificationDate="
+        + modificationDate
+        + '}';
+  }
+
+  /**
+   * A builder for constructing a {@link DocumentMetadata}.
+   *
+   * @see DocumentMetadata
+   */
+  public static final class Builder {
+
+    private Integer pageCount;
+    private Integer sheetCount;
+    private Integer wordCount;
+    private Integer characterCount;
+    private Integer paragraphCount;
+    private Integer tableCount;
+    private Integer imageCount;
+    private String title;
+    private String subject;
+    private String description;
+    private String author;
+    private final List<String> keywords = new ArrayList<String>();
+    private Date creationDate;
+    private Date modificationDate;
+
+    // Private constructor so only DocumentMetadata can create an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the metadata that is specified by this builder.
+     *
+     * @return The metadata that is specified by this builder.
+     */
+    public DocumentMetadata build() {
+      return new DocumentMetadata(this);
+    }
+
+    /**
+     * Specifies the number of pages of the document.
+     *
+     * @param pageCount The page count, may be null.
+     * @return This builder instance.
+     */
+    public Builder pageCount(final Integer pageCount) {
+      this.pageCount = pageCount;
+      return this;
+    }
+
+    /**
+     * Specifies the number of sheets of the document.
+     *
+     * @param sheetCount The sheet count, may be null.
+     * @return This builder instance.
+     */
+    public Builder sheetCount(final Integer sheetCount) {
+      this.sheetCount = sheetCount;
+      return this;
+    }
+
+    /**
+     * Specifies the number of words of the document.
+     *
+     * @param wordCount The word count, may be null.
+     * @return This builder instance.
+     */
+    public Builder wordCount(final Integer wordCount) {
+      this.wordCount = wordCount;
+      return this;
+    }
+
+    /**
+     * Specifies the number of characters of the document.
+     *
+     * @param characterCount The character count, may be null.
+     * @return This builder instance.
+     */
+    public Builder characterCount(final Integer characterCount) {
+      this.characterCount = characterCount;
+      return this;
+    }
+
+    /**
+     * Specifies the number of paragraphs of the document.
+     *
+     * @param paragraphCount The paragraph count, may be null.
+     * @return This builder instance.
+     */
+    public Builder paragraphCount(final Integer paragraphCount) {
+      this.paragraphCount = paragraphCount;
+      return this;
+    }
+
+    /**
+     * Specifies the number of tables of the document.
+     *
+     * @param tableCount The table count, may be null.
+     * @return This builder instance.
+     */
+    public Builder tableCount(final Integer tableCount) {
+      this.tableCount = tableCount;
+      return this;
+    }
+
+    /**
+     * Specifies the number of images of the document.
+     *
+     * @param imageCount The image count, may be null.
+     * @return This builder instance.
+     */
+    public Builder imageCount(final Integer imageCount) {
+      this.imageCount = imageCount;
+      return this;
+    }
+
+    /**
+     * Specifies the title of the document.
+     *
+     * @param title The title, may be null.
+     * @return This builder instance.
+     */
+    public Builder title(final String title) {
+      this.title = title;
+      return this;
+    }
+
+    /**
+     * Specifies the subject of the document.
+     *
+     * @param subject The subject, may be null.
+     * @return This builder instance.
+     */
+    public Builder subject(final String subject) {
+      this.subject = subject;
+      return this;
+    }
+
+    /**
+     * Specifies the description of the document.
+     *
+     * @param description The description, may be null.
+     * @return This builder instance.
+     */
+    public Builder description(final String description) {
+      this.description = description;
+      return this;
+    }
+
+    /**
+     * Specifies the author of the document.
+     *
+     * @param author The author, may be null.
+     * @return This builder instance.
+     */
+    public Builder author(final String author) {
+      this.author = author;
+      return this;
+    }
+
+    /**
+     * Adds a keyword of the document.
+     *
+     * @param keyword The keyword to add. Blank keywords are ignored.
+     * @return This builder instance.
+     */
+    public Builder keyword(final String keyword) {
+
+      if (keyword != null && keyword.trim().length() > 0) {
+        keywords.add(keyword.trim());
+      }
+      return this;
+    }
+
+    /**
+     * Specifies the creation date of the document.
+     *
+     * @param creationDate The creation date, may be null.
+     * @return This builder instance.
+     */
+    public Builder creationDate(final Date creationDate) {
+      this.creationDate = copy(creationDate);
+      return this;
+    }
+
+    /**
+     * Specifies the last modification date of the document.
+     *
+     * @param modificationDate The modification date, may be null.
+     * @return This builder instance.
+     */
+    public Builder modificationDate(final Date modificationDate) {
+      this.modificationDate = copy(modificationDate);
+      return this;
+    }
+  }
+}
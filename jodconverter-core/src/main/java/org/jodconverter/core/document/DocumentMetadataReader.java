@@ -0,0 +1,303 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.document;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads the {@link DocumentMetadata} of ODF and OOXML documents without office, from the metadata
+ * parts stored within the package of the document: {@code meta.xml} for ODF documents, {@code
+ * docProps/app.xml} and {@code docProps/core.xml} for OOXML documents. These statistics are the
+ * ones written by the application that saved the document.
+ */
+public final class DocumentMetadataReader {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DocumentMetadataReader.class);
+
+  private static final String ODF_MIMETYPE = "mimetype";
+  private static final String ODF_META = "meta.xml";
+  private static final String ODF_SPREADSHEET = "application/vnd.oasis.opendocument.spreadsheet";
+  private static final String OOXML_APP = "docProps/app.xml";
+  private static final String OOXML_CORE = "docProps/core.xml";
+  private static final String OOXML_WORKBOOK = "xl/workbook.xml";
+
+  // ISO 8601 date time, as used by ODF and OOXML.
+  private static final Pattern DATE_TIME =
+      Pattern.compile(
+          "(\\d{4})-(\\d{2})-(\\d{2})"
+              + "(?:T(\\d{2}):(\\d{2})(?::(\\d{2}))?(?:[.,](\\d{1,3})\\d*)?)?"
+              + "(Z|[+-]\\d{2}:?\\d{2})?");
+
+  /**
+   * Reads the metadata of the specified document. The metadata are returned only if the main
+   * statistic of the document, the page count (or the sheet count for a spreadsheet), is known.
+   *
+   * @param file The document file.
+   * @return The metadata, or {@code null} if the document is neither an ODF nor an OOXML document,
+   *     or if its statistics cannot be read without office.
+   */
+  public static DocumentMetadata read(final File file) {
+
+    try {
+      final ZipFile zip = new ZipFile(file);
+      try {
+        final DocumentMetadata metadata;
+        if (zip.getEntry(ODF_META) != null) {
+          metadata = readOdf(zip);
+        } else if (zip.getEntry(OOXML_APP) != null) {
+          metadata = readOoxml(zip);
+        } else {
+          return null;
+        }
+        return metadata.getPageCount() == null && metadata.getSheetCount() == null
+            ? null
+            : metadata;
+      } finally {
+        zip.close();
+      }
+    } catch (ZipException ex) {
+      return null; // Not a package based document
+    } catch (Exception ex) {
+      LOGGER.debug("Could not read the metadata of {}", file.getName(), ex);
+      return null;
+    }
+  }
+
+  private static DocumentMetadata readOdf(final ZipFile zip) throws Exception {
+
+    final boolean spreadsheet = readMimeType(zip).startsWith(ODF_SPREADSHEET);
+    final Element root = parse(zip, ODF_META).getDocumentElement();
+    final DocumentMetadata.Builder builder = DocumentMetadata.builder();
+
+    final Element stats = firstElement(root, "document-statistic");
+    if (stats != null) {
+      final Integer tableCount = getIntAttribute(stats, "table-count");
+      if (spreadsheet) {
+        builder.sheetCount(tableCount);
+      } else {
+        builder.pageCount(getIntAttribute(stats, "page-count")).tableCount(tableCount);
+      }
+      builder
+          .wordCount(getIntAttribute(stats, "word-count"))
+          .characterCount(getIntAttribute(stats, "character-count"))
+          .paragraphCount(getIntAttribute(stats, "paragraph-count"))
+          .imageCount(getIntAttribute(stats, "image-count"));
+    }
+
+    final String author = firstText(root, "initial-creator");
+    builder
+        .title(firstText(root, "title"))
+        .subject(firstText(root, "subject"))
+        .description(firstText(root, "description"))
+        .author(author == null ? firstText(root, "creator") : author)
+        .creationDate(parseDate(firstText(root, "creation-date")))
+        .modificationDate(parseDate(firstText(root, "date")));
+    final NodeList keywords = root.getElementsByTagNameNS("*", "keyword");
+    for (int i = 0; i < keywords.getLength(); i++) {
+      builder.keyword(keywords.item(i).getTextContent());
+    }
+    return builder.build();
+  }
+
+  private static DocumentMetadata readOoxml(final ZipFile zip) throws Exception {
+
+    final Element app = parse(zip, OOXML_APP).getDocumentElement();
+    final DocumentMetadata.Builder builder = DocumentMetadata.builder();
+
+    final Integer slides = parseInt(firstText(app, "Slides"));
+    builder
+        .pageCount(slides == null ? parseInt(firstText(app, "Pages")) : slides)
+        .wordCount(parseInt(firstText(app, "Words")))
+        .characterCount(parseInt(firstText(app, "Characters")))
+        .paragraphCount(parseInt(firstText(app, "Paragraphs")));
+
+    // The sheets are listed by the workbook part, which is small.
+    if (zip.getEntry(OOXML_WORKBOOK) != null) {
+      builder.sheetCount(
+          parse(zip, OOXML_WORKBOOK).getElementsByTagNameNS("*", "sheet").getLength());
+    }
+
+    if (zip.getEntry(OOXML_CORE) != null) {
+      final Element core = parse(zip, OOXML_CORE).getDocumentElement();
+      builder
+          .title(firstText(core, "title"))
+          .subject(firstText(core, "subject"))
+          .description(firstText(core, "description"))
+          .author(firstText(core, "creator"))
+          .creationDate(parseDate(firstText(core, "created")))
+          .modificationDate(parseDate(firstText(core, "modified")));
+      final String keywords = firstText(core, "keywords");
+      if (keywords != null) {
+        for (final String keyword : keywords.split("[,;]")) {
+          builder.keyword(keyword);
+        }
+      }
+    }
+    return builder.build();
+  }
+
+  private static String readMimeType(final ZipFile zip) throws IOException {
+
+    final ZipEntry entry = zip.getEntry(ODF_MIMETYPE);
+    if (entry == null) {
+      return "";
+    }
+    final InputStream input = zip.getInputStream(entry);
+    try {
+      final byte[] buffer = new byte[128];
+      int length = 0;
+      int read;
+      while (length < buffer.length
+          && (read = input.read(buffer, length, buffer.length - length)) > 0) { // NOPMD
+        length += read;
+      }
+      return new String(buffer, 0, length, "US-ASCII").trim();
+    } finally {
+      input.close();
+    }
+  }
+
+  private static Document parse(final ZipFile zip, final String entryName) throws Exception {
+
+    final InputStream input = zip.getInputStream(zip.getEntry(entryName));
+    try {
+      return newDocumentBuilder().parse(input);
+    } finally {
+      input.close();
+    }
+  }
+
+  private static DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
+
+    final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+    factory.setNamespaceAware(true);
+    factory.setExpandEntityReferences(false);
+    // Metadata parts never declare a DTD; refuse them to avoid external entities.
+    factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+    return factory.newDocumentBuilder();
+  }
+
+  private static Element firstElement(final Element root, final String localName) {
+
+    final NodeList nodes = root.getElementsByTagNameNS("*", localName);
+    return nodes.getLength() == 0 ? null : (Element) nodes.item(0);
+  }
+
+  private static String firstText(final Element root, final String localName) {
+
+    final Element element = firstElement(root, localName);
+    if (element == null) {
+      return null;
+    }
+    final String text = element.getTextContent().trim();
+    return text.length() == 0 ? null : text;
+  }
+
+  private static Integer getIntAttribute(final Element element, final String localName) {
+
+    // Attributes of the ODF meta namespace
+    final String value =
+        element.getAttributeNS("urn:oasis:names:tc:opendocument:xmlns:meta:1.0", localName);
+    return parseInt(value);
+  }
+
+  private static Integer parseInt(final String value) {
+
+    if (value == null || value.length() == 0) {
+      return null;
+    }
+    try {
+      return Integer.valueOf(value.trim());
+    } catch (NumberFormatException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Parses an ISO 8601 date time, e.g. {@code 2020-05-04T08:37:00Z}. A date time without time zone
+   * is considered to be in the default time zone.
+   *
+   * @param value The value to parse.
+   * @return The date, or {@code null} if the value is not a valid date time.
+   */
+  /* default */ static Date parseDate(final String value) {
+
+    if (value == null) {
+      return null;
+    }
+    final Matcher matcher = DATE_TIME.matcher(value.trim());
+    if (!matcher.matches()) {
+      return null;
+    }
+
+    final String zone = matcher.group(8);
+    final TimeZone timeZone;
+    if (zone == null) {
+      timeZone = TimeZone.getDefault();
+    } else if ("Z".equals(zone)) {
+      timeZone = TimeZone.getTimeZone("UTC");
+    } else {
+      timeZone = TimeZone.getTimeZone("GMT" + zone);
+    }
+    final Calendar calendar = Calendar.getInstance(timeZone);
+    calendar.clear();
+    calendar.set(
+        Integer.parseInt(matcher.group(1)),
+        Integer.parseInt(matcher.group(2)) - 1,
+        Integer.parseInt(matcher.group(3)),
+        toInt(matcher.group(4)),
+        toInt(matcher.group(5)),
+        toInt(matcher.group(6)));
+    final String millis = matcher.group(7);
+    if (millis != null) {
+      // Right pad the fraction of second, e.g ".5" is 500 milliseconds
+      calendar.set(Calendar.MILLISECOND, Integer.parseInt((millis + "00").substring(0, 3)));
+    }
+    return calendar.getTime();
+  }
+
+  private static int toInt(final String value) {
+    return value == null ? 0 : Integer.parseInt(value);
+  }
+
+  // Suppresses default constructor, ensuring non-instantiability.
+  private DocumentMetadataReader() {
+    throw new AssertionError("Utility class must not be instantiated");
+  }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.document;
+
+import org.jodconverter.core.util.AssertUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Performs a cheap pre-flight validation of source documents, before they are submitted to office.
+ * Documents that cannot possibly be loaded (empty, too large, or truncated/corrupted containers)
+ * are rejected with an {@link InvalidDocumentException} without consuming an office process.
+ *
+ * <p>The validation only reads the few bytes required to check the structure of the container:
+ *
+ * <ul>
+ *   <li>ZIP based documents (OOXML, ODF...): the central directory must be found and consistent,
+ *       and the mandatory entries ({@code [Content_Types].xml} for OOXML, {@code mimetype} for ODF)
+ *       must be present.
+ *   <li>OLE2 based documents (legacy Microsoft Office formats): the header must be consistent with
+ *       the size of the document.
+ * </ul>
+ *
+ * <p>The container is identified by the signature of the document. A document whose format is
+ * ZIP based must either be a ZIP or an OLE2 (encrypted OOXML) container. Other documents are only
+ * checked against the size limits.
+ */
+public final class DocumentValidator {
+
+  private static final byte[] ZIP_SIGNATURE = {0x50, 0x4B, 0x03, 0x04};
+  private static final byte[] EMPTY_ZIP_SIGNATURE = {0x50, 0x4B, 0x05, 0x06};
+  private static final byte[] OLE2_SIGNATURE = {
+    (byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1
+  };
+
+  private static final int EOCD_SIGNATURE = 0x06054B50;
+  private static final int CEN_SIGNATURE = 0x02014B50;
+  private static final int EOCD_SIZE = 22;
+  private static final int CEN_HEADER_SIZE = 46;
+  private static final int MAX_ZIP_COMMENT_SIZE = 0xFFFF;
+  private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+  private static final int OLE2_HEADER_SIZE = 512;
+
+  private static final String OOXML_MEDIA_TYPE_PREFIX = "application/vnd.openxmlformats-";
+  private static final String ODF_MEDIA_TYPE_PREFIX = "application/vnd.oasis.opendocument.";
+  private static final String SXW_MEDIA_TYPE_PREFIX = "application/vnd.sun.xml.";
+  private static final String FLAT_XML_MEDIA_TYPE_SUFFIX = "-flat-xml";
+
+  private static final Charset ZIP_NAME_CHARSET = Charset.forName("UTF-8");
+
+  private final long maxFileSize;
+  private final boolean checkStructure;
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a new {@link DocumentValidator} with default configuration.
+   *
+   * @return A {@link DocumentValidator} with default configuration.
+   */
+  public static DocumentValidator make() {
+    return builder().build();
+  }
+
+  private DocumentValidator(final Long maxFileSize, final Boolean checkStructure) {
+
+    this.maxFileSize = maxFileSize == null ? Long.MAX_VALUE : maxFileSize;
+    this.checkStructure = checkStructure == null || checkStructure;
+  }
+
+  /**
+   * Validates the specified source document.
+   *
+   * @param file The source file.
+   * @param format The format of the source file, may be {@code null} if unknown.
+   * @throws InvalidDocumentException If the document cannot possibly be loaded by office.
+   */
+  public void validate(final File file, final DocumentFormat format)
+      throws InvalidDocumentException {
+
+    final long length = file.length();
+    if (length == 0L) {
+      throw new InvalidDocumentException("Document " + file.getName() + " is empty");
+    }
+    if (length > maxFileSize) {
+      throw new InvalidDocumentException(
+          String.format(
+              "Document %s is too large (%d bytes, maximum %d bytes)",
+              file.getName(), length, maxFileSize));
+    }
+    if (!checkStructure) {
+      return;
+    }
+
+    final String mediaType =
+        format == null || format.getMediaType() == null
+            ? ""
+            : format.getMediaType().toLowerCase(Locale.ROOT);
+    try {
+      final RandomAccessFile raf = new RandomAccessFile(file, "r");
+      try {
+        final byte[] header = new byte[(int) Math.min(length, OLE2_HEADER_SIZE)];
+        raf.readFully(header);
+
+        if (startsWith(header, ZIP_SIGNATURE) || startsWith(header, EMPTY_ZIP_SIGNATURE)) {
+          validateZip(file, raf, length, mediaType);
+        } else if (startsWith(header, OLE2_SIGNATURE)) {
+          validateOle2(file, header, length);
+        } else if (isZipBased(mediaType)) {
+          throw new InvalidDocumentException(
+              "Document " + file.getName() + " is not a valid " + format.getName() + " document");
+        }
+      } finally {
+        raf.close();
+      }
+    } catch (IOException ex) {
+      throw new InvalidDocumentException("Could not read document " + file.getName(), ex);
+    }
+  }
+
+  private static boolean isZipBased(final String mediaType) {
+
+    return mediaType.startsWith(OOXML_MEDIA_TYPE_PREFIX)
+        || mediaType.startsWith(SXW_MEDIA_TYPE_PREFIX)
+        || mediaType.startsWith(ODF_MEDIA_TYPE_PREFIX)
+            && !mediaType.endsWith(FLAT_XML_MEDIA_TYPE_SUFFIX);
+  }
+
+  private static void validateZip(
+      final File file, final RandomAccessFile raf, final long length, final String mediaType)
+      throws IOException, InvalidDocumentException {
+
+    // Find the end of central directory record, which is followed by a comment of variable size.
+    final int tailSize = (int) Math.min(length, EOCD_SIZE + MAX_ZIP_COMMENT_SIZE);
+    final byte[] tail = new byte[tailSize];
+    raf.seek(length - tailSize);
+    raf.readFully(tail);
+    int eocd = -1;
+    for (int i = tailSize - EOCD_SIZE; i >= 0; i--) {
+      if (readInt(tail, i) == EOCD_SIGNATURE) {
+        eocd = i;
+        break;
+      }
+    }
+    if (eocd < 0) {
+      throw invalidZip(file, "end of central directory not found (truncated document?)");
+    }
+
+    final int entryCount = readShort(tail, eocd + 10);
+    final long cenSize = readInt(tail, eocd + 12) & 0xFFFFFFFFL;
+    final long cenOffset = readInt(tail, eocd + 16) & 0xFFFFFFFFL;
+    if (cenSize == ZIP64_MAGIC
+        || cenOffset == ZIP64_MAGIC
+        || entryCount == 0xFFFF
+        || cenSize > Integer.MAX_VALUE) {
+      // ZIP64 archive, office documents are never that large; let office deal with it.
+      return;
+    }
+    final long eocdOffset = length - tailSize + eocd;
+    if (cenOffset + cenSize > eocdOffset) {
+      throw invalidZip(file, "central directory out of bounds");
+    }
+
+    // Read the names of the entries from the central directory.
+    final byte[] cen = new byte[(int) cenSize];
+    raf.seek(cenOffset);
+    raf.readFully(cen);
+    final Set<String> names = new HashSet<String>(entryCount * 2);
+    int pos = 0;
+    for (int i = 0; i < entryCount; i++) {
+      if (pos + CEN_HEADER_SIZE > cen.length || readInt(cen, pos) != CEN_SIGNATURE) {
+        throw invalidZip(file, "corrupted central directory");
+      }
+      final int nameLength = readShort(cen, pos + 28);
+      final int extraLength = readShort(cen, pos + 30);
+      final int commentLength = readShort(cen, pos + 32);
+      if (pos + CEN_HEADER_SIZE + nameLength > cen.length) {
+        throw invalidZip(file, "corrupted central directory");
+      }
+      names.add(new String(cen, pos + CEN_HEADER_SIZE, nameLength, ZIP_NAME_CHARSET));
+      pos += CEN_HEADER_SIZE + nameLength + extraLength + commentLength;
+    }
+
+    if (mediaType.startsWith(OOXML_MEDIA_TYPE_PREFIX) && !names.contains("[Content_Types].xml")) {
+      throw invalidZip(file, "missing [Content_Types].xml entry");
+    }
+    if (mediaType.startsWith(ODF_MEDIA_TYPE_PREFIX) && !names.contains("mimetype")) {
+      throw invalidZip(file, "missing mimetype entry");
+    }
+  }
+
+  private static InvalidDocumentException invalidZip(final File file, final String reason) {
+    return new InvalidDocumentException(
+        "Document " + file.getName() + " is not a valid ZIP container: " + reason);
+  }
+
+  private static void validateOle2(final File file, final byte[] header, final long length)
+      throws InvalidDocumentException {
+
+    if (header.length < OLE2_HEADER_SIZE) {
+      throw invalidOle2(file, "truncated header");
+    }
+    // Byte order mark, always little endian
+    if (readShort(header, 28) != 0xFFFE) {
+      throw invalidOle2(file, "invalid byte order");
+    }
+    // Sector size, 512 bytes (version 3) or 4096 bytes (version 4)
+    final int sectorShift = readShort(header, 30);
+    final int miniSectorShift = readShort(header, 32);
+    if (sectorShift != 9 && sectorShift != 12 || miniSectorShift != 6) {
+      throw invalidOle2(file, "invalid sector size");
+    }
+    final long sectorSize = 1L << sectorShift;
+    // The last sector may be incomplete
+    final long sectorCount = (length - 1L) / sectorSize;
+    final long fatSectorCount = readInt(header, 44) & 0xFFFFFFFFL;
+    if (fatSectorCount == 0L || fatSectorCount > sectorCount) {
+      throw invalidOle2(file, "invalid FAT sector count (truncated document?)");
+    }
+    final long directorySector = readInt(header, 48) & 0xFFFFFFFFL;
+    if (directorySector >= sectorCount) {
+      throw invalidOle2(file, "directory sector out of bounds (truncated document?)");
+    }
+  }
+
+  private static InvalidDocumentException invalidOle2(final File file, final String reason) {
+    return new InvalidDocumentException(
+        "Document " + file.getName() + " is not a valid OLE2 container: " + reason);
+  }
+
+  private static boolean startsWith(final byte[] bytes, final byte[] prefix) {
+
+    if (bytes.length < prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (bytes[i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int readShort(final byte[] bytes, final int offset) {
+    return bytes[offset] & 0xFF | (bytes[offset + 1] & 0xFF) << 8;
+  }
+
+  private static int readInt(final byte[] bytes, final int offset) {
+    return readShort(bytes, offset) | readShort(bytes, offset + 2) << 16;
+  }
+
+  /**
+   * A builder for constructing a {@link DocumentValidator}.
+   *
+   * @see DocumentValidator
+   */
+  public static final class Builder {
+
+    private Long maxFileSize;
+    private Boolean checkStructure;
+
+    // Private constructor so only DocumentValidator can create an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the validator that is specified by this builder.
+     *
+     * @return The validator that is specified by this builder.
+     */
+    public DocumentValidator build() {
+      return new DocumentValidator(maxFileSize, checkStructure);
+    }
+
+    /**
+     * Specifies the maximum size of a source document.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: No limit
+     *
+     * @param maxFileSize The maximum size, in bytes.
+     * @return This builder instance.
+     */
+    public Builder maxFileSize(final Long maxFileSize) {
+
+      if (maxFileSize != null) {
+        AssertUtils.isTrue(
+            maxFileSize > 0, String.format("maxFileSize %s must be greater than 0", maxFileSize));
+      }
+      this.maxFileSize = maxFileSize;
+      return this;
+    }
+
+    /**
+     * Specifies whether the structure of ZIP and OLE2 containers must be checked. When disabled,
+     * only the size of the documents is checked.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: true
+     *
+     * @param checkStructure {@code true} to check the structure of the documents, {@code false}
+     *     otherwise.
+     * @return This builder instance.
+     */
+    public Builder checkStructure(final Boolean checkStructure) {
+
+      this.checkStructure = checkStructure;
+      return this;
+    }
+  }
+}
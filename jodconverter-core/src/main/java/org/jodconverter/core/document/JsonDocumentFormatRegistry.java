@@ -21,9 +21,9 @@ package org.jodconverter.core.document;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
-import org.jodconverter.core.document.DocumentFormat.Builder;
 import org.jodconverter.core.util.IOUtils;
 
 import java.io.IOException;
@@ -35,7 +35,7 @@ import java.util.Map;
 
 /**
  * A JsonDocumentFormatRegistry contains a collection of {@code DocumentFormat} supported by office
- * that has been loaded loaded from a JSON source.
+ * that has been loaded loaded from a JSON source. The created registries are frozen.
  */
 public class JsonDocumentFormatRegistry extends SimpleDocumentFormatRegistry {
 
@@ -76,6 +76,7 @@ public class JsonDocumentFormatRegistry extends SimpleDocumentFormatRegistry {
 
     final JsonDocumentFormatRegistry registry = new JsonDocumentFormatRegistry();
     registry.readJsonArray(source, null);
+    registry.freeze();
     return registry;
   }
 
@@ -91,6 +92,7 @@ public class JsonDocumentFormatRegistry extends SimpleDocumentFormatRegistry {
 
     final JsonDocumentFormatRegistry registry = new JsonDocumentFormatRegistry();
     registry.readJsonArray(source, customProperties);
+    registry.freeze();
     return registry;
   }
 
@@ -122,7 +124,8 @@ public class JsonDocumentFormatRegistry extends SimpleDocumentFormatRegistry {
                   return DocumentFormat.unmodifiableCopy(fmt);
                 }
                 final DocumentFormatProperties props = customProperties.get(fmt.getExtension());
-                final Builder builder = DocumentFormat.builder().from(fmt).unmodifiable(true);
+                final DocumentFormat.Builder builder =
+                    DocumentFormat.builder().from(fmt).unmodifiable(true);
                 // Add custom load/store properties.
                 for (Map.Entry<String, Object> entry : props.getLoad().entrySet()) {
                   builder.loadProperty(entry.getKey(), entry.getValue());
@@ -140,8 +143,6 @@ public class JsonDocumentFormatRegistry extends SimpleDocumentFormatRegistry {
               }
             });
 
-    for (DocumentFormat documentFormat : documentFormats) {
-      addFormat(documentFormat);
-    }
+    addFormats(Lists.newArrayList(documentFormats));
   }
 }
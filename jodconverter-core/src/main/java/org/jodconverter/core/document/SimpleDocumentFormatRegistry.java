@@ -19,61 +19,269 @@
 
 package org.jodconverter.core.document;
 
-import com.google.common.base.Predicate;
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Sets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableTable;
+import com.google.common.collect.Maps;
 import org.jodconverter.core.util.AssertUtils;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
-/** A SimpleDocumentFormatRegistry contains a collection of document formats supported by office. */
+/**
+ * A SimpleDocumentFormatRegistry contains a collection of document formats supported by office.
+ *
+ * <p>All the lookups are served by immutable indexes that are computed when formats are added to
+ * the registry: the formats by extension and by media type, the output formats by document family
+ * and the store properties of every (input format, output format) pair. Once frozen (which is the
+ * case of the registries created by a {@link Builder} or by {@link JsonDocumentFormatRegistry}),
+ * the registry cannot be modified anymore.
+ */
 public class SimpleDocumentFormatRegistry implements DocumentFormatRegistry {
 
-  private final Map<String, DocumentFormat> fmtsByExtension = new HashMap<String, DocumentFormat>();
-  private final Map<String, DocumentFormat> fmtsByMediaType = new HashMap<String, DocumentFormat>();
+  private volatile Index index = Index.EMPTY;
+  private boolean frozen;
+
+  /** Immutable lookup structures of the registry. */
+  private static final class Index {
+
+    private static final Index EMPTY = new Index(Collections.<DocumentFormat>emptyList());
+
+    // The formats, by (lower case) media type, in registration order.
+    private final ImmutableMap<String, DocumentFormat> fmtsByMediaType;
+    // The formats, by (lower case) extension.
+    private final ImmutableMap<String, DocumentFormat> fmtsByExtension;
+    private final ImmutableMap<DocumentFamily, ImmutableSet<DocumentFormat>> outputFormats;
+    // Input format, output format -> store properties.
+    private final ImmutableTable<DocumentFormat, DocumentFormat, Map<String, Object>> conversions;
+
+    private Index(final Collection<DocumentFormat> formats) {
+
+      final Map<String, DocumentFormat> byMediaType = new LinkedHashMap<String, DocumentFormat>();
+      final Map<String, DocumentFormat> byExtension = new LinkedHashMap<String, DocumentFormat>();
+      for (final DocumentFormat format : formats) {
+        byMediaType.put(format.getMediaType().toLowerCase(Locale.ROOT), format);
+        for (final String extension : format.getExtensions()) {
+          byExtension.put(extension.toLowerCase(Locale.ROOT), format);
+        }
+      }
+      fmtsByMediaType = ImmutableMap.copyOf(byMediaType);
+      fmtsByExtension = ImmutableMap.copyOf(byExtension);
+
+      // Use fmtsByMediaType since fmtsByExtension may contain the same
+      // DocumentFormat with multiple extensions (e.g: jpg, jpeg).
+      final Map<DocumentFamily, ImmutableSet<DocumentFormat>> byFamily =
+          new EnumMap<DocumentFamily, ImmutableSet<DocumentFormat>>(DocumentFamily.class);
+      for (final DocumentFamily family : DocumentFamily.values()) {
+        final ImmutableSet.Builder<DocumentFormat> builder = ImmutableSet.builder();
+        for (final DocumentFormat format : fmtsByMediaType.values()) {
+          if (format.getStoreProperties(family) != null) {
+            builder.add(format);
+          }
+        }
+        byFamily.put(family, builder.build());
+      }
+      outputFormats = Maps.immutableEnumMap(byFamily);
+
+      final ImmutableTable.Builder<DocumentFormat, DocumentFormat, Map<String, Object>> matrix =
+          ImmutableTable.builder();
+      for (final DocumentFormat input : fmtsByMediaType.values()) {
+        for (final DocumentFormat output : outputFormats.get(input.getInputFamily())) {
+          matrix.put(input, output, output.getStoreProperties(input.getInputFamily()));
+        }
+      }
+      conversions = matrix.build();
+    }
+
+    private Index with(final Collection<DocumentFormat> formats) {
+
+      return new Index(
+          ImmutableList.<DocumentFormat>builder()
+              .addAll(fmtsByMediaType.values())
+              .addAll(formats)
+              .build());
+    }
+  }
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
 
   /**
    * Add a new format to the registry.
    *
    * @param documentFormat The format to add.
+   * @throws IllegalStateException If the registry is frozen.
    */
   public void addFormat(final DocumentFormat documentFormat) {
-    for (String extension : documentFormat.getExtensions()) {
-      fmtsByExtension.put(extension.toLowerCase(Locale.ROOT), documentFormat);
-      fmtsByMediaType.put(documentFormat.getMediaType().toLowerCase(Locale.ROOT), documentFormat);
+
+    AssertUtils.notNull(documentFormat, "documentFormat must not be null");
+    addFormats(Collections.singletonList(documentFormat));
+  }
+
+  /**
+   * Adds new formats to the registry, computing the indexes of the registry only once.
+   *
+   * @param documentFormats The formats to add.
+   * @throws IllegalStateException If the registry is frozen.
+   */
+  protected synchronized void addFormats(final Collection<DocumentFormat> documentFormats) {
+
+    if (frozen) {
+      throw new IllegalStateException("This registry is frozen and cannot be modified.");
     }
+    index = index.with(documentFormats);
+  }
+
+  /** Freezes the registry; formats cannot be added to a frozen registry. */
+  protected synchronized void freeze() {
+    frozen = true;
+  }
+
+  /**
+   * Gets whether the registry is frozen.
+   *
+   * @return {@code true} if formats cannot be added to the registry anymore, {@code false}
+   *     otherwise.
+   */
+  public synchronized boolean isFrozen() {
+    return frozen;
+  }
+
+  /**
+   * Gets all the formats of the registry.
+   *
+   * @return An immutable collection of the formats, in registration order.
+   */
+  public Collection<DocumentFormat> getFormats() {
+    return index.fmtsByMediaType.values();
   }
 
   @Override
   public DocumentFormat getFormatByExtension(final String extension) {
 
     AssertUtils.notNull(extension, "extension must not be null");
-    return fmtsByExtension.get(extension.toLowerCase(Locale.ROOT));
+    return get(index.fmtsByExtension, extension);
   }
 
   @Override
   public DocumentFormat getFormatByMediaType(final String mediaType) {
 
     AssertUtils.notNull(mediaType, "mediaType must not be null");
-    return fmtsByMediaType.get(mediaType.toLowerCase(Locale.ROOT));
+    return get(index.fmtsByMediaType, mediaType);
   }
 
   @Override
   public Set<DocumentFormat> getOutputFormats(final DocumentFamily documentFamily) {
+
     AssertUtils.notNull(documentFamily, "documentFamily must not be null");
+    return index.outputFormats.get(documentFamily);
+  }
+
+  /**
+   * Gets the properties to apply when storing a document of the specified input format to the
+   * specified output format.
+   *
+   * @param inputFormat The format of the loaded document.
+   * @param outputFormat The format of the stored document.
+   * @return The store properties, or {@code null} if the conversion is not supported.
+   */
+  public Map<String, Object> getStoreProperties(
+      final DocumentFormat inputFormat, final DocumentFormat outputFormat) {
+
+    AssertUtils.notNull(inputFormat, "inputFormat must not be null");
+    AssertUtils.notNull(outputFormat, "outputFormat must not be null");
+    final Map<String, Object> props = index.conversions.get(inputFormat, outputFormat);
+    // Formats that are not registered (custom copies...) are resolved directly.
+    return props == null ? outputFormat.getStoreProperties(inputFormat.getInputFamily()) : props;
+  }
+
+  // Case insensitive lookup, only allocating a lower case key when the given key is not found.
+  private static DocumentFormat get(final Map<String, DocumentFormat> map, final String key) {
+
+    final DocumentFormat format = map.get(key);
+    if (format != null || !hasUpperCase(key)) {
+      return format;
+    }
+    return map.get(key.toLowerCase(Locale.ROOT));
+  }
+
+  private static boolean hasUpperCase(final String str) {
+
+    for (int i = 0; i < str.length(); i++) {
+      if (Character.isUpperCase(str.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * A builder for constructing a {@link SimpleDocumentFormatRegistry}.
+   *
+   * @see SimpleDocumentFormatRegistry
+   */
+  public static final class Builder {
+
+    private final Map<String, DocumentFormat> formats = new LinkedHashMap<String, DocumentFormat>();
+
+    // Private constructor so only SimpleDocumentFormatRegistry can create an instance of this
+    // builder.
+    private Builder() {
+      super();
+    }
 
-    // Use fmtsByMediaType since fmtsByExtension may contain the same
-    // DocumentFormat with multiple extensions (e.g: jpg, jpeg).
-    return Sets.newHashSet(
-        Iterables.filter(
-            fmtsByMediaType.values(),
-            new Predicate<DocumentFormat>() {
-              public boolean apply(DocumentFormat input) {
-                return input.getStoreProperties(documentFamily) != null;
-              }
-            }));
+    /**
+     * Creates the (frozen) registry that is specified by this builder.
+     *
+     * @return The registry that is specified by this builder.
+     */
+    public SimpleDocumentFormatRegistry build() {
+
+      final SimpleDocumentFormatRegistry registry = new SimpleDocumentFormatRegistry();
+      registry.addFormats(formats.values());
+      registry.freeze();
+      return registry;
+    }
+
+    /**
+     * Initializes the builder with all the formats of the specified registry.
+     *
+     * @param registry The source registry, cannot be null.
+     * @return This builder instance.
+     */
+    public Builder from(final SimpleDocumentFormatRegistry registry) {
+
+      AssertUtils.notNull(registry, "registry must not be null");
+      for (final DocumentFormat format : registry.getFormats()) {
+        format(format);
+      }
+      return this;
+    }
+
+    /**
+     * Adds a format to the registry. A format with the same media type as a format previously
+     * added replaces it.
+     *
+     * @param documentFormat The format to add, cannot be null.
+     * @return This builder instance.
+     */
+    public Builder format(final DocumentFormat documentFormat) {
+
+      AssertUtils.notNull(documentFormat, "documentFormat must not be null");
+      formats.put(documentFormat.getMediaType().toLowerCase(Locale.ROOT), documentFormat);
+      return this;
+    }
   }
 }
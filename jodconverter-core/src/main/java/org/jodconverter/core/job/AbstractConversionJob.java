@@ -20,9 +20,13 @@
 package org.jodconverter.core.job;
 
 import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.document.DocumentValidator;
+import org.jodconverter.core.document.InvalidDocumentException;
 import org.jodconverter.core.office.OfficeException;
 import org.jodconverter.core.util.AssertUtils;
 
+import java.io.File;
+
 /**
  * Base class for all conversion job implementations.
  *
@@ -33,17 +37,25 @@ public abstract class AbstractConversionJob
 
   protected final AbstractSourceDocumentSpecs source;
   protected final AbstractTargetDocumentSpecs target;
+  private final DocumentValidator validator;
 
   protected AbstractConversionJob(
       final AbstractSourceDocumentSpecs source,
       final AbstractTargetDocumentSpecs target) {
+    this(source, target, null);
+  }
+
+  protected AbstractConversionJob(
+      final AbstractSourceDocumentSpecs source,
+      final AbstractTargetDocumentSpecs target,
+      final DocumentValidator validator) {
     super();
 
     this.source = source;
     this.target = target;
+    this.validator = validator;
   }
 
-
   @Override
   public ConversionJob as(final DocumentFormat format) {
 
@@ -55,9 +67,24 @@ public abstract class AbstractConversionJob
   public final void execute() throws OfficeException {
 
     AssertUtils.notNull(target.getFormat(), "The target format is missing or not supported");
+    if (validator != null) {
+      validate();
+    }
     doExecute();
   }
 
+  // Validates the source document, which is staged if it is a stream.
+  private void validate() throws InvalidDocumentException {
+
+    final File sourceFile = source.getFile();
+    try {
+      validator.validate(sourceFile, source.getFormat());
+    } catch (InvalidDocumentException ex) {
+      source.onConsumed(sourceFile);
+      throw ex;
+    }
+  }
+
   /**
    * Executes the conversion and blocks until the conversion terminates. Both source and target
    * document formats are known and valid at this point.
@@ -22,6 +22,7 @@ package org.jodconverter.core.job;
 import org.jodconverter.core.DocumentConverter;
 import org.jodconverter.core.document.DocumentFormat;
 import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentValidator;
 import org.jodconverter.core.office.OfficeManager;
 import org.jodconverter.core.office.TemporaryFileMaker;
 import org.jodconverter.core.util.AssertUtils;
@@ -43,8 +44,20 @@ public abstract class AbstractConverter implements DocumentConverter {
 
   protected final DocumentFormatRegistry formatRegistry;
 
+  protected final DocumentValidator documentValidator;
+
+  private final boolean formatSniffing;
+
   protected AbstractConverter(
       final OfficeManager officeManager, final DocumentFormatRegistry formatRegistry) {
+    this(officeManager, formatRegistry, null, null);
+  }
+
+  protected AbstractConverter(
+      final OfficeManager officeManager,
+      final DocumentFormatRegistry formatRegistry,
+      final DocumentValidator documentValidator,
+      final Boolean formatSniffing) {
     super();
 
     // Both argument are required.
@@ -52,6 +65,8 @@ public abstract class AbstractConverter implements DocumentConverter {
     AssertUtils.notNull(formatRegistry, "formatRegistry must not be null");
     this.officeManager = officeManager;
     this.formatRegistry = formatRegistry;
+    this.documentValidator = documentValidator;
+    this.formatSniffing = formatSniffing != null && formatSniffing;
   }
 
   @Override
@@ -80,7 +95,10 @@ public abstract class AbstractConverter implements DocumentConverter {
     if (officeManager instanceof TemporaryFileMaker) {
       return convert(
           new SourceDocumentSpecsFromInputStream(
-              source, (TemporaryFileMaker) officeManager, closeStream));
+              source,
+              (TemporaryFileMaker) officeManager,
+              closeStream,
+              formatSniffing ? formatRegistry : null));
     }
     throw new IllegalStateException(
         "An office manager must implements the TemporaryFileMaker "
@@ -111,6 +129,8 @@ public abstract class AbstractConverter implements DocumentConverter {
 
     protected OfficeManager officeManager;
     protected DocumentFormatRegistry formatRegistry;
+    protected DocumentValidator documentValidator;
+    protected Boolean formatSniffing;
 
     // Protected constructor so only subclasses can initialize an instance of this builder.
     protected AbstractConverterBuilder() {
@@ -150,5 +170,40 @@ public abstract class AbstractConverter implements DocumentConverter {
       this.formatRegistry = formatRegistry;
       return (B) this;
     }
+
+    /**
+     * Specifies the {@link DocumentValidator} used to validate the source documents before they
+     * are submitted to the office manager. A document that cannot possibly be loaded by office is
+     * then rejected immediately, without waiting for (and consuming) an office process.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: No validation
+     *
+     * @param documentValidator The validator of the source documents.
+     * @return This builder instance.
+     */
+    public B documentValidator(final DocumentValidator documentValidator) {
+
+      this.documentValidator = documentValidator;
+      return (B) this;
+    }
+
+    /**
+     * Specifies whether the format of a source document provided as a stream, when it is not
+     * specified, must be detected from the content of the document (see {@link
+     * org.jodconverter.core.document.DocumentFormatSniffer}). The detected format is resolved
+     * through the format registry of the converter, and carries the import filter of the document
+     * when it is known, so office does not need to run its own type detection.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: false
+     *
+     * @param formatSniffing {@code true} to detect the format of the source streams, {@code false}
+     *     otherwise.
+     * @return This builder instance.
+     */
+    public B formatSniffing(final Boolean formatSniffing) {
+
+      this.formatSniffing = formatSniffing;
+      return (B) this;
+    }
   }
 }
@@ -33,4 +33,23 @@ public abstract class AbstractSourceDocumentSpecs extends AbstractDocumentSpecs
   protected AbstractSourceDocumentSpecs(final File file) {
     super(file);
   }
+
+  /**
+   * Keeps the source file available, even once consumed, until {@link #release()} is called. This
+   * allows a task to be executed several times (for example when it is retried) without reading
+   * the source again. Calls to this method must be balanced with calls to {@link #release()}.
+   *
+   * <p>The default implementation does nothing since a source file remains available.
+   */
+  public void retain() {
+    // Nothing to retain by default
+  }
+
+  /**
+   * Releases the source file retained by a previous call to {@link #retain()}. If the source has
+   * been consumed in the meantime, the consumption is performed now.
+   */
+  public void release() {
+    // Nothing to release by default
+  }
 }
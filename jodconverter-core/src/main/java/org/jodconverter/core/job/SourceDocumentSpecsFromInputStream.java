@@ -19,6 +19,9 @@
 
 package org.jodconverter.core.job;
 
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormatSniffer;
 import org.jodconverter.core.office.TemporaryFileMaker;
 import org.jodconverter.core.util.AssertUtils;
 import org.jodconverter.core.util.FileUtils;
@@ -36,6 +39,10 @@ public class SourceDocumentSpecsFromInputStream extends AbstractSourceDocumentSp
   private final InputStream inputStream;
   private final TemporaryFileMaker fileMaker;
   private final boolean closeStream;
+  private final DocumentFormatRegistry sniffingRegistry;
+  private File stagedFile;
+  private int retainCount;
+  private File pendingConsumption;
 
   /**
    * Creates specs from the specified stream.
@@ -48,6 +55,24 @@ public class SourceDocumentSpecsFromInputStream extends AbstractSourceDocumentSp
       final InputStream inputStream,
       final TemporaryFileMaker fileMaker,
       final boolean closeStream) {
+    this(inputStream, fileMaker, closeStream, null);
+  }
+
+  /**
+   * Creates specs from the specified stream. If the format of the document is not specified when
+   * the stream is written to a temporary file, it is detected from the content of the document.
+   *
+   * @param inputStream The source stream.
+   * @param fileMaker Temporary file maker.
+   * @param closeStream If we close the stream on completion.
+   * @param sniffingRegistry The registry used to resolve the format detected from the content of
+   *     the document, {@code null} to disable the detection.
+   */
+  public SourceDocumentSpecsFromInputStream(
+      final InputStream inputStream,
+      final TemporaryFileMaker fileMaker,
+      final boolean closeStream,
+      final DocumentFormatRegistry sniffingRegistry) {
     super(fileMaker.makeTemporaryFile());
 
     AssertUtils.notNull(inputStream, "inputStream must not be null");
@@ -55,10 +80,16 @@ public class SourceDocumentSpecsFromInputStream extends AbstractSourceDocumentSp
     this.inputStream = inputStream;
     this.fileMaker = fileMaker;
     this.closeStream = closeStream;
+    this.sniffingRegistry = sniffingRegistry;
   }
 
   @Override
-  public File getFile() {
+  public synchronized File getFile() {
+
+    // The stream can only be read once; reuse the file it has already been written to.
+    if (stagedFile != null && stagedFile.isFile()) {
+      return stagedFile;
+    }
 
     // Write the InputStream to the temp file
     final File tempFile =
@@ -70,7 +101,6 @@ public class SourceDocumentSpecsFromInputStream extends AbstractSourceDocumentSp
       outputStream.getChannel().lock();
       try {
         IOUtils.copy(inputStream, outputStream);
-        return tempFile;
       } finally {
         // Note: This will implicitly release the file lock.
         outputStream.close();
@@ -78,11 +108,61 @@ public class SourceDocumentSpecsFromInputStream extends AbstractSourceDocumentSp
     } catch (IOException ex) {
       throw new DocumentSpecsIOException("Could not write stream to file " + tempFile, ex);
     }
+
+    stagedFile = getFormat() == null && sniffingRegistry != null ? sniff(tempFile) : tempFile;
+    return stagedFile;
+  }
+
+  // Detects the format of the written file, renaming the file with the extension of the format.
+  private File sniff(final File tempFile) {
+
+    final DocumentFormat format;
+    try {
+      format = DocumentFormatSniffer.detect(tempFile, sniffingRegistry);
+    } catch (IOException ex) {
+      throw new DocumentSpecsIOException("Could not read file " + tempFile, ex);
+    }
+    if (format == null) {
+      return tempFile;
+    }
+
+    setDocumentFormat(format);
+    final File renamedFile = fileMaker.makeTemporaryFile(format.getExtension());
+    return tempFile.renameTo(renamedFile) ? renamedFile : tempFile;
+  }
+
+  @Override
+  public synchronized void retain() {
+    retainCount++;
+  }
+
+  @Override
+  public void release() {
+
+    final File consumed;
+    synchronized (this) {
+      retainCount--;
+      if (retainCount > 0 || pendingConsumption == null) {
+        return;
+      }
+      consumed = pendingConsumption;
+      pendingConsumption = null;
+    }
+    onConsumed(consumed);
   }
 
   @Override
   public void onConsumed(final File tempFile) {
 
+    synchronized (this) {
+      // Defer the consumption while the file is retained.
+      if (retainCount > 0) {
+        pendingConsumption = tempFile;
+        return;
+      }
+      stagedFile = null;
+    }
+
     // The temporary file must be deleted
     FileUtils.deleteQuietly(tempFile);
 
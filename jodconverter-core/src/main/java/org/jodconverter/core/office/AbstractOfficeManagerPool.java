@@ -19,12 +19,16 @@
 
 package org.jodconverter.core.office;
 
+import org.jodconverter.core.job.AbstractSourceDocumentSpecs;
+import org.jodconverter.core.task.AbstractOfficeTask;
 import org.jodconverter.core.task.OfficeTask;
 import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.core.util.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
@@ -49,11 +53,17 @@ public abstract class AbstractOfficeManagerPool extends AbstractOfficeManager {
   protected static final int DEFAULT_POOL_SIZE = 1;
   // The default maximum living time of a task in the conversion queue.
   private static final long DEFAULT_TASK_QUEUE_TIMEOUT = 30000L; // 30 seconds
+  // The number of attempts that must fail because of the document before quarantining it.
+  private static final int MIN_POISON_FAILURES = 2;
 
   private final AtomicInteger poolState = new AtomicInteger(POOL_STOPPED);
 
   private final long taskQueueTimeout;
+  private final TaskRetryPolicy retryPolicy;
+  private final DocumentQuarantine quarantine;
   private final BlockingQueue<OfficeManager> pool;
+  private final AtomicInteger waitingTasks = new AtomicInteger(0);
+  private volatile long averageTaskDuration;
   private List<OfficeManager> entries;
 
   /**
@@ -66,10 +76,55 @@ public abstract class AbstractOfficeManagerPool extends AbstractOfficeManager {
    */
   protected AbstractOfficeManagerPool(
       final File workingDir, final Integer poolSize, final Long taskQueueTimeout) {
+    this(workingDir, poolSize, taskQueueTimeout, null);
+  }
+
+  /**
+   * Constructs a new instance of the class with the specified settings.
+   *
+   * @param workingDir The directory where temporary files and directories are created.
+   * @param poolSize The pool size.
+   * @param taskQueueTimeout The maximum living time of a task in the conversion queue. The task
+   *     will be removed from the queue if the waiting time is longer than this timeout.
+   * @param retryPolicy The policy applied when a task fails, {@code null} to never retry a task.
+   */
+  protected AbstractOfficeManagerPool(
+      final File workingDir,
+      final Integer poolSize,
+      final Long taskQueueTimeout,
+      final TaskRetryPolicy retryPolicy) {
+    this(workingDir, poolSize, taskQueueTimeout, retryPolicy, null);
+  }
+
+  /**
+   * Constructs a new instance of the class with the specified settings.
+   *
+   * @param workingDir The directory where temporary files and directories are created.
+   * @param poolSize The pool size.
+   * @param taskQueueTimeout The maximum living time of a task in the conversion queue. The task
+   *     will be removed from the queue if the waiting time is longer than this timeout.
+   * @param retryPolicy The policy applied when a task fails, {@code null} to never retry a task.
+   * @param quarantine The quarantine of the documents that crashed office or timed out, {@code
+   *     null} to disable the quarantine.
+   */
+  protected AbstractOfficeManagerPool(
+      final File workingDir,
+      final Integer poolSize,
+      final Long taskQueueTimeout,
+      final TaskRetryPolicy retryPolicy,
+      final DocumentQuarantine quarantine) {
     super(workingDir);
 
     this.taskQueueTimeout =
         taskQueueTimeout == null ? DEFAULT_TASK_QUEUE_TIMEOUT : taskQueueTimeout;
+    this.retryPolicy = retryPolicy == null ? TaskRetryPolicy.NONE : retryPolicy;
+    this.quarantine = quarantine;
+    if (quarantine != null && this.retryPolicy.getMaxAttempts() < MIN_POISON_FAILURES) {
+      LOGGER.warn(
+          "The document quarantine requires a retry policy of at least {} attempts;"
+              + " no document will be quarantined",
+          MIN_POISON_FAILURES);
+    }
 
     // Create the pool
     pool = new ArrayBlockingQueue<OfficeManager>(poolSize == null ? DEFAULT_POOL_SIZE : poolSize);
@@ -84,6 +139,25 @@ public abstract class AbstractOfficeManagerPool extends AbstractOfficeManager {
     this.entries = Collections.unmodifiableList(entries);
   }
 
+  /**
+   * Gets the maximum living time of a task in the conversion queue.
+   *
+   * @return The task queue timeout, in milliseconds.
+   */
+  protected final long getTaskQueueTimeout() {
+    return taskQueueTimeout;
+  }
+
+  /**
+   * Gets the number of entries of this pool, which is the number of tasks it can execute
+   * concurrently.
+   *
+   * @return The pool size.
+   */
+  public final int getPoolSize() {
+    return entries == null ? 0 : entries.size();
+  }
+
   @Override
   public final void execute(final OfficeTask task) throws OfficeException {
 
@@ -91,21 +165,141 @@ public abstract class AbstractOfficeManagerPool extends AbstractOfficeManager {
       throw new IllegalStateException("This office manager is not running.");
     }
 
-    // Try to acquire a manager entry, waiting the configured timeout for a
-    // manager to become available. If we succeed, the acquired manager will
-    // then execute the given task. Once the task is done, return the manager
-    // to the pool.
-    OfficeManager entry = null;
+    // When the task may be retried, or when the source must be fingerprinted,
+    // the source file must remain available (without reading the source again)
+    // until the last attempt is done.
+    final AbstractSourceDocumentSpecs source =
+        retryPolicy.getMaxAttempts() > 1 || quarantine != null ? getRetainableSource(task) : null;
+    if (source != null) {
+      source.retain();
+    }
+    File sourceFile = null;
     try {
-      entry = acquireManager();
-      entry.execute(task);
+      String digest = null;
+      if (quarantine != null && source != null) {
+        sourceFile = source.getFile();
+        digest = checkQuarantine(sourceFile);
+      }
+
+      OfficeManager failedEntry = null;
+      int poisonFailures = 0;
+      for (int attempt = 1; ; attempt++) {
+        final OfficeManager entry = acquireManager(failedEntry);
+        try {
+          execute(entry, task);
+          return;
+        } catch (OfficeException ex) {
+          // A failure occurring while this pool is stopping is not caused by the document.
+          final boolean running = isRunning();
+          if (running && TaskRetryPolicy.isPoisonFailure(ex)) {
+            poisonFailures++;
+          }
+          if (attempt >= retryPolicy.getMaxAttempts()
+              || !retryPolicy.isRetryable(ex)
+              || !running) {
+            // Only quarantine a document that crashed (or hung) office repeatedly, on
+            // different entries, so a single unrelated crash cannot quarantine it.
+            if (digest != null
+                && running
+                && poisonFailures >= MIN_POISON_FAILURES
+                && TaskRetryPolicy.isPoisonFailure(ex)) {
+              quarantine.add(digest);
+            }
+            throw ex;
+          }
+          LOGGER.warn(
+              "Task failed (attempt {} of {}), retrying it on another entry: {}",
+              attempt,
+              retryPolicy.getMaxAttempts(),
+              ex.getMessage());
+          failedEntry = entry;
+        } finally {
+          releaseManager(entry);
+        }
+      }
     } finally {
-      if (entry != null) {
-        releaseManager(entry);
+      if (source != null) {
+        if (sourceFile != null) {
+          // The source file has been staged here, make sure it is consumed
+          // even if the task has never been executed.
+          source.onConsumed(sourceFile);
+        }
+        source.release();
       }
     }
   }
 
+  // Checks that the specified source file is not quarantined, returning its digest.
+  private String checkQuarantine(final File sourceFile) throws OfficeException {
+
+    final String digest;
+    try {
+      digest = FileUtils.digest(sourceFile);
+    } catch (IOException ex) {
+      LOGGER.warn("Could not compute the digest of {}, skipping quarantine", sourceFile, ex);
+      return null;
+    }
+    if (quarantine.isQuarantined(digest)) {
+      throw new QuarantinedDocumentException(
+          "Document "
+              + digest
+              + " is quarantined since it previously crashed office or timed out",
+          digest);
+    }
+    return digest;
+  }
+
+  // Executes the task using the specified entry.
+  private void execute(final OfficeManager entry, final OfficeTask task) throws OfficeException {
+
+    final long start = System.currentTimeMillis();
+    try {
+      entry.execute(task);
+    } finally {
+      recordTaskDuration(System.currentTimeMillis() - start);
+    }
+  }
+
+  // Gets the source of the task if it can be retained between attempts.
+  private static AbstractSourceDocumentSpecs getRetainableSource(final OfficeTask task) {
+
+    if (task instanceof AbstractOfficeTask
+        && ((AbstractOfficeTask) task).getSource() instanceof AbstractSourceDocumentSpecs) {
+      return (AbstractSourceDocumentSpecs) ((AbstractOfficeTask) task).getSource();
+    }
+    return null;
+  }
+
+  // Updates the moving average of the task durations.
+  private void recordTaskDuration(final long duration) {
+
+    final long average = averageTaskDuration;
+    averageTaskDuration = average == 0L ? Math.max(1L, duration) : (average * 7L + duration) / 8L;
+  }
+
+  /**
+   * Gets the time a task submitted now would probably wait before an entry of the pool becomes
+   * available to execute it, according to the number of tasks already waiting and the average
+   * duration of the recent tasks.
+   *
+   * @return The projected wait time, in milliseconds; 0 if an entry is available right now, or
+   *     {@link Long#MAX_VALUE} if no entry is available and no task has been executed yet.
+   */
+  /* default */ long getProjectedWaitTime() {
+
+    final int available = pool.size();
+    final int waiting = waitingTasks.get();
+    if (available > waiting) {
+      return 0L;
+    }
+    final long average = averageTaskDuration;
+    if (average == 0L) {
+      return Long.MAX_VALUE;
+    }
+    // The tasks ahead of a new task are spread among all the entries.
+    return (long) ((waiting - available + 1) / (double) entries.size() * average);
+  }
+
   @Override
   public final boolean isRunning() {
     return poolState.get() == POOL_STARTED;
@@ -175,17 +369,27 @@ public abstract class AbstractOfficeManagerPool extends AbstractOfficeManager {
   /**
    * Acquires a manager, waiting the configured timeout for an entry to become available.
    *
+   * @param excluded An entry that should not be acquired if another entry exists (for example an
+   *     entry that just failed to execute a task), may be {@code null}.
    * @return A manager that was available.
    * @throws OfficeException If we are unable to acquire a manager.
    */
-  private OfficeManager acquireManager() throws OfficeException {
+  private OfficeManager acquireManager(final OfficeManager excluded) throws OfficeException {
     LOGGER.debug("Acquiring an office manager from the pool...");
 
     OfficeManager manager = null;
+    waitingTasks.incrementAndGet();
     try {
       manager = pool.poll(taskQueueTimeout, TimeUnit.MILLISECONDS);
+      if (manager != null && manager == excluded && entries.size() > 1) {
+        // Put the excluded entry back at the end of the queue and take the next one.
+        releaseManager(manager);
+        manager = pool.poll(taskQueueTimeout, TimeUnit.MILLISECONDS);
+      }
     } catch (InterruptedException interruptedEx) {
       Thread.currentThread().interrupt();
+    } finally {
+      waitingTasks.decrementAndGet();
     }
 
     if (manager == null) {
@@ -223,6 +427,8 @@ public abstract class AbstractOfficeManagerPool extends AbstractOfficeManager {
 
     protected Long taskExecutionTimeout;
     protected Long taskQueueTimeout;
+    protected TaskRetryPolicy taskRetryPolicy;
+    protected DocumentQuarantine documentQuarantine;
 
     // Protected constructor so only subclasses can initialize an instance of this builder.
     protected AbstractOfficeManagerPoolBuilder() {
@@ -269,5 +475,42 @@ public abstract class AbstractOfficeManagerPool extends AbstractOfficeManager {
       this.taskQueueTimeout = taskQueueTimeout;
       return (B) this;
     }
+
+    /**
+     * Specifies the policy applied when a task fails. A task that failed because the connection
+     * to office has been lost (for example an office crash) or because it did not complete within
+     * the task execution timeout can then be executed again by another entry of the pool. When the
+     * source of the task is a stream, the temporary file created from the stream is reused.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: {@link TaskRetryPolicy#NONE} (a failed task is never
+     * retried)
+     *
+     * @param taskRetryPolicy The retry policy.
+     * @return This builder instance.
+     */
+    public B taskRetryPolicy(final TaskRetryPolicy taskRetryPolicy) {
+
+      this.taskRetryPolicy = taskRetryPolicy;
+      return (B) this;
+    }
+
+    /**
+     * Specifies the quarantine of the source documents that crashed office or did not complete
+     * within the task execution timeout on at least two attempts (once all the attempts allowed by
+     * the retry policy have failed), so the retry policy must allow at least two attempts. A
+     * document is identified by the digest of its content, and a task submitted for a quarantined
+     * document fails immediately with a {@link QuarantinedDocumentException}, without acquiring
+     * an entry of the pool.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: No quarantine
+     *
+     * @param documentQuarantine The document quarantine.
+     * @return This builder instance.
+     */
+    public B documentQuarantine(final DocumentQuarantine documentQuarantine) {
+
+      this.documentQuarantine = documentQuarantine;
+      return (B) this;
+    }
   }
 }
@@ -46,6 +46,8 @@ public abstract class AbstractOfficeManagerPoolEntry implements OfficeManager {
   private final long taskExecutionTimeout;
   private final SuspendableThreadPoolExecutor taskExecutor;
   private Future<?> currentFuture;
+  // Whether the current task has been cancelled because the connection was lost.
+  private volatile boolean connectionLost;
 
   /**
    * Initializes a new pool entry with the specified configuration.
@@ -69,6 +71,7 @@ public abstract class AbstractOfficeManagerPoolEntry implements OfficeManager {
     // This check is already done in the pool
 
     // Submit the task to the executor
+    connectionLost = false;
     currentFuture =
         taskExecutor.submit(
             new Callable<Void>() {
@@ -101,6 +104,15 @@ public abstract class AbstractOfficeManagerPoolEntry implements OfficeManager {
       throw new OfficeException( // NOPMD - Only cause is relevant
           "Task failed: " + task, executionEx.getCause());
 
+    } catch (CancellationException cancellationEx) {
+
+      // The task has been cancelled, because office crashed or was stopped.
+      if (connectionLost) {
+        throw new OfficeConnectionLostException(
+            "Connection lost while executing task: " + task, cancellationEx);
+      }
+      throw new OfficeException("Task failed: " + task, cancellationEx);
+
     } catch (Exception ex) {
 
       // Unexpected exception
@@ -167,6 +179,16 @@ public abstract class AbstractOfficeManagerPoolEntry implements OfficeManager {
     }
   }
 
+  /**
+   * Cancels the current running task, if any, because the connection to office was unexpectedly
+   * lost. The task then fails with an {@link OfficeConnectionLostException}, which tells a crash
+   * of office apart from a cancellation. Do nothing if there is no current running task.
+   */
+  protected void cancelTaskDueToLostConnection() {
+    connectionLost = true;
+    cancelTask();
+  }
+
   /**
    * Sets the availability of this manager entry.
    *
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.office;
+
+import org.jodconverter.core.util.AssertUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Keeps track of the source documents that repeatedly caused an office crash or a task timeout,
+ * identified by the digest of their content. An {@link AbstractOfficeManagerPool} configured with
+ * a quarantine rejects such documents with a {@link QuarantinedDocumentException} before acquiring
+ * an entry, instead of letting them crash (or hang) office again.
+ *
+ * <p>The quarantine is kept in memory, bounded to a maximum number of documents (the least
+ * recently seen documents are evicted first), and can optionally be persisted into a file in order
+ * to survive restarts. A document is released from quarantine once its time-to-live is elapsed.
+ */
+public final class DocumentQuarantine {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DocumentQuarantine.class);
+
+  // The default maximum number of quarantined documents.
+  private static final int DEFAULT_MAX_ENTRIES = 1000;
+  // The default time-to-live of a quarantined document.
+  private static final long DEFAULT_TTL = 86400000L; // 24 hours
+
+  private final long ttl;
+  private final File storeFile;
+  // Digest -> expiration time, in access order.
+  private final LinkedHashMap<String, Long> entries;
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a new {@link DocumentQuarantine} with default configuration (in memory only).
+   *
+   * @return A {@link DocumentQuarantine} with default configuration.
+   */
+  public static DocumentQuarantine make() {
+    return builder().build();
+  }
+
+  private DocumentQuarantine(final Integer maxEntries, final Long ttl, final File storeFile) {
+
+    final int maxEntriesSafe = maxEntries == null ? DEFAULT_MAX_ENTRIES : maxEntries;
+    this.ttl = ttl == null ? DEFAULT_TTL : ttl;
+    this.storeFile = storeFile;
+    this.entries =
+        new LinkedHashMap<String, Long>(16, 0.75f, true) {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          protected boolean removeEldestEntry(final Map.Entry<String, Long> eldest) {
+            return size() > maxEntriesSafe;
+          }
+        };
+    load();
+  }
+
+  /**
+   * Gets whether the document with the specified digest is quarantined.
+   *
+   * @param digest The digest of the document.
+   * @return {@code true} if the document is quarantined, {@code false} otherwise.
+   */
+  public synchronized boolean isQuarantined(final String digest) {
+
+    final Long expiration = entries.get(digest);
+    if (expiration == null) {
+      return false;
+    }
+    if (expiration <= System.currentTimeMillis()) {
+      entries.remove(digest);
+      store();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Quarantines the document with the specified digest.
+   *
+   * @param digest The digest of the document.
+   */
+  public synchronized void add(final String digest) {
+
+    LOGGER.warn("Quarantining document {}", digest);
+    entries.put(digest, System.currentTimeMillis() + ttl);
+    store();
+  }
+
+  /**
+   * Releases the document with the specified digest from quarantine.
+   *
+   * @param digest The digest of the document.
+   */
+  public synchronized void remove(final String digest) {
+
+    if (entries.remove(digest) != null) {
+      store();
+    }
+  }
+
+  // Loads the quarantined documents from the store file, if any.
+  private void load() {
+
+    if (storeFile == null || !storeFile.isFile()) {
+      return;
+    }
+
+    final Properties props = new Properties();
+    try {
+      final InputStream input = new FileInputStream(storeFile);
+      try {
+        props.load(input);
+      } finally {
+        input.close();
+      }
+    } catch (IOException ex) {
+      LOGGER.error("Could not load the document quarantine from {}", storeFile, ex);
+      return;
+    }
+
+    final long now = System.currentTimeMillis();
+    for (final String digest : props.stringPropertyNames()) {
+      try {
+        final long expiration = Long.parseLong(props.getProperty(digest));
+        if (expiration > now) {
+          entries.put(digest, expiration);
+        }
+      } catch (NumberFormatException ignored) {
+        // Skip invalid entries
+      }
+    }
+  }
+
+  // Writes the quarantined documents into the store file, if any.
+  private void store() {
+
+    if (storeFile == null) {
+      return;
+    }
+
+    final long now = System.currentTimeMillis();
+    final Properties props = new Properties();
+    for (final Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        it.hasNext(); ) {
+      final Map.Entry<String, Long> entry = it.next();
+      if (entry.getValue() <= now) {
+        it.remove();
+      } else {
+        props.setProperty(entry.getKey(), String.valueOf(entry.getValue()));
+      }
+    }
+
+    try {
+      final OutputStream output = new FileOutputStream(storeFile);
+      try {
+        props.store(output, "JODConverter document quarantine (digest=expiration time)");
+      } finally {
+        output.close();
+      }
+    } catch (IOException ex) {
+      LOGGER.error("Could not store the document quarantine into {}", storeFile, ex);
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link DocumentQuarantine}.
+   *
+   * @see DocumentQuarantine
+   */
+  public static final class Builder {
+
+    private Integer maxEntries;
+    private Long ttl;
+    private File storeFile;
+
+    // Private constructor so only DocumentQuarantine can create an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the quarantine that is specified by this builder.
+     *
+     * @return The quarantine that is specified by this builder.
+     */
+    public DocumentQuarantine build() {
+      return new DocumentQuarantine(maxEntries, ttl, storeFile);
+    }
+
+    /**
+     * Specifies the maximum number of quarantined documents. When the maximum is reached, the least
+     * recently seen document is released from quarantine.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 1000
+     *
+     * @param maxEntries The maximum number of quarantined documents.
+     * @return This builder instance.
+     */
+    public Builder maxEntries(final Integer maxEntries) {
+
+      if (maxEntries != null) {
+        AssertUtils.isTrue(
+            maxEntries > 0, String.format("maxEntries %s must be greater than 0", maxEntries));
+      }
+      this.maxEntries = maxEntries;
+      return this;
+    }
+
+    /**
+     * Specifies how long a document remains quarantined.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 86400000 (24 hours)
+     *
+     * @param ttl The time-to-live of a quarantined document, in milliseconds.
+     * @return This builder instance.
+     */
+    public Builder ttl(final Long ttl) {
+
+      if (ttl != null) {
+        AssertUtils.isTrue(ttl > 0, String.format("ttl %s must be greater than 0", ttl));
+      }
+      this.ttl = ttl;
+      return this;
+    }
+
+    /**
+     * Specifies the file into which the quarantined documents are persisted, so the quarantine
+     * survives restarts. If not specified, the quarantine is kept in memory only.
+     *
+     * @param storeFile The store file.
+     * @return This builder instance.
+     */
+    public Builder storeFile(final File storeFile) {
+
+      this.storeFile = storeFile;
+      return this;
+    }
+  }
+}
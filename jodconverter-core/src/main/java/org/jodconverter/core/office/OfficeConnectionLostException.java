@@ -0,0 +1,40 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.office;
+
+/**
+ * An exception thrown when a task is cancelled because the connection to the office instance
+ * executing it was unexpectedly lost, usually because office crashed.
+ *
+ * @see AbstractOfficeManagerPoolEntry#cancelTaskDueToLostConnection()
+ */
+public class OfficeConnectionLostException extends OfficeException {
+  private static final long serialVersionUID = -6530128345104318874L;
+
+  /**
+   * Constructs a new exception with the specified detail message and cause.
+   *
+   * @param message The detail message.
+   * @param cause The cause.
+   */
+  public OfficeConnectionLostException(final String message, final Throwable cause) {
+    super(message, cause);
+  }
+}
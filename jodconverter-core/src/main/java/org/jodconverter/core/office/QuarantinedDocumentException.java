@@ -0,0 +1,53 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.office;
+
+/**
+ * An exception thrown when a task is submitted for a source document that is quarantined because
+ * it previously caused an office crash or a task timeout.
+ *
+ * @see DocumentQuarantine
+ */
+public class QuarantinedDocumentException extends OfficeException {
+  private static final long serialVersionUID = 4319640167735216367L;
+
+  private final String digest;
+
+  /**
+   * Constructs a new exception for the document with the specified digest.
+   *
+   * @param message The detail message.
+   * @param digest The digest of the quarantined document.
+   */
+  public QuarantinedDocumentException(final String message, final String digest) {
+    super(message);
+
+    this.digest = digest;
+  }
+
+  /**
+   * Gets the digest (SHA-256, hexadecimal) of the quarantined document.
+   *
+   * @return The digest.
+   */
+  public String getDigest() {
+    return digest;
+  }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.office;
+
+import org.jodconverter.core.task.OfficeTask;
+import org.jodconverter.core.task.OfficeTaskTranslator;
+import org.jodconverter.core.util.AssertUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link OfficeManager} that executes the tasks using a primary office manager pool (usually a
+ * local one) as long as it is not saturated, and spills the tasks over to a secondary office
+ * manager (usually a remote one) when the projected wait time of the primary pool exceeds a
+ * threshold.
+ *
+ * <p>A task is translated using the configured {@link OfficeTaskTranslator} before being sent to
+ * the secondary office manager. A task that cannot be translated (for example a local conversion
+ * using filters) is pinned to the primary office manager.
+ *
+ * <p>The primary and secondary office managers that are not running yet are started along with
+ * this manager, and only those are stopped along with it. A manager that is already running, for
+ * example one shared with other components, is left to its owner.
+ */
+public class SpilloverOfficeManager extends AbstractOfficeManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SpilloverOfficeManager.class);
+
+  private static final int STOPPED = 0;
+  private static final int STARTED = 1;
+  private static final int SHUTDOWN = 2;
+  // The default projected wait time of the primary pool above which tasks are spilled over.
+  private static final long DEFAULT_SPILLOVER_THRESHOLD = 0L;
+
+  private final AtomicInteger state = new AtomicInteger(STOPPED);
+  private final AbstractOfficeManagerPool primary;
+  private final OfficeManager secondary;
+  private final OfficeTaskTranslator translator;
+  private final long spilloverThreshold;
+  // Whether the managers have been started by this manager, and must then be stopped by it.
+  private boolean primaryOwned;
+  private boolean secondaryOwned;
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Constructs a new instance of the class with the specified settings.
+   *
+   * @param workingDir The directory where temporary files and directories are created.
+   * @param primary The office manager pool that executes the tasks when not saturated.
+   * @param secondary The office manager that executes the spilled over tasks.
+   * @param translator The translator of the spilled over tasks.
+   * @param spilloverThreshold The projected wait time of the primary pool, in milliseconds, above
+   *     which tasks are spilled over.
+   */
+  protected SpilloverOfficeManager(
+      final File workingDir,
+      final AbstractOfficeManagerPool primary,
+      final OfficeManager secondary,
+      final OfficeTaskTranslator translator,
+      final Long spilloverThreshold) {
+    super(workingDir);
+
+    this.primary = primary;
+    this.secondary = secondary;
+    this.translator = translator;
+    this.spilloverThreshold =
+        spilloverThreshold == null ? DEFAULT_SPILLOVER_THRESHOLD : spilloverThreshold;
+  }
+
+  @Override
+  public void execute(final OfficeTask task) throws OfficeException {
+
+    if (!isRunning()) {
+      throw new IllegalStateException("This office manager is not running.");
+    }
+
+    final long projectedWaitTime = primary.getProjectedWaitTime();
+    if (projectedWaitTime > spilloverThreshold) {
+      final OfficeTask translated = translator.translate(task);
+      if (translated != null) {
+        LOGGER.debug(
+            "Primary office manager saturated (projected wait: {} ms); spilling task over: {}",
+            projectedWaitTime,
+            translated);
+        secondary.execute(translated);
+        return;
+      }
+      LOGGER.debug("Task cannot be spilled over; pinned to the primary office manager: {}", task);
+    }
+    primary.execute(task);
+  }
+
+  @Override
+  public boolean isRunning() {
+    return state.get() == STARTED;
+  }
+
+  @Override
+  public void start() throws OfficeException {
+
+    synchronized (this) {
+      if (state.get() == SHUTDOWN) {
+        throw new IllegalStateException("This office manager has been shutdown.");
+      }
+
+      if (state.get() == STARTED) {
+        throw new IllegalStateException("This office manager is already running.");
+      }
+
+      // The managers may have been started by their owner, who is then responsible for
+      // stopping them.
+      if (!primary.isRunning()) {
+        primary.start();
+        primaryOwned = true;
+      }
+      if (!secondary.isRunning()) {
+        boolean started = false;
+        try {
+          secondary.start();
+          started = true;
+        } finally {
+          if (!started) {
+            stopOwnedManagers();
+          }
+        }
+        secondaryOwned = true;
+      }
+
+      makeTempDir();
+
+      state.set(STARTED);
+    }
+  }
+
+  @Override
+  public void stop() throws OfficeException {
+
+    synchronized (this) {
+      if (state.get() == SHUTDOWN) {
+        // Already shutdown, just exit
+        return;
+      }
+
+      state.set(SHUTDOWN);
+
+      try {
+        LOGGER.info("Stopping the spillover office manager...");
+        stopOwnedManagers();
+      } finally {
+        deleteTempDir();
+      }
+    }
+  }
+
+  // Stops the managers started by this manager.
+  private void stopOwnedManagers() throws OfficeException {
+
+    try {
+      if (primaryOwned) {
+        primaryOwned = false;
+        primary.stop();
+      }
+    } finally {
+      if (secondaryOwned) {
+        secondaryOwned = false;
+        secondary.stop();
+      }
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link SpilloverOfficeManager}.
+   *
+   * @see SpilloverOfficeManager
+   */
+  public static final class Builder extends AbstractOfficeManagerBuilder<Builder> {
+
+    private AbstractOfficeManagerPool primary;
+    private OfficeManager secondary;
+    private OfficeTaskTranslator translator;
+    private Long spilloverThreshold;
+
+    // Private constructor so only SpilloverOfficeManager can initialize an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    @Override
+    public SpilloverOfficeManager build() {
+
+      AssertUtils.notNull(primary, "primary must not be null");
+      AssertUtils.notNull(secondary, "secondary must not be null");
+      AssertUtils.notNull(translator, "translator must not be null");
+
+      // Assign default values for properties that are not set yet.
+      if (workingDir == null) {
+        workingDir = OfficeUtils.getDefaultWorkingDir();
+      }
+
+      final SpilloverOfficeManager manager =
+          new SpilloverOfficeManager(
+              workingDir, primary, secondary, translator, spilloverThreshold);
+      if (install) {
+        InstalledOfficeManagerHolder.setInstance(manager);
+      }
+      return manager;
+    }
+
+    /**
+     * Specifies the office manager pool that executes the tasks as long as it is not saturated,
+     * usually a local office manager.
+     *
+     * @param primary The primary office manager pool.
+     * @return This builder instance.
+     */
+    public Builder primary(final AbstractOfficeManagerPool primary) {
+
+      this.primary = primary;
+      return this;
+    }
+
+    /**
+     * Specifies the office manager that executes the tasks spilled over when the primary office
+     * manager is saturated, usually a remote office manager.
+     *
+     * @param secondary The secondary office manager.
+     * @return This builder instance.
+     */
+    public Builder secondary(final OfficeManager secondary) {
+
+      this.secondary = secondary;
+      return this;
+    }
+
+    /**
+     * Specifies the translator used to translate the tasks spilled over to the secondary office
+     * manager (for example {@code org.jodconverter.remote.task.RemoteTaskTranslator}).
+     *
+     * @param translator The task translator.
+     * @return This builder instance.
+     */
+    public Builder translator(final OfficeTaskTranslator translator) {
+
+      this.translator = translator;
+      return this;
+    }
+
+    /**
+     * Specifies the projected wait time of the primary office manager above which the tasks are
+     * spilled over to the secondary office manager. The projected wait time is 0 while an entry of
+     * the primary pool is available.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 0 (spill over as soon as no entry is available)
+     *
+     * @param spilloverThreshold The spillover threshold, in milliseconds.
+     * @return This builder instance.
+     */
+    public Builder spilloverThreshold(final Long spilloverThreshold) {
+
+      if (spilloverThreshold != null) {
+        AssertUtils.isTrue(
+            spilloverThreshold >= 0,
+            String.format(
+                "spilloverThreshold %s must greater than or equal to 0", spilloverThreshold));
+      }
+      this.spilloverThreshold = spilloverThreshold;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.office;
+
+import org.jodconverter.core.util.AssertUtils;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Defines whether, and how many times, a task that failed within an {@link
+ * AbstractOfficeManagerPool} is executed again by another entry of the pool. Only the failures
+ * that are not caused by the task itself are retried: a lost connection to the office process or
+ * server (for example an office crash) or a task that did not complete within the execution
+ * timeout.
+ */
+public class TaskRetryPolicy {
+
+  /** A policy that never retries a failed task. */
+  public static final TaskRetryPolicy NONE = new TaskRetryPolicy(1);
+
+  // Name of the exception thrown by office when the connection is lost
+  // (not referenced directly since the core module does not depend on office).
+  private static final String DISPOSED_EXCEPTION = "com.sun.star.lang.DisposedException";
+
+  private final int maxAttempts;
+
+  /**
+   * Creates a new policy.
+   *
+   * @param maxAttempts The maximum number of times a task is executed, including the first
+   *     attempt. Must be greater than 0.
+   */
+  public TaskRetryPolicy(final int maxAttempts) {
+    super();
+
+    AssertUtils.isTrue(
+        maxAttempts > 0, String.format("maxAttempts %s must be greater than 0", maxAttempts));
+    this.maxAttempts = maxAttempts;
+  }
+
+  /**
+   * Gets the maximum number of times a task is executed, including the first attempt.
+   *
+   * @return The maximum number of attempts.
+   */
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  /**
+   * Gets whether the specified failure was caused by a lost connection or a timeout.
+   *
+   * @param exception The failure.
+   * @return {@code true} if the failure was caused by a lost connection or a timeout, {@code false}
+   *     otherwise.
+   */
+  public static boolean isConnectionLossOrTimeout(final Throwable exception) {
+
+    for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+      if (cause instanceof TimeoutException
+          || cause instanceof CancellationException
+          || cause instanceof SocketTimeoutException
+          || cause instanceof ConnectException
+          || DISPOSED_EXCEPTION.equals(cause.getClass().getName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets whether the specified failure may have been caused by the source document of the task:
+   * office crashed or was disconnected while executing the task, or the task did not complete
+   * within the execution timeout. A failure to connect to office, or a task cancelled for another
+   * reason than a lost connection, is never considered as a poison failure since it does not depend
+   * on the document.
+   *
+   * @param exception The failure.
+   * @return {@code true} if the failure may have been caused by the source document, {@code false}
+   *     otherwise.
+   */
+  public static boolean isPoisonFailure(final Throwable exception) {
+
+    boolean disposed = false;
+    for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+      // A task cancelled because office crashed while executing it.
+      if (cause instanceof OfficeConnectionLostException) {
+        return true;
+      }
+      if (cause instanceof ConnectException || cause instanceof CancellationException) {
+        return false;
+      }
+      if (DISPOSED_EXCEPTION.equals(cause.getClass().getName())) {
+        disposed = true;
+      }
+    }
+    // A task that did not complete within the execution timeout fails with
+    // an OfficeException directly caused by the TimeoutException of its future.
+    return disposed
+        || exception instanceof OfficeException && exception.getCause() instanceof TimeoutException;
+  }
+
+  /**
+   * Gets whether a task that failed with the specified exception can be executed again.
+   *
+   * @param exception The failure.
+   * @return {@code true} if the task can be executed again, {@code false} otherwise.
+   */
+  public boolean isRetryable(final OfficeException exception) {
+    return isConnectionLossOrTimeout(exception);
+  }
+}
@@ -41,6 +41,15 @@ public abstract class AbstractOfficeTask implements OfficeTask {
     this.source = source;
   }
 
+  /**
+   * Gets the source specifications of the document.
+   *
+   * @return The source specifications.
+   */
+  public SourceDocumentSpecs getSource() {
+    return source;
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName() + "{" + "source=" + source + '}';
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.task;
+
+import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.job.TargetDocumentSpecs;
+
+/**
+ * Represents a task that converts a source document into a target document.
+ *
+ * @see OfficeTask
+ */
+public interface ConversionTask extends OfficeTask {
+
+  /**
+   * Gets the source specifications of the conversion.
+   *
+   * @return The source specifications.
+   */
+  SourceDocumentSpecs getSource();
+
+  /**
+   * Gets the target specifications of the conversion.
+   *
+   * @return The target specifications.
+   */
+  TargetDocumentSpecs getTarget();
+
+  /**
+   * Gets whether this task only performs a plain conversion, meaning that it can be translated into
+   * a task executed by another kind of office manager (for example a remote one) with the same
+   * result. A task that modifies the document while converting it (filters, custom load/store
+   * properties...) is not portable.
+   *
+   * @return {@code true} if the task is portable, {@code false} otherwise.
+   */
+  boolean isPortable();
+}
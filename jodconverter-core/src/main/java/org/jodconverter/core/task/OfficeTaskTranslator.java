@@ -0,0 +1,38 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.core.task;
+
+/**
+ * Translates a task created for a kind of office manager into an equivalent task that can be
+ * executed by another kind of office manager.
+ *
+ * @see org.jodconverter.core.office.SpilloverOfficeManager
+ */
+public interface OfficeTaskTranslator {
+
+  /**
+   * Translates the specified task.
+   *
+   * @param task The task to translate.
+   * @return The translated task, or {@code null} if the task cannot be translated and must be
+   *     executed by the office manager it was created for.
+   */
+  OfficeTask translate(OfficeTask task);
+}
@@ -22,14 +22,19 @@ package org.jodconverter.core.util;
 import org.apache.commons.io.FilenameUtils;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 /** Contains files helper functions. */
 public final class FileUtils {
 
   private static final char UNIX_SEPARATOR = '/';
   private static final char WINDOWS_SEPARATOR = '\\';
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
 
   //  private static int lastIndexOfSeparator(final String filename) {
   //
@@ -187,6 +192,43 @@ public final class FileUtils {
     return org.apache.commons.io.FileUtils.readFileToString(file, encoding);
   }
 
+  /**
+   * Computes the digest (SHA-256, hexadecimal) of the content of the specified file.
+   *
+   * @param file The file to read, must not be {@code null}.
+   * @return The digest, never {@code null}.
+   * @throws IOException If an IO error occurs.
+   */
+  public static String digest(final File file) throws IOException {
+    AssertUtils.notNull(file, "file must not be null");
+
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex); // Every Java platform must support SHA-256
+    }
+
+    final InputStream input = new FileInputStream(file);
+    try {
+      final byte[] buffer = new byte[8192];
+      int read;
+      while ((read = input.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+    } finally {
+      input.close();
+    }
+
+    final byte[] bytes = digest.digest();
+    final char[] hex = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+      hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+    }
+    return new String(hex);
+  }
+
   // Suppresses default constructor, ensuring non-instantiability.
   private FileUtils() {
     throw new AssertionError("Utility class must not be instantiated");
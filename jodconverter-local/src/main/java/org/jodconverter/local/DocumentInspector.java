@@ -0,0 +1,257 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.document.DocumentMetadata;
+import org.jodconverter.core.document.DocumentMetadataReader;
+import org.jodconverter.core.office.InstalledOfficeManagerHolder;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.core.util.FileUtils;
+import org.jodconverter.local.task.LocalInspectionTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads the page count, the statistics and the core metadata of documents without converting
+ * them. The results are cached by the digest of the content of the documents, so inspecting the
+ * same document twice only costs a digest computation.
+ *
+ * <p>When the fast path is enabled, ODF and OOXML documents are inspected by reading the metadata
+ * they embed ({@code meta.xml}, {@code docProps/app.xml}), without using office at all. Other
+ * documents, and documents whose embedded metadata do not contain the page or sheet count, are
+ * loaded into office, without being laid out, by a {@link LocalInspectionTask}.
+ */
+public final class DocumentInspector {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DocumentInspector.class);
+
+  // The default maximum number of cached results.
+  private static final int DEFAULT_MAX_ENTRIES = 1000;
+
+  private final OfficeManager officeManager;
+  private final boolean fastPath;
+  // Digest -> metadata, in access order.
+  private final LinkedHashMap<String, DocumentMetadata> cache;
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a new {@link DocumentInspector} with default configuration. The created inspector will
+   * use the installed office manager when office is required.
+   *
+   * @return A {@link DocumentInspector} with default configuration.
+   */
+  public static DocumentInspector make() {
+    return builder().build();
+  }
+
+  /**
+   * Creates a new {@link DocumentInspector} with default configuration that will use the specified
+   * office manager when office is required.
+   *
+   * @param officeManager The office manager used to inspect the documents.
+   * @return A {@link DocumentInspector} with default configuration.
+   */
+  public static DocumentInspector make(final OfficeManager officeManager) {
+    return builder().officeManager(officeManager).build();
+  }
+
+  private DocumentInspector(
+      final OfficeManager officeManager, final Integer maxEntries, final Boolean fastPath) {
+
+    final int maxEntriesSafe = maxEntries == null ? DEFAULT_MAX_ENTRIES : maxEntries;
+    this.officeManager = officeManager;
+    this.fastPath = fastPath == null || fastPath;
+    this.cache =
+        new LinkedHashMap<String, DocumentMetadata>(16, 0.75f, true) {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          protected boolean removeEldestEntry(final Map.Entry<String, DocumentMetadata> eldest) {
+            return size() > maxEntriesSafe;
+          }
+        };
+  }
+
+  /**
+   * Inspects the specified document. The format of the document is guessed from its extension.
+   *
+   * @param file The document to inspect.
+   * @return The metadata of the document.
+   * @throws OfficeException If the document cannot be inspected.
+   */
+  public DocumentMetadata inspect(final File file) throws OfficeException {
+
+    AssertUtils.notNull(file, "file must not be null");
+    return inspect(
+        file,
+        DefaultDocumentFormatRegistry.getInstance()
+            .getFormatByExtension(FileUtils.getExtension(file.getName())));
+  }
+
+  /**
+   * Inspects the specified document.
+   *
+   * @param file The document to inspect.
+   * @param format The format of the document, may be {@code null} if unknown.
+   * @return The metadata of the document.
+   * @throws OfficeException If the document cannot be inspected.
+   */
+  public DocumentMetadata inspect(final File file, final DocumentFormat format)
+      throws OfficeException {
+
+    AssertUtils.notNull(file, "file must not be null");
+    AssertUtils.isTrue(file.isFile(), String.format("file %s must exist", file));
+
+    final String digest;
+    try {
+      digest = FileUtils.digest(file);
+    } catch (IOException ex) {
+      throw new OfficeException("Could not read document " + file, ex);
+    }
+
+    synchronized (cache) {
+      final DocumentMetadata cached = cache.get(digest);
+      if (cached != null) {
+        LOGGER.debug("Metadata of {} found in cache", file);
+        return cached;
+      }
+    }
+
+    DocumentMetadata metadata = null;
+    if (fastPath) {
+      metadata = DocumentMetadataReader.read(file);
+    }
+    if (metadata == null) {
+      AssertUtils.notNull(
+          officeManager, "An office manager is required in order to inspect " + file);
+      final LocalInspectionTask task = new LocalInspectionTask(new ExistingFileSpecs(file, format));
+      officeManager.execute(task);
+      metadata = task.getMetadata();
+    }
+
+    synchronized (cache) {
+      cache.put(digest, metadata);
+    }
+    return metadata;
+  }
+
+  /** Removes all the cached results. */
+  public void clearCache() {
+
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link DocumentInspector}.
+   *
+   * @see DocumentInspector
+   */
+  public static final class Builder {
+
+    private OfficeManager officeManager;
+    private Integer maxEntries;
+    private Boolean fastPath;
+
+    // Private constructor so only DocumentInspector can create an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the inspector that is specified by this builder.
+     *
+     * @return The inspector that is specified by this builder.
+     */
+    public DocumentInspector build() {
+
+      // An office manager is required only when office must be used.
+      final OfficeManager manager =
+          officeManager == null ? InstalledOfficeManagerHolder.getInstance() : officeManager;
+      return new DocumentInspector(manager, maxEntries, fastPath);
+    }
+
+    /**
+     * Specifies the office manager used to inspect the documents that cannot be inspected without
+     * office. If not specified, the installed office manager is used.
+     *
+     * @param officeManager The office manager.
+     * @return This builder instance.
+     */
+    public Builder officeManager(final OfficeManager officeManager) {
+
+      this.officeManager = officeManager;
+      return this;
+    }
+
+    /**
+     * Specifies the maximum number of cached results. When the maximum is reached, the least
+     * recently inspected document is evicted from the cache.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 1000
+     *
+     * @param maxEntries The maximum number of cached results.
+     * @return This builder instance.
+     */
+    public Builder maxEntries(final Integer maxEntries) {
+
+      if (maxEntries != null) {
+        AssertUtils.isTrue(
+            maxEntries > 0, String.format("maxEntries %s must be greater than 0", maxEntries));
+      }
+      this.maxEntries = maxEntries;
+      return this;
+    }
+
+    /**
+     * Specifies whether ODF and OOXML documents are inspected by reading the metadata they embed,
+     * without using office. The embedded statistics are the ones computed by the application that
+     * last saved the document.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: true
+     *
+     * @param fastPath {@code true} to enable the fast path, {@code false} otherwise.
+     * @return This builder instance.
+     */
+    public Builder fastPath(final Boolean fastPath) {
+
+      this.fastPath = fastPath;
+      return this;
+    }
+  }
+}
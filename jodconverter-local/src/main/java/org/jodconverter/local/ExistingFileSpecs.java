@@ -0,0 +1,63 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local;
+
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.job.SourceDocumentSpecs;
+
+import java.io.File;
+
+/** Source specifications of an existing file, which is left untouched once consumed. */
+/* default */ final class ExistingFileSpecs implements SourceDocumentSpecs {
+
+  private final File file;
+  private final DocumentFormat format;
+
+  /**
+   * Creates new specifications for the specified file.
+   *
+   * @param file The file.
+   * @param format The format of the file, may be null if unknown.
+   */
+  /* default */ ExistingFileSpecs(final File file, final DocumentFormat format) {
+    this.file = file;
+    this.format = format;
+  }
+
+  @Override
+  public File getFile() {
+    return file;
+  }
+
+  @Override
+  public DocumentFormat getFormat() {
+    return format;
+  }
+
+  @Override
+  public void onConsumed(final File file) {
+    // Nothing to do
+  }
+
+  @Override
+  public String toString() {
+    return file.getName();
+  }
+}
@@ -22,6 +22,7 @@ package org.jodconverter.local;
 import com.sun.star.document.UpdateDocMode;
 import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
 import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentValidator;
 import org.jodconverter.core.job.*;
 import org.jodconverter.core.office.InstalledOfficeManagerHolder;
 import org.jodconverter.core.office.OfficeException;
@@ -98,10 +99,12 @@ public class LocalConverter extends AbstractConverter {
   private LocalConverter(
       final OfficeManager officeManager,
       final DocumentFormatRegistry formatRegistry,
+      final DocumentValidator documentValidator,
+      final Boolean formatSniffing,
       final Map<String, Object> loadProperties,
       final FilterChain filterChain,
       final Map<String, Object> storeProperties) {
-    super(officeManager, formatRegistry);
+    super(officeManager, formatRegistry, documentValidator, formatSniffing);
 
     this.loadProperties = loadProperties;
     this.filterChain = filterChain;
@@ -135,7 +138,7 @@ public class LocalConverter extends AbstractConverter {
 
     private LocalConversionJob(
         final AbstractSourceDocumentSpecs source, final AbstractTargetDocumentSpecs target) {
-      super(source, target);
+      super(source, target, LocalConverter.this.documentValidator);
     }
 
     @Override
@@ -181,6 +184,8 @@ public class LocalConverter extends AbstractConverter {
       return new LocalConverter(
           manager,
           formatRegistry == null ? DefaultDocumentFormatRegistry.getInstance() : formatRegistry,
+          documentValidator,
+          formatSniffing,
           loadProperties,
           filterChain,
           storeProperties);
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.office.AbstractOfficeManagerPool;
+import org.jodconverter.core.office.InstalledOfficeManagerHolder;
+import org.jodconverter.core.office.NamedThreadFactory;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.core.util.FileUtils;
+import org.jodconverter.local.office.TemplateCache;
+import org.jodconverter.local.task.LocalMergeTask;
+import org.jodconverter.local.task.MergeSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Merges a template document with a list of records, producing one document per record (mail
+ * merge). The records are split into small chunks, each merged by its own {@link LocalMergeTask},
+ * so each task is subject to the task execution timeout (and counts towards the maximum number of
+ * tasks per office process) like any conversion. The chunks are executed in parallel, by as many
+ * threads as the office manager has entries, and the template is kept warm in memory by a {@link
+ * TemplateCache} shared by all the chunks, so it is loaded from its file only once per merge.
+ */
+public final class LocalMerger {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LocalMerger.class);
+
+  // The default number of records merged by a single task.
+  private static final int DEFAULT_RECORDS_PER_TASK = 1;
+
+  private final OfficeManager officeManager;
+  private final Map<String, Object> storeProperties;
+  private final int recordsPerTask;
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a new {@link LocalMerger} with default configuration. The created merger will use the
+   * installed office manager.
+   *
+   * @return A {@link LocalMerger} with default configuration.
+   */
+  public static LocalMerger make() {
+    return builder().build();
+  }
+
+  /**
+   * Creates a new {@link LocalMerger} with default configuration that will use the specified
+   * office manager.
+   *
+   * @param officeManager The office manager used to merge the documents.
+   * @return A {@link LocalMerger} with default configuration.
+   */
+  public static LocalMerger make(final OfficeManager officeManager) {
+    return builder().officeManager(officeManager).build();
+  }
+
+  private LocalMerger(
+      final OfficeManager officeManager,
+      final Map<String, Object> storeProperties,
+      final Integer recordsPerTask) {
+
+    this.officeManager = officeManager;
+    this.storeProperties = storeProperties;
+    this.recordsPerTask = recordsPerTask == null ? DEFAULT_RECORDS_PER_TASK : recordsPerTask;
+  }
+
+  /**
+   * Merges the specified template with each of the specified records.
+   *
+   * @param template The template document.
+   * @param targetFormat The format of the merged documents.
+   * @param records The records to merge, each mapping the placeholders of the template to their
+   *     value.
+   * @param sink The sink receiving the merged documents, called concurrently when the records are
+   *     merged in parallel.
+   * @throws OfficeException If a record cannot be merged. The merge of the remaining records is
+   *     cancelled.
+   */
+  public void merge(
+      final File template,
+      final DocumentFormat targetFormat,
+      final List<Map<String, String>> records,
+      final MergeSink sink)
+      throws OfficeException {
+
+    AssertUtils.notNull(template, "template must not be null");
+    AssertUtils.isTrue(template.isFile(), String.format("template %s must exist", template));
+    AssertUtils.notNull(records, "records must not be null");
+    if (records.isEmpty()) {
+      return;
+    }
+
+    final DocumentFormat templateFormat =
+        DefaultDocumentFormatRegistry.getInstance()
+            .getFormatByExtension(FileUtils.getExtension(template.getName()));
+
+    // The template is loaded from its file once, by the first task, and
+    // each record is then merged into a copy loaded from memory.
+    final ExistingFileSpecs templateSpecs = new ExistingFileSpecs(template, templateFormat);
+    final TemplateCache templateCache = TemplateCache.builder().template(template).build();
+    final List<LocalMergeTask> tasks =
+        new ArrayList<LocalMergeTask>((records.size() + recordsPerTask - 1) / recordsPerTask);
+    for (int first = 0; first < records.size(); first += recordsPerTask) {
+      tasks.add(
+          new LocalMergeTask(
+              templateSpecs,
+              templateCache,
+              targetFormat,
+              records.subList(first, Math.min(first + recordsPerTask, records.size())),
+              first,
+              sink,
+              storeProperties));
+    }
+
+    final int poolSize =
+        officeManager instanceof AbstractOfficeManagerPool
+            ? ((AbstractOfficeManagerPool) officeManager).getPoolSize()
+            : 1;
+    final int threadCount = Math.max(1, Math.min(poolSize, tasks.size()));
+    LOGGER.debug(
+        "Merging {} records in {} tasks using {} threads",
+        records.size(),
+        tasks.size(),
+        threadCount);
+
+    if (threadCount == 1) {
+      for (final LocalMergeTask task : tasks) {
+        officeManager.execute(task);
+      }
+      return;
+    }
+
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(threadCount, new NamedThreadFactory("jodconverter-merge"));
+    try {
+      final CompletionService<Void> completionService =
+          new ExecutorCompletionService<Void>(executor);
+      for (final LocalMergeTask task : tasks) {
+        completionService.submit(
+            new Callable<Void>() {
+              @Override
+              public Void call() throws OfficeException {
+                officeManager.execute(task);
+                return null;
+              }
+            });
+      }
+      // Fail as soon as any task fails, whatever its position.
+      for (int i = 0; i < tasks.size(); i++) {
+        completionService.take().get();
+      }
+
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof OfficeException) {
+        throw (OfficeException) ex.getCause();
+      }
+      throw new OfficeException("Merge failed", ex.getCause());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new OfficeException("Merge interrupted", ex);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link LocalMerger}.
+   *
+   * @see LocalMerger
+   */
+  public static final class Builder {
+
+    private OfficeManager officeManager;
+    private Map<String, Object> storeProperties;
+    private Integer recordsPerTask;
+
+    // Private constructor so only LocalMerger can create an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the merger that is specified by this builder.
+     *
+     * @return The merger that is specified by this builder.
+     */
+    public LocalMerger build() {
+
+      final OfficeManager manager =
+          officeManager == null ? InstalledOfficeManagerHolder.getInstance() : officeManager;
+      AssertUtils.notNull(manager, "An office manager is required");
+      return new LocalMerger(manager, storeProperties, recordsPerTask);
+    }
+
+    /**
+     * Specifies the office manager used to merge the documents. If not specified, the installed
+     * office manager is used.
+     *
+     * @param officeManager The office manager.
+     * @return This builder instance.
+     */
+    public Builder officeManager(final OfficeManager officeManager) {
+
+      this.officeManager = officeManager;
+      return this;
+    }
+
+    /**
+     * Specifies the properties applied when storing the merged documents, in addition to the
+     * store properties of the target format.
+     *
+     * @param storeProperties The store properties.
+     * @return This builder instance.
+     */
+    public Builder storeProperties(final Map<String, Object> storeProperties) {
+
+      this.storeProperties = storeProperties;
+      return this;
+    }
+
+    /**
+     * Specifies the number of records merged by a single task. A task must merge all its records
+     * within the task execution timeout of the office manager.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 1
+     *
+     * @param recordsPerTask The number of records merged by a single task.
+     * @return This builder instance.
+     */
+    public Builder recordsPerTask(final Integer recordsPerTask) {
+
+      if (recordsPerTask != null) {
+        AssertUtils.isTrue(
+            recordsPerTask > 0,
+            String.format("recordsPerTask %s must be greater than 0", recordsPerTask));
+      }
+      this.recordsPerTask = recordsPerTask;
+      return this;
+    }
+  }
+}
@@ -19,20 +19,34 @@
 
 package org.jodconverter.local.filter;
 
+import com.sun.star.frame.XModel;
 import com.sun.star.lang.XComponent;
+import com.sun.star.sheet.XCalculatable;
 import org.jodconverter.core.office.OfficeContext;
 import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.local.office.DocumentHandle;
+import org.jodconverter.local.office.utils.Lo;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-/** Base class of a FilterChain. */
+/**
+ * Base class of a FilterChain.
+ *
+ * <p>A chain holds no state about the documents it filters: each invocation of the chain walks
+ * the filters with its own cursor, so a chain can be shared by concurrent conversions and reused
+ * without being copied or reset.
+ */
 public abstract class AbstractFilterChain implements FilterChain {
 
+  private static final Filter[] NO_FILTERS = new Filter[0];
+
   private final boolean readOnly;
   protected List<Filter> filters;
-  protected int pos; // to maintain the current position in the filter chain.
+  // Snapshot of the filters walked by the invocations, replaced when a filter is added.
+  private volatile Filter[] chain;
+  private volatile boolean controllersLocked;
 
   /** Creates a FilterChain. */
   public AbstractFilterChain() {
@@ -58,7 +72,6 @@ public abstract class AbstractFilterChain implements FilterChain {
   public AbstractFilterChain(final boolean readOnly, final Filter... filters) {
 
     this.readOnly = readOnly;
-    this.pos = 0;
     if (filters != null) {
       this.filters = new ArrayList<Filter>(filters.length);
       Collections.addAll(this.filters, filters);
@@ -69,26 +82,119 @@ public abstract class AbstractFilterChain implements FilterChain {
     if (readOnly) {
       this.filters = Collections.unmodifiableList(this.filters);
     }
+    this.chain = this.filters.isEmpty() ? NO_FILTERS : this.filters.toArray(NO_FILTERS);
   }
 
   @Override
-  public void addFilter(final Filter filter) {
+  public synchronized void addFilter(final Filter filter) {
 
     if (readOnly) {
       throw new UnsupportedOperationException();
     }
     filters.add(filter);
+    chain = filters.toArray(NO_FILTERS);
+  }
+
+  /**
+   * Sets whether the controllers of the document are locked while the filters of this chain are
+   * applied, so office does not update the view of the document after each modification. When
+   * locked, the automatic calculation of a Calc document is also disabled during the chain, and
+   * the document is recalculated once at the end of the chain. The controllers are unlocked while
+   * a {@link ViewDependentFilter} is applied.
+   *
+   * <p>Note that a filter is invoked with the locking state it requires, but the code it executes
+   * after having invoked the next filter runs with the locking state of the following filters.
+   *
+   * @param controllersLocked {@code true} to lock the controllers, {@code false} otherwise.
+   */
+  public void setControllersLocked(final boolean controllersLocked) {
+
+    if (readOnly) {
+      throw new UnsupportedOperationException();
+    }
+    this.controllersLocked = controllersLocked;
+  }
+
+  /**
+   * Gets whether the controllers of the document are locked while the filters of this chain are
+   * applied.
+   *
+   * @return {@code true} if the controllers are locked, {@code false} otherwise.
+   */
+  public boolean isControllersLocked() {
+    return controllersLocked;
   }
 
   @Override
   public void doFilter(final OfficeContext context, final XComponent document)
       throws OfficeException {
 
-    // Call the next filter if there is one
-    if (pos < filters.size()) {
-      final Filter filter = filters.get(pos++);
-      doFilter(filter, context, document);
+    doFilter(context, new DocumentHandle(document));
+  }
+
+  /**
+   * Invokes the filters of this chain, passing the specified handle along the chain so the queries
+   * made to the document are shared by all the filters.
+   *
+   * @param context The OfficeContext in use to pass along the chain.
+   * @param document The handle of the document being converted to pass along the chain.
+   * @throws OfficeException If an error occurs processing a filter.
+   */
+  public void doFilter(final OfficeContext context, final DocumentHandle document)
+      throws OfficeException {
+
+    final Filter[] filters = chain;
+    final Filter lastFilter = getLastFilter();
+
+    // Fast path: a single filter that never invokes the next one needs no cursor.
+    Filter single = null;
+    if (filters.length == 0) {
+      single = lastFilter;
+    } else if (filters.length == 1 && lastFilter == null) {
+      single = filters[0];
+    }
+    if (single instanceof RefreshFilter && ((RefreshFilter) single).isLastFilter()) {
+      invoke(single, context, document, this);
+      return;
     }
+
+    final Invocation invocation = new Invocation(filters, lastFilter, document);
+    if (!controllersLocked) {
+      invocation.doFilter(context, document);
+      return;
+    }
+
+    final XCalculatable calculatable =
+        document.isCalc()
+            ? Lo.qiOptional(XCalculatable.class, document.getComponent()).orNull()
+            : null;
+    final boolean autoCalculation =
+        calculatable != null && calculatable.isAutomaticCalculationEnabled();
+    if (autoCalculation) {
+      calculatable.enableAutomaticCalculation(false);
+    }
+    invocation.lockControllers = true;
+    try {
+      invocation.doFilter(context, document);
+      if (autoCalculation) {
+        // Recalculate the formulas made dirty by the filters, once.
+        calculatable.calculate();
+      }
+    } finally {
+      invocation.unlock();
+      if (autoCalculation) {
+        calculatable.enableAutomaticCalculation(true);
+      }
+    }
+  }
+
+  /**
+   * Gets the filter always applied at the end of the chain, after the filters of the chain.
+   *
+   * @return The last filter, or {@code null} if there is no such filter.
+   */
+  protected Filter getLastFilter() {
+    return null;
   }
 
   /**
@@ -98,13 +204,33 @@ public abstract class AbstractFilterChain implements FilterChain {
    * @param context The context in use to pass along the chain.
    * @param document The document being converted to pass along the chain.
    * @throws OfficeException If an error occurs processing the filter.
+   * @deprecated A chain no longer keeps track of its position and no longer invokes its filters
+   *     through this method. The specified filter is invoked alone, with a chain that ends after
+   *     it, so invoking the next filter does nothing.
    */
+  @Deprecated
   protected void doFilter(
       final Filter filter, final OfficeContext context, final XComponent document)
       throws OfficeException {
 
+    final DocumentHandle handle = new DocumentHandle(document);
+    new Invocation(new Filter[] {filter}, null, handle).doFilter(context, handle);
+  }
+
+  // Causes the specified filter to be invoked.
+  private static void invoke(
+      final Filter filter,
+      final OfficeContext context,
+      final DocumentHandle document,
+      final FilterChain chain)
+      throws OfficeException {
+
     try {
-      filter.doFilter(context, document, this);
+      if (filter instanceof DocumentFilter) {
+        ((DocumentFilter) filter).doFilter(context, document, chain);
+      } else {
+        filter.doFilter(context, document.getComponent(), chain);
+      }
     } catch (OfficeException ex) {
       throw ex;
     } catch (Exception ex) {
@@ -112,9 +238,105 @@ public abstract class AbstractFilterChain implements FilterChain {
     }
   }
 
-  /** Resets the position in the filter chain to 0, making the chain reusable. */
+  /**
+   * Gets the filters of this chain.
+   *
+   * @return An unmodifiable list of the filters.
+   */
+  public List<Filter> getFilters() {
+    return Collections.unmodifiableList(filters);
+  }
+
+  /**
+   * Does nothing since a chain no longer keeps track of its position.
+   *
+   * @deprecated Each invocation of a chain has its own position, so a chain is always reusable.
+   */
+  @Deprecated
   public void reset() {
+    // Nothing to reset
+  }
+
+  // A single walk along the chain, passed to the filters as their chain.
+  private final class Invocation implements FilterChain {
+
+    private final Filter[] filters;
+    private final Filter lastFilter;
+    private DocumentHandle document; // the handle of the document being filtered.
+    private int pos; // the position in the chain.
+    private boolean lockControllers; // whether the controllers are locked when possible.
+    private XModel lockedModel; // the model whose controllers are currently locked.
+
+    private Invocation(
+        final Filter[] filters, final Filter lastFilter, final DocumentHandle document) {
+      this.filters = filters;
+      this.lastFilter = lastFilter;
+      this.document = document;
+    }
+
+    @Override
+    public void addFilter(final Filter filter) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void doFilter(final OfficeContext context, final XComponent component)
+        throws OfficeException {
+
+      // Reuse the handle passed along the chain when a filter
+      // invokes the next one with the bare document.
+      final DocumentHandle handle = document;
+      doFilter(
+          context,
+          handle != null && handle.getComponent() == component // NOPMD - Identity wanted
+              ? handle
+              : new DocumentHandle(component));
+    }
+
+    // Invokes the next filter with the specified handle.
+    private void doFilter(final OfficeContext context, final DocumentHandle document)
+        throws OfficeException {
+
+      this.document = document;
 
-    pos = 0;
+      // Call the next filter if there is one
+      if (pos < filters.length) {
+        invokeNext(filters[pos++], context, document);
+      } else if (pos == filters.length && lastFilter != null) {
+        pos++;
+        invokeNext(lastFilter, context, document);
+      }
+    }
+
+    private void invokeNext(
+        final Filter filter, final OfficeContext context, final DocumentHandle document)
+        throws OfficeException {
+
+      if (lockControllers) {
+        if (filter instanceof ViewDependentFilter) {
+          unlock();
+        } else if (lockedModel == null) {
+          lockedModel = document.getModel();
+          if (lockedModel != null) {
+            lockedModel.lockControllers();
+          }
+        }
+      }
+      invoke(filter, context, document, this);
+    }
+
+    // Unlocks the controllers, if locked.
+    private void unlock() {
+
+      if (lockedModel != null) {
+        lockedModel.unlockControllers();
+        lockedModel = null;
+      }
+    }
+
+    @Override
+    public FilterChain copy() {
+      return AbstractFilterChain.this.copy();
+    }
   }
 }
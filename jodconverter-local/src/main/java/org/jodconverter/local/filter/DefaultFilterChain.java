@@ -19,10 +19,6 @@
 
 package org.jodconverter.local.filter;
 
-import com.sun.star.lang.XComponent;
-import org.jodconverter.core.office.OfficeContext;
-import org.jodconverter.core.office.OfficeException;
-
 /** Default implementation of FilterChain. */
 public class DefaultFilterChain extends AbstractFilterChain {
 
@@ -73,21 +69,17 @@ public class DefaultFilterChain extends AbstractFilterChain {
     this.endsWithRefreshFilter = endsWithRefreshFilter;
   }
 
-
   @Override
   public FilterChain copy() {
-    return new DefaultFilterChain(endsWithRefreshFilter, filters.toArray(new Filter[0]));
+
+    final DefaultFilterChain chain =
+        new DefaultFilterChain(endsWithRefreshFilter, filters.toArray(new Filter[0]));
+    chain.setControllersLocked(isControllersLocked());
+    return chain;
   }
 
   @Override
-  public void doFilter(final OfficeContext context, final XComponent document)
-      throws OfficeException {
-
-    // Call the RefreshFilter if we are at the end of the chain
-    if (pos == filters.size() && endsWithRefreshFilter) {
-      doFilter(RefreshFilter.LAST_REFRESH, context, document);
-    } else {
-      super.doFilter(context, document);
-    }
+  protected Filter getLastFilter() {
+    return endsWithRefreshFilter ? RefreshFilter.LAST_REFRESH : null;
   }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.filter;
+
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.local.office.DocumentHandle;
+
+/**
+ * A {@link Filter} working on the {@link DocumentHandle} of the document being converted, which
+ * memoizes the queries made to the document. An {@link AbstractFilterChain} invokes such a filter
+ * with the handle of the document rather than with the bare document. A filter invokes the next
+ * filter with the bare document ({@link DocumentHandle#getComponent()}); the chain then passes the
+ * same handle along.
+ */
+public interface DocumentFilter extends Filter {
+
+  /**
+   * The <code>doFilter</code> method of the Filter is called each time a document is passed through
+   * the chain due to a conversion request. See {@link
+   * Filter#doFilter(OfficeContext,com.sun.star.lang.XComponent,FilterChain)}.
+   *
+   * @param context The OfficeContext in use to pass along the chain.
+   * @param document The handle of the document being converted to pass along the chain.
+   * @param chain The chain.
+   * @throws Exception If an error occurs processing the filter.
+   */
+  void doFilter(OfficeContext context, DocumentHandle document, FilterChain chain)
+      throws Exception;
+}
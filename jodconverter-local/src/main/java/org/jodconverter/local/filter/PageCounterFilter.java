@@ -20,20 +20,29 @@
 package org.jodconverter.local.filter;
 
 import com.sun.star.drawing.XDrawPages;
-import com.sun.star.drawing.XDrawPagesSupplier;
-import com.sun.star.frame.XModel;
 import com.sun.star.lang.XComponent;
 import com.sun.star.sheet.XSpreadsheetDocument;
 import org.jodconverter.core.office.OfficeContext;
-import org.jodconverter.local.office.utils.*;
+import org.jodconverter.local.office.DocumentHandle;
+import org.jodconverter.local.office.utils.Props;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** This filter is used to count the number of pages of a document. */
-public class PageCounterFilter implements Filter {
+import java.util.BitSet;
+
+/**
+ * This filter is used to count the number of pages of a document.
+ *
+ * <p>When a previous filter (e.g. {@link PagesSelectorFilter}) selects the pages to export using
+ * the {@code PageRange} export filter data instead of removing pages from the document, only the
+ * pages of the document within that range are counted.
+ */
+public class PageCounterFilter implements DocumentFilter, ViewDependentFilter {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PageCounterFilter.class);
 
+  private static final String PAGE_RANGE = "PageRange";
+
   private int pageCount;
 
   @Override
@@ -41,34 +50,70 @@ public class PageCounterFilter implements Filter {
       final OfficeContext context, final XComponent document, final FilterChain chain)
       throws Exception {
 
-    if (Write.isText(document)) {
+    doFilter(context, new DocumentHandle(document), chain);
+  }
+
+  @Override
+  public void doFilter(
+      final OfficeContext context, final DocumentHandle document, final FilterChain chain)
+      throws Exception {
+
+    if (document.isText()) {
       LOGGER.debug("Applying the PageCounterFilter for a Text document");
 
-      pageCount =
-          (Integer)
-              Props.getProperty(Lo.qi(XModel.class, document).getCurrentController(), "PageCount");
+      pageCount = (Integer) Props.getProperty(document.getController(), "PageCount");
 
-    } else if (Calc.isCalc(document)) {
+    } else if (document.isCalc()) {
       LOGGER.debug("Applying the PageCounterFilter for a Calc document");
 
-      final XSpreadsheetDocument doc = Calc.getCalcDoc(document);
+      final XSpreadsheetDocument doc = document.getSpreadsheetDocument();
       pageCount = doc.getSheets().getElementNames().length;
 
-    } else if (Draw.isImpress(document)) {
+    } else if (document.isImpress()) {
       LOGGER.debug("Applying the PageCounterFilter for an Impress document");
 
-      final XDrawPages xDrawPages = Lo.qi(XDrawPagesSupplier.class, document).getDrawPages();
+      final XDrawPages xDrawPages = document.getDrawPagesSupplier().getDrawPages();
       pageCount = xDrawPages.getCount();
 
-    } else if (Draw.isDraw(document)) {
+    } else if (document.isDraw()) {
       LOGGER.debug("Applying the PageCounterFilter for a Draw document");
 
-      final XDrawPages xDrawPages = Lo.qi(XDrawPagesSupplier.class, document).getDrawPages();
+      final XDrawPages xDrawPages = document.getDrawPagesSupplier().getDrawPages();
       pageCount = xDrawPages.getCount();
     }
 
+    final Object pageRange = document.getStoreFilterData().get(PAGE_RANGE);
+    if (pageRange instanceof String) {
+      pageCount = countPages((String) pageRange, pageCount);
+    }
+
     // Invoke the next filter in the chain
-    chain.doFilter(context, document);
+    chain.doFilter(context, document.getComponent());
+  }
+
+  // Counts the pages of a document having the specified number of pages that are within the
+  // specified page range, e.g "1-3,5". Returns the number of pages if the range cannot be parsed.
+  private static int countPages(final String pageRange, final int pageCount) {
+
+    final BitSet selected = new BitSet(pageCount + 1);
+    try {
+      for (final String part : pageRange.split(",")) {
+        final String range = part.trim();
+        if (range.length() == 0) {
+          continue;
+        }
+        final int dash = range.indexOf('-');
+        final int start = Integer.parseInt(dash < 0 ? range : range.substring(0, dash).trim());
+        final int end = dash < 0 ? start : Integer.parseInt(range.substring(dash + 1).trim());
+        for (int page = Math.max(start, 1); page <= Math.min(end, pageCount); page++) {
+          selected.set(page);
+        }
+      }
+    } catch (NumberFormatException ex) {
+      LOGGER.debug("Unsupported page range '{}', counting all the pages", pageRange);
+      return pageCount;
+    }
+    return selected.cardinality();
   }
 
   /**
@@ -34,22 +34,34 @@ import com.sun.star.sheet.XSpreadsheetDocument;
 import com.sun.star.sheet.XSpreadsheets;
 import com.sun.star.text.*;
 import com.sun.star.view.XSelectionSupplier;
+import org.jodconverter.core.document.DocumentFormat;
 import org.jodconverter.core.office.OfficeContext;
 import org.jodconverter.core.util.AssertUtils;
-import org.jodconverter.local.office.utils.*;
+import org.jodconverter.local.office.DocumentHandle;
+import org.jodconverter.local.office.LocalOfficeUtils;
+import org.jodconverter.local.office.utils.Lo;
+import org.jodconverter.local.office.utils.Props;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 
 /**
  * This filter is used to select specific pages from a document in order to convert only the
  * selected pages.
+ *
+ * <p>When a Text, Impress or Draw document is converted to PDF (or to PNG/JPEG when a single page
+ * is selected and office supports it), the pages are selected using the {@code PageRange} export
+ * filter data and the document is not modified. Otherwise, the pages that are not selected are
+ * removed from the document, which is much more expensive for Text documents.
  */
-public class PagesSelectorFilter implements Filter {
+public class PagesSelectorFilter implements DocumentFilter, ViewDependentFilter {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PagesSelectorFilter.class);
 
@@ -57,6 +69,12 @@ public class PagesSelectorFilter implements Filter {
   // https://wiki.openoffice.org/wiki/API/Tutorials/PDF_export
   // https://blog.oio.de/2010/10/27/copy-and-paste-without-clipboard-using-openoffice-org-api
 
+  private static final String PAGE_RANGE = "PageRange";
+  private static final String MEDIA_TYPE_PDF = "application/pdf";
+  // The image formats whose export filter supports the PageRange filter data.
+  private static final Set<String> IMAGE_MEDIA_TYPES =
+      Collections.unmodifiableSet(new HashSet<String>(Arrays.asList("image/png", "image/jpeg")));
+
   private final List<Integer> pages;
 
   /**
@@ -88,62 +106,141 @@ public class PagesSelectorFilter implements Filter {
       final OfficeContext context, final XComponent document, final FilterChain chain)
       throws Exception {
 
-    if (Write.isText(document)) {
+    doFilter(context, new DocumentHandle(document), chain);
+  }
+
+  @Override
+  public void doFilter(
+      final OfficeContext context, final DocumentHandle document, final FilterChain chain)
+      throws Exception {
+
+    // The pages are sorted on a copy since the filter may be shared by several chains.
+    final List<Integer> sortedPages = new ArrayList<Integer>(pages);
+    Collections.sort(sortedPages);
+    final String pageRange = toPageRange(sortedPages);
+    if (pageRange != null && isPageRangeSupported(context, document, sortedPages)) {
+      LOGGER.debug("Applying the PagesSelectorFilter as an export page range: {}", pageRange);
+
+      // The pages are selected when the document is exported; the
+      // document itself does not have to be modified.
+      document.addStoreFilterData(PAGE_RANGE, pageRange);
+
+    } else if (document.isText()) {
       LOGGER.debug("Applying the PagesSelectorFilter for a Text document");
 
       // We must process from the start to the end.
-      Collections.sort(pages);
-      XTextDocument textDoc = Write.getTextDoc(document);
+      final XTextDocument textDoc = document.getTextDocument();
       if (textDoc == null) {
         throw new NullPointerException();
       }
-      selectTextPages(textDoc);
+      selectTextPages(textDoc, document.getController(), sortedPages);
 
-    } else if (Calc.isCalc(document)) {
+    } else if (document.isCalc()) {
       LOGGER.debug("Applying the PagesSelectorFilter for a Calc document");
 
       // We must process from the end to the start.
-      XSpreadsheetDocument calcDoc = Calc.getCalcDoc(document);
+      final XSpreadsheetDocument calcDoc = document.getSpreadsheetDocument();
       if (calcDoc == null) {
         throw new NullPointerException();
       }
       selectSheets(calcDoc);
 
-    } else if (Draw.isImpress(document)) {
+    } else if (document.isImpress()) {
       LOGGER.debug("Applying the PagesSelectorFilter for an Impress document");
 
       // We must process from the end to the start.
-      Collections.reverse(pages);
-      selectDrawPages(document);
+      selectDrawPages(document.getDrawPagesSupplier());
 
-    } else if (Draw.isDraw(document)) {
+    } else if (document.isDraw()) {
       LOGGER.debug("Applying the PagesSelectorFilter for a Draw document");
 
       // We must process from the end to the start.
-      Collections.reverse(pages);
-      selectDrawPages(document);
+      selectDrawPages(document.getDrawPagesSupplier());
     }
 
     // Invoke the next filter in the chain
-    chain.doFilter(context, document);
+    chain.doFilter(context, document.getComponent());
+  }
+
+  // Gets whether the pages can be selected at export time, which is
+  // the case when the document is exported to PDF, or to an image
+  // when a single page is selected.
+  private static boolean isPageRangeSupported(
+      final OfficeContext context, final DocumentHandle document, final List<Integer> pages) {
+
+    final DocumentFormat format = document.getTargetFormat();
+    if (format == null || format.getMediaType() == null) {
+      return false;
+    }
+
+    // The sheets of a spreadsheet are not pages.
+    if (!document.isText() && !document.isImpress() && !document.isDraw()) {
+      return false;
+    }
+
+    final String mediaType = format.getMediaType().toLowerCase(Locale.ROOT);
+    if (MEDIA_TYPE_PDF.equals(mediaType)) {
+      return true;
+    }
+    return IMAGE_MEDIA_TYPES.contains(mediaType)
+        && pages.size() == 1
+        && LocalOfficeUtils.getCapabilities(context).isImagePageRangeSupported();
+  }
+
+  // Builds the page range, e.g "1-3,5", of the specified sorted pages.
+  // Returns null if there is no valid page.
+  private static String toPageRange(final List<Integer> sortedPages) {
+
+    final StringBuilder range = new StringBuilder();
+    int start = 0;
+    int end = 0;
+    for (final int page : sortedPages) {
+      // Ignore invalid page
+      if (page <= 0) {
+        continue;
+      }
+      if (start > 0 && page == end + 1) {
+        end = page;
+        continue;
+      }
+      appendRange(range, start, end);
+      start = page;
+      end = page;
+    }
+    appendRange(range, start, end);
+    return range.length() == 0 ? null : range.toString();
+  }
+
+  private static void appendRange(final StringBuilder range, final int start, final int end) {
+
+    if (start <= 0) {
+      return;
+    }
+    if (range.length() > 0) {
+      range.append(',');
+    }
+    range.append(start);
+    if (end > start) {
+      range.append('-').append(end);
+    }
   }
 
-  private void copyPage(final XTextDocument docText, final int source, final int target)
+  private void copyPage(
+      final XText text,
+      final XPageCursor pc,
+      final XTextViewCursor vc,
+      final XSelectionSupplier selectionSupplier,
+      final XTransferableSupplier transferableSupplier,
+      final int source,
+      final int target)
       throws Exception {
 
     if (source == target) {
       return;
     }
 
-    final XController ctrl = docText.getCurrentController();
-
     // Get the text cursor for the document.
-    final XTextCursor tc = docText.getText().createTextCursor();
-
-    // Get the view cursor for the document. We also need a page cursor
-    // on the view cursor to navigate through the document pages.
-    final XTextViewCursor vc = Lo.qi(XTextViewCursorSupplier.class, ctrl).getViewCursor();
-    final XPageCursor pc = Lo.qi(XPageCursor.class, vc);
+    final XTextCursor tc = text.createTextCursor();
 
     // Reset both cursors to the beginning of the document
     tc.gotoStart(false);
@@ -160,11 +257,9 @@ public class PagesSelectorFilter implements Filter {
     tc.gotoRange(vc.getStart(), true);
 
     // Select the source page.
-    final XSelectionSupplier selectionSupplier = Lo.qi(XSelectionSupplier.class, ctrl);
     selectionSupplier.select(tc);
 
     // Copy the selection (whole source page).
-    final XTransferableSupplier transferableSupplier = Lo.qi(XTransferableSupplier.class, ctrl);
     final XTransferable xTransferable = transferableSupplier.getTransferable();
 
     // Now select the target page.
@@ -181,19 +276,30 @@ public class PagesSelectorFilter implements Filter {
     transferableSupplier.insertTransferable(xTransferable);
   }
 
-  private void selectTextPages(final XTextDocument doc) throws Exception {
-
-    final XController ctrl = doc.getCurrentController();
+  private void selectTextPages(
+      final XTextDocument doc, final XController ctrl, final List<Integer> sortedPages)
+      throws Exception {
 
     // Save the PageCount property of the document.
     final int pageCount = (Integer) Props.getProperty(ctrl, "PageCount");
 
+    // The text, the cursors and the selection/transfer interfaces are the
+    // same for all the pages, so they are retrieved once.
+    final XText text = doc.getText();
+
+    // Get the view cursor for the document. We also need a page cursor
+    // on the view cursor to navigate through the document pages.
+    final XTextViewCursor vc = Lo.qi(XTextViewCursorSupplier.class, ctrl).getViewCursor();
+    final XPageCursor pc = Lo.qi(XPageCursor.class, vc);
+    final XSelectionSupplier selectionSupplier = Lo.qi(XSelectionSupplier.class, ctrl);
+    final XTransferableSupplier transSupplier = Lo.qi(XTransferableSupplier.class, ctrl);
+
     // Delete all the pages except the ones to select.
     int nextTargetPage = 1;
-    for (final int page : pages) {
+    for (final int page : sortedPages) {
       // Ignore invalid page
       if (page > 0 && page <= pageCount) {
-        copyPage(doc, page, nextTargetPage++);
+        copyPage(text, pc, vc, selectionSupplier, transSupplier, page, nextTargetPage++);
       }
     }
 
@@ -201,12 +307,7 @@ public class PagesSelectorFilter implements Filter {
     final int lastPage = nextTargetPage - 1;
 
     // Get the text cursor for the document.
-    final XTextCursor tc = doc.getText().createTextCursor();
-
-    // Get the view cursor for the document. We also need a page cursor
-    // on the view cursor to navigate through the document pages.
-    final XTextViewCursor vc = Lo.qi(XTextViewCursorSupplier.class, ctrl).getViewCursor();
-    final XPageCursor pc = Lo.qi(XPageCursor.class, vc);
+    final XTextCursor tc = text.createTextCursor();
 
     // Reset both cursors to the beginning of the document
     tc.gotoStart(false);
@@ -219,11 +320,9 @@ public class PagesSelectorFilter implements Filter {
     pc.jumpToEndOfPage();
     tc.gotoRange(vc.getEnd(), true);
     // Select the pages.
-    final XSelectionSupplier selectionSupplier = Lo.qi(XSelectionSupplier.class, ctrl);
     selectionSupplier.select(tc);
 
     // Copy the selection (pages).
-    final XTransferableSupplier transSupplier = Lo.qi(XTransferableSupplier.class, ctrl);
     final XTransferable trans = transSupplier.getTransferable();
 
     // Now select the whole document.
@@ -252,9 +351,9 @@ public class PagesSelectorFilter implements Filter {
     }
   }
 
-  private void selectDrawPages(final XComponent document) throws Exception {
+  private void selectDrawPages(final XDrawPagesSupplier drawPagesSupplier) throws Exception {
 
-    final XDrawPages drawPages = Lo.qi(XDrawPagesSupplier.class, document).getDrawPages();
+    final XDrawPages drawPages = drawPagesSupplier.getDrawPages();
     final int pageCount = drawPages.getCount();
 
     // Delete all the pages except the ones to select.
@@ -19,18 +19,41 @@
 
 package org.jodconverter.local.filter;
 
+import com.sun.star.beans.XPropertySet;
+import com.sun.star.container.XElementAccess;
+import com.sun.star.container.XIndexAccess;
 import com.sun.star.lang.XComponent;
+import com.sun.star.sheet.XDataPilotTablesSupplier;
+import com.sun.star.sheet.XSpreadsheetDocument;
+import com.sun.star.text.XDocumentIndexesSupplier;
+import com.sun.star.text.XTextFieldsSupplier;
 import com.sun.star.util.XRefreshable;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.document.RefreshMode;
 import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.local.office.DocumentHandle;
 import org.jodconverter.local.office.utils.Lo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** This filter is used to refresh a document. */
-public class RefreshFilter implements Filter {
+/**
+ * This filter is used to refresh a document.
+ *
+ * <p>A conditional refresh filter only refreshes the document if the {@link RefreshMode} of the
+ * target format requires it: with {@link RefreshMode#AUTO}, the document is refreshed only if it
+ * has content that a refresh would update (text fields and indexes of Text documents, data pilots
+ * and external links of Calc documents). Drawings and presentations are never refreshed since a
+ * refresh does not update them.
+ */
+public class RefreshFilter implements DocumentFilter {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(RefreshFilter.class);
 
+  // The properties of a Calc document holding its external links.
+  private static final String[] CALC_LINK_PROPERTIES = {
+    "AreaLinks", "SheetLinks", "DDELinks", "ExternalDocLinks"
+  };
+
   /**
    * Singleton instance of refresh filter that won't call the next filter in the chain. Use this
    * filter only when you are absolutely sure that it will be used as last filter in a filter chain.
@@ -39,6 +62,12 @@ public class RefreshFilter implements Filter {
    */
   public static final RefreshFilter LAST_REFRESH = new RefreshFilter(true);
 
+  /**
+   * Singleton instance of a conditional refresh filter that won't call the next filter in the
+   * chain. Use this filter only when you are absolutely sure that it will be used as last filter in
+   * a filter chain.
+   */
+  public static final RefreshFilter LAST_CONDITIONAL_REFRESH = new RefreshFilter(true, true);
   /**
    * Singleton instance of a {@link FilterChain} that will always contain a single {@link
    * RefreshFilter} that won't call the next filter in the chain. If a document is just converted
@@ -48,7 +77,16 @@ public class RefreshFilter implements Filter {
    */
   public static final FilterChain CHAIN = new UnmodifiableFilterChain(LAST_REFRESH);
 
+  /**
+   * Singleton instance of a {@link FilterChain} that will always contain a single conditional
+   * {@link RefreshFilter} that won't call the next filter in the chain. This chain is used when a
+   * document is just converted from a format to another format and no chain is specified.
+   */
+  public static final FilterChain CONDITIONAL_CHAIN =
+      new UnmodifiableFilterChain(LAST_CONDITIONAL_REFRESH);
+
   private final boolean lastFilter;
+  private final boolean conditional;
 
   /** Creates a new refresh filter. */
   public RefreshFilter() {
@@ -63,9 +101,34 @@ public class RefreshFilter implements Filter {
    *     {@code false}, the next filter in the chain, if any, will be applied.
    */
   public RefreshFilter(final boolean lastFilter) {
+    this(lastFilter, false);
+  }
+
+  /**
+   * Creates a new refresh filter that will call or not the next filter in the chain according to
+   * the specified argument.
+   *
+   * @param lastFilter If {@code true}, then the filter won't call the next filter in the chain. If
+   *     {@code false}, the next filter in the chain, if any, will be applied.
+   * @param conditional If {@code true}, the document is refreshed only if required according to
+   *     the {@link RefreshMode} of the target format. If {@code false}, the document is always
+   *     refreshed.
+   */
+  public RefreshFilter(final boolean lastFilter, final boolean conditional) {
     super();
 
     this.lastFilter = lastFilter;
+    this.conditional = conditional;
+  }
+
+  /**
+   * Gets whether this filter is the last filter of the chain, never invoking the next filter.
+   *
+   * @return {@code true} if the next filter in the chain is never invoked, {@code false}
+   *     otherwise.
+   */
+  /* default */ boolean isLastFilter() {
+    return lastFilter;
   }
 
   @Override
@@ -73,14 +136,90 @@ public class RefreshFilter implements Filter {
       final OfficeContext context, final XComponent document, final FilterChain chain)
       throws Exception {
 
-    LOGGER.debug("Applying the RefreshFilter");
-    XRefreshable xRefreshable = Lo.qiOptional(XRefreshable.class, document).orNull();
-    if (xRefreshable != null) {
-      xRefreshable.refresh();
+    doFilter(context, new DocumentHandle(document), chain);
+  }
+
+  @Override
+  public void doFilter(
+      final OfficeContext context, final DocumentHandle document, final FilterChain chain)
+      throws Exception {
+
+    if (!conditional || isRefreshRequired(document)) {
+      LOGGER.debug("Applying the RefreshFilter");
+      final XRefreshable xRefreshable =
+          Lo.qiOptional(XRefreshable.class, document.getComponent()).orNull();
+      if (xRefreshable != null) {
+        xRefreshable.refresh();
+      }
+    } else {
+      LOGGER.debug("Skipping the RefreshFilter, nothing to refresh");
     }
 
     if (!lastFilter) {
-      chain.doFilter(context, document);
+      chain.doFilter(context, document.getComponent());
+    }
+  }
+
+  // Gets whether the specified document must be refreshed before being stored.
+  private static boolean isRefreshRequired(final DocumentHandle document) throws Exception {
+
+    final DocumentFormat targetFormat = document.getTargetFormat();
+    final RefreshMode mode =
+        targetFormat == null ? RefreshMode.AUTO : targetFormat.getRefreshMode();
+    if (mode == RefreshMode.ALWAYS) {
+      return true;
+    }
+    if (mode == RefreshMode.NEVER) {
+      return false;
+    }
+
+    if (document.isText()) {
+      return hasTextRefreshableContent(document);
+    }
+    if (document.isCalc()) {
+      return hasCalcRefreshableContent(document);
+    }
+    // Refreshing a drawing or a presentation updates nothing.
+    return !document.isImpress() && !document.isDraw();
+  }
+
+  private static boolean hasTextRefreshableContent(final DocumentHandle document) {
+
+    final XTextFieldsSupplier fieldsSupplier =
+        Lo.qiOptional(XTextFieldsSupplier.class, document.getComponent()).orNull();
+    if (fieldsSupplier != null && fieldsSupplier.getTextFields().hasElements()) {
+      return true;
+    }
+    final XDocumentIndexesSupplier indexesSupplier =
+        Lo.qiOptional(XDocumentIndexesSupplier.class, document.getComponent()).orNull();
+    return indexesSupplier != null && indexesSupplier.getDocumentIndexes().getCount() > 0;
+  }
+
+  private static boolean hasCalcRefreshableContent(final DocumentHandle document)
+      throws Exception {
+
+    // External links (area, sheet, DDE and external document links).
+    final XPropertySet props = Lo.qi(XPropertySet.class, document.getComponent());
+    for (final String name : CALC_LINK_PROPERTIES) {
+      if (props.getPropertySetInfo().hasPropertyByName(name)) {
+        final Object links = props.getPropertyValue(name);
+        final XElementAccess elements = Lo.qiOptional(XElementAccess.class, links).orNull();
+        if (elements != null && elements.hasElements()) {
+          return true;
+        }
+      }
+    }
+
+    // Data pilots.
+    final XSpreadsheetDocument doc = document.getSpreadsheetDocument();
+    final XIndexAccess sheets = Lo.qi(XIndexAccess.class, doc.getSheets());
+    for (int i = 0; i < sheets.getCount(); i++) {
+      final XDataPilotTablesSupplier pilotsSupplier =
+          Lo.qiOptional(XDataPilotTablesSupplier.class, sheets.getByIndex(i)).orNull();
+      if (pilotsSupplier != null && pilotsSupplier.getDataPilotTables().hasElements()) {
+        return true;
+      }
     }
+    return false;
   }
 }
@@ -31,9 +31,13 @@ public class UnmodifiableFilterChain extends AbstractFilterChain {
     super(true, filters);
   }
 
-
+  /**
+   * {@inheritDoc}
+   *
+   * <p>An unmodifiable chain holds no state, so it is its own copy.
+   */
   @Override
   public FilterChain copy() {
-    return new UnmodifiableFilterChain(filters.toArray(new Filter[0]));
+    return this;
   }
 }
@@ -27,6 +27,9 @@ import com.sun.star.text.XTextDocument;
 import org.jodconverter.core.office.OfficeContext;
 import org.jodconverter.local.filter.Filter;
 import org.jodconverter.local.filter.FilterChain;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.LocalOfficeUtils;
+import org.jodconverter.local.office.OfficeResourceCache;
 import org.jodconverter.local.office.utils.Lo;
 import org.jodconverter.local.office.utils.Write;
 import org.slf4j.Logger;
@@ -63,14 +66,15 @@ public class DocumentInserterFilter implements Filter {
 
     // This filter can only be used with text document
     if (Write.isText(document)) {
-      insertDocument(document);
+      insertDocument((LocalOfficeContext) context, document);
     }
 
     // Invoke the next filter in the chain
     chain.doFilter(context, document);
   }
 
-  private void insertDocument(final XComponent document) throws Exception {
+  private void insertDocument(final LocalOfficeContext context, final XComponent document)
+      throws Exception {
 
     // Querying for the interface XTextDocument (text interface) on the XComponent.
     final XTextDocument docText = Write.getTextDoc(document);
@@ -81,9 +85,16 @@ public class DocumentInserterFilter implements Filter {
     // Go to the end of the document
     textCursor.gotoEnd(false);
 
-    // Insert the document to merge at the end of the current document.
+    // Insert the document to merge at the end of the current document. The document is
+    // converted to the native format once per office process, as long as it is not modified.
     // TODO: Should we allow custom load properties ?
+    final OfficeResourceCache resourceCache = LocalOfficeUtils.getResourceCache(context);
     final XDocumentInsertable insertable = Lo.qi(XDocumentInsertable.class, textCursor);
-    insertable.insertDocumentFromURL(toUrl(documentToInsert), new PropertyValue[0]);
+    insertable.insertDocumentFromURL(
+        toUrl(
+            resourceCache == null
+                ? documentToInsert
+                : resourceCache.getInsertableDocument(documentToInsert)),
+        new PropertyValue[0]);
   }
 }
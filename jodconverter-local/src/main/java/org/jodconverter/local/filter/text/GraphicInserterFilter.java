@@ -22,6 +22,7 @@ package org.jodconverter.local.filter.text;
 import com.sun.star.beans.XPropertySet;
 import com.sun.star.container.XNameContainer;
 import com.sun.star.drawing.XShape;
+import com.sun.star.graphic.XGraphic;
 import com.sun.star.graphic.XGraphicProvider;
 import com.sun.star.lang.XComponent;
 import com.sun.star.lang.XMultiServiceFactory;
@@ -29,13 +30,12 @@ import com.sun.star.text.XText;
 import com.sun.star.text.XTextContent;
 import com.sun.star.text.XTextCursor;
 import com.sun.star.text.XTextDocument;
-import com.sun.star.uno.XComponentContext;
 import org.jodconverter.core.office.OfficeContext;
 import org.jodconverter.core.office.OfficeException;
 import org.jodconverter.local.filter.FilterChain;
 import org.jodconverter.local.office.LocalOfficeContext;
 import org.jodconverter.local.office.LocalOfficeUtils;
-import org.jodconverter.local.office.utils.Info;
+import org.jodconverter.local.office.OfficeResourceCache;
 import org.jodconverter.local.office.utils.Lo;
 import org.jodconverter.local.office.utils.Props;
 import org.jodconverter.local.office.utils.Write;
@@ -197,14 +197,30 @@ public class GraphicInserterFilter extends AbstractTextContentInserterFilter {
 
     // This filter can only be used with text document
     if (Write.isText(document)) {
-      insertGraphic(((LocalOfficeContext) context).getComponentContext(), document);
+      insertGraphic((LocalOfficeContext) context, document);
     }
 
     // Invoke the next filter in the chain
     chain.doFilter(context, document);
   }
 
-  private void insertGraphic(final XComponentContext context, final XComponent document)
+  // Loads the graphic at the specified URL, without caching it.
+  private static XGraphic loadGraphic(final LocalOfficeContext context, final String strUrl)
+      throws Exception {
+
+    // Create a GraphicProvider at the global service manager.
+    final XGraphicProvider graphicProvider =
+        Lo.createInstanceMCF(
+            context.getComponentContext(),
+            XGraphicProvider.class,
+            "com.sun.star.graphic.GraphicProvider");
+    if (graphicProvider == null) {
+      throw new NullPointerException();
+    }
+    return graphicProvider.queryGraphic(Props.makeProperties("URL", strUrl, "LoadAsLink", false));
+  }
+
+  private void insertGraphic(final LocalOfficeContext context, final XComponent document)
       throws Exception {
 
     // Querying for the interface XMultiServiceFactory (text service factory) on the XTextDocument
@@ -227,22 +243,17 @@ public class GraphicInserterFilter extends AbstractTextContentInserterFilter {
     // Querying property interface for the graphic shape service
     final XPropertySet propSet = Lo.qi(XPropertySet.class, graphicShape);
 
-    if (Info.isLibreOffice(context)
-        && Info.compareVersions("6.1", Info.getOfficeVersionShort(context), 2) >= 0) {
+    if (LocalOfficeUtils.getCapabilities(context).isGraphicPropertySupported()) {
 
-      // Create a GraphicProvider at the global service manager.
-      final XGraphicProvider graphicProvider =
-          Lo.createInstanceMCF(
-              context, XGraphicProvider.class, "com.sun.star.graphic.GraphicProvider");
-      if (graphicProvider == null) {
-        throw new NullPointerException();
+      // Since 6.1, we must use "Graphic" instead of "GraphicURL". The graphic
+      // is loaded once per office process, as long as the image is not modified.
+      final OfficeResourceCache resourceCache = LocalOfficeUtils.getResourceCache(context);
+      if (resourceCache == null) {
+        propSet.setPropertyValue("Graphic", loadGraphic(context, strUrl));
+      } else {
+        propSet.setPropertyValue("Graphic", resourceCache.getGraphic(sourceFile));
       }
 
-      // Since 6.1, we must use "Graphic" instead of "GraphicURL"
-      propSet.setPropertyValue(
-          "Graphic",
-          graphicProvider.queryGraphic(Props.makeProperties("URL", strUrl, "LoadAsLink", false)));
-
     } else {
       // Creating bitmap container service
       final XNameContainer bitmapContainer =
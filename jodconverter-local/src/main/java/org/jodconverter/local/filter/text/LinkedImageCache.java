@@ -0,0 +1,368 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.filter.text;
+
+import org.jodconverter.core.office.NamedThreadFactory;
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.core.util.FileUtils;
+import org.jodconverter.core.util.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.jodconverter.local.office.LocalOfficeUtils.toUrl;
+
+/**
+ * A bounded local cache of the images linked by documents, used by {@link
+ * LinkedImagesEmbedderFilter} to fetch all the linked images of a document in parallel before
+ * embedding them, instead of letting office fetch them one by one. The images are fetched through a
+ * {@link LinkedImageResolver} and stored into a local directory, named by the digest of their
+ * content, so an image linked through several URLs is stored once.
+ */
+public final class LinkedImageCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LinkedImageCache.class);
+
+  // The default maximum number of cached URLs.
+  private static final int DEFAULT_MAX_ENTRIES = 500;
+  // The default maximum number of images fetched concurrently.
+  private static final int DEFAULT_MAX_THREADS = 8;
+  // The default connect and read timeout of the default resolver.
+  private static final int DEFAULT_TIMEOUT = 30000; // 30 seconds
+
+  private final File directory;
+  private final LinkedImageResolver resolver;
+  private final int maxThreads;
+  // URL -> local copy, in access order.
+  private final LinkedHashMap<String, File> entries;
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a new {@link LinkedImageCache} with default configuration.
+   *
+   * @return A {@link LinkedImageCache} with default configuration.
+   */
+  public static LinkedImageCache make() {
+    return builder().build();
+  }
+
+  private LinkedImageCache(
+      final File directory,
+      final LinkedImageResolver resolver,
+      final Integer maxEntries,
+      final Integer maxThreads) {
+
+    final int maxEntriesSafe = maxEntries == null ? DEFAULT_MAX_ENTRIES : maxEntries;
+    this.directory = directory;
+    this.resolver = resolver;
+    this.maxThreads = maxThreads == null ? DEFAULT_MAX_THREADS : maxThreads;
+    this.entries =
+        new LinkedHashMap<String, File>(16, 0.75f, true) {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          protected boolean removeEldestEntry(final Map.Entry<String, File> eldest) {
+            if (size() <= maxEntriesSafe) {
+              return false;
+            }
+            // The local copy may be shared by other URLs.
+            if (!containsValueOtherThan(eldest)) {
+              FileUtils.deleteQuietly(eldest.getValue());
+            }
+            return true;
+          }
+
+          private boolean containsValueOtherThan(final Map.Entry<String, File> entry) {
+            for (final Map.Entry<String, File> other : entrySet()) {
+              if (other != entry && other.getValue().equals(entry.getValue())) {
+                return true;
+              }
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * Gets whether the specified URL can be fetched by this cache. Only remote URLs (http, https and
+   * ftp) are fetched; the other URLs (local files...) are left to office.
+   *
+   * @param url The URL.
+   * @return {@code true} if the URL can be fetched, {@code false} otherwise.
+   */
+  public boolean isFetchable(final String url) {
+
+    final String lowerUrl = url.toLowerCase(Locale.ROOT);
+    return lowerUrl.startsWith("http://")
+        || lowerUrl.startsWith("https://")
+        || lowerUrl.startsWith("ftp://");
+  }
+
+  /**
+   * Fetches the specified URLs, in parallel, and returns the URLs of their local copies. The URLs
+   * that cannot be fetched are missing from the returned map.
+   *
+   * <p>A local copy may be deleted when it is evicted from the cache, or when the cache is cleared,
+   * even while a concurrent caller still uses it. Callers must fall back to the original URL when a
+   * local copy cannot be loaded.
+   *
+   * @param urls The URLs of the linked images.
+   * @return A map of the URLs to the URLs of their local copies.
+   */
+  public Map<String, String> fetchAll(final Collection<String> urls) {
+
+    final Map<String, String> localUrls = new HashMap<String, String>();
+    final List<String> missing = new ArrayList<String>();
+    synchronized (entries) {
+      for (final String url : urls) {
+        final File copy = entries.get(url);
+        if (copy != null && copy.isFile()) {
+          localUrls.put(url, toUrl(copy));
+        } else if (isFetchable(url) && !missing.contains(url)) {
+          missing.add(url);
+        }
+      }
+    }
+    if (missing.isEmpty()) {
+      return localUrls;
+    }
+
+    LOGGER.debug("Fetching {} linked images", missing.size());
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(maxThreads, missing.size()), new NamedThreadFactory("jodconverter-images"));
+    try {
+      final List<Future<File>> futures = new ArrayList<Future<File>>(missing.size());
+      for (final String url : missing) {
+        futures.add(
+            executor.submit(
+                new Callable<File>() {
+                  @Override
+                  public File call() throws IOException {
+                    return fetch(url);
+                  }
+                }));
+      }
+      for (int i = 0; i < missing.size(); i++) {
+        final String url = missing.get(i);
+        try {
+          final File copy = futures.get(i).get();
+          synchronized (entries) {
+            entries.put(url, copy);
+          }
+          localUrls.put(url, toUrl(copy));
+        } catch (ExecutionException ex) {
+          LOGGER.warn("Could not fetch linked image {}", url, ex.getCause());
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } finally {
+      executor.shutdownNow();
+    }
+    return localUrls;
+  }
+
+  // Fetches the specified URL into a local copy named by the digest of its content.
+  private File fetch(final String url) throws IOException {
+
+    if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+      throw new IOException("Could not create directory " + directory);
+    }
+    final File temp = File.createTempFile("fetch", ".tmp", directory);
+    try {
+      final InputStream input = resolver.open(url);
+      try {
+        final OutputStream output = new FileOutputStream(temp);
+        try {
+          IOUtils.copy(input, output);
+        } finally {
+          output.close();
+        }
+      } finally {
+        input.close();
+      }
+
+      // Keep the extension, which helps office to detect the type of the image.
+      final String extension = FileUtils.getExtension(new URL(url).getPath());
+      final File copy =
+          new File(
+              directory,
+              FileUtils.digest(temp)
+                  + (extension == null || extension.length() == 0 ? "" : '.' + extension));
+      if (copy.isFile() || temp.renameTo(copy)) {
+        return copy;
+      }
+      throw new IOException("Could not create local copy " + copy);
+    } finally {
+      FileUtils.deleteQuietly(temp);
+    }
+  }
+
+  /** Removes all the cached images. */
+  public void clear() {
+
+    synchronized (entries) {
+      for (final File copy : entries.values()) {
+        FileUtils.deleteQuietly(copy);
+      }
+      entries.clear();
+    }
+  }
+
+  // The default resolver, opening a connection on the URL.
+  private static final class UrlResolver implements LinkedImageResolver {
+
+    @Override
+    public InputStream open(final String url) throws IOException {
+
+      final URLConnection connection = new URL(url).openConnection();
+      connection.setConnectTimeout(DEFAULT_TIMEOUT);
+      connection.setReadTimeout(DEFAULT_TIMEOUT);
+      return connection.getInputStream();
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link LinkedImageCache}.
+   *
+   * @see LinkedImageCache
+   */
+  public static final class Builder {
+
+    private File directory;
+    private LinkedImageResolver resolver;
+    private Integer maxEntries;
+    private Integer maxThreads;
+
+    // Private constructor so only LinkedImageCache can create an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the cache that is specified by this builder.
+     *
+     * @return The cache that is specified by this builder.
+     */
+    public LinkedImageCache build() {
+
+      return new LinkedImageCache(
+          directory == null
+              ? new File(System.getProperty("java.io.tmpdir"), "jodconverter-images")
+              : directory,
+          resolver == null ? new UrlResolver() : resolver,
+          maxEntries,
+          maxThreads);
+    }
+
+    /**
+     * Specifies the directory where the local copies of the images are stored.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: A jodconverter-images directory in the temporary directory
+     *
+     * @param directory The directory.
+     * @return This builder instance.
+     */
+    public Builder directory(final File directory) {
+
+      this.directory = directory;
+      return this;
+    }
+
+    /**
+     * Specifies the resolver fetching the content of the images.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: A resolver opening a connection on the URL of the image
+     *
+     * @param resolver The resolver.
+     * @return This builder instance.
+     */
+    public Builder resolver(final LinkedImageResolver resolver) {
+
+      this.resolver = resolver;
+      return this;
+    }
+
+    /**
+     * Specifies the maximum number of cached URLs. When the maximum is reached, the least recently
+     * used URL is evicted from the cache.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 500
+     *
+     * @param maxEntries The maximum number of cached URLs.
+     * @return This builder instance.
+     */
+    public Builder maxEntries(final Integer maxEntries) {
+
+      if (maxEntries != null) {
+        AssertUtils.isTrue(
+            maxEntries > 0, String.format("maxEntries %s must be greater than 0", maxEntries));
+      }
+      this.maxEntries = maxEntries;
+      return this;
+    }
+
+    /**
+     * Specifies the maximum number of images fetched concurrently.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 8
+     *
+     * @param maxThreads The maximum number of concurrent fetches.
+     * @return This builder instance.
+     */
+    public Builder maxThreads(final Integer maxThreads) {
+
+      if (maxThreads != null) {
+        AssertUtils.isTrue(
+            maxThreads > 0, String.format("maxThreads %s must be greater than 0", maxThreads));
+      }
+      this.maxThreads = maxThreads;
+      return this;
+    }
+  }
+}
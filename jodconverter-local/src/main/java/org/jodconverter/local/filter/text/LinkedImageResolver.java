@@ -0,0 +1,39 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.filter.text;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Fetches the content of the images linked by a document, on behalf of a {@link LinkedImageCache}.
+ * A resolver is called concurrently by several threads and must therefore be thread-safe.
+ */
+public interface LinkedImageResolver {
+
+  /**
+   * Opens a stream on the content of the image at the specified URL.
+   *
+   * @param url The URL of the linked image, as found in the document.
+   * @return A stream on the content of the image, closed by the caller.
+   * @throws IOException If the image cannot be fetched.
+   */
+  InputStream open(String url) throws IOException;
+}
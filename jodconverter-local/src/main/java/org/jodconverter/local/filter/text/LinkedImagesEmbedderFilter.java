@@ -30,19 +30,31 @@ import com.sun.star.text.XTextContent;
 import com.sun.star.text.XTextGraphicObjectsSupplier;
 import com.sun.star.uno.Any;
 import com.sun.star.uno.AnyConverter;
-import com.sun.star.uno.XComponentContext;
 import org.jodconverter.core.office.OfficeContext;
 import org.jodconverter.local.filter.Filter;
 import org.jodconverter.local.filter.FilterChain;
 import org.jodconverter.local.office.LocalOfficeContext;
-import org.jodconverter.local.office.utils.Info;
+import org.jodconverter.local.office.LocalOfficeUtils;
 import org.jodconverter.local.office.utils.Lo;
 import org.jodconverter.local.office.utils.Props;
 import org.jodconverter.local.office.utils.Write;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** This filter is used to insert a graphics into a document. */
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This filter is used to convert the linked images of a document into embedded images.
+ *
+ * <p>All the linked images are collected first, and each unique image is loaded only once per
+ * document, even if it is linked many times. When a {@link LinkedImageCache} is specified, the
+ * remote images are fetched in parallel into local copies before being embedded, instead of being
+ * fetched one by one by office.
+ */
 public class LinkedImagesEmbedderFilter implements Filter {
 
   // This class has been inspired by these examples:
@@ -51,6 +63,24 @@ public class LinkedImagesEmbedderFilter implements Filter {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(LinkedImagesEmbedderFilter.class);
 
+  private final LinkedImageCache imageCache;
+
+  /** Creates a new filter that lets office fetch the linked images. */
+  public LinkedImagesEmbedderFilter() {
+    this(null);
+  }
+
+  /**
+   * Creates a new filter that fetches the linked images through the specified cache.
+   *
+   * @param imageCache The cache used to fetch the linked images, may be null.
+   */
+  public LinkedImagesEmbedderFilter(final LinkedImageCache imageCache) {
+    super();
+
+    this.imageCache = imageCache;
+  }
+
   @Override
   public void doFilter(
       final OfficeContext context, final XComponent document, final FilterChain chain)
@@ -60,69 +90,136 @@ public class LinkedImagesEmbedderFilter implements Filter {
 
     // This filter can be used only with text document
     if (Write.isText(document)) {
-      convertLinkedImagesToEmbedded(((LocalOfficeContext) context).getComponentContext(), document);
+      convertLinkedImagesToEmbedded((LocalOfficeContext) context, document);
     }
 
     // Invoke the next filter in the chain
     chain.doFilter(context, document);
   }
 
-  private static void convertLinkedImagesToEmbedded(
-      final XComponentContext context, final XComponent document) throws Exception {
+  private void convertLinkedImagesToEmbedded(
+      final LocalOfficeContext context, final XComponent document) throws Exception {
 
-    // Create a GraphicProvider.
-    final XGraphicProvider graphicProvider =
-        Lo.createInstanceMCF(
-            context, XGraphicProvider.class, "com.sun.star.graphic.GraphicProvider");
     final XIndexAccess indexAccess =
         Lo.qi(
             XIndexAccess.class,
             Lo.qi(XTextGraphicObjectsSupplier.class, document).getGraphicObjects());
+
+    // Since LibreOffice 6.1, we must use "Graphic" instead of "GraphicURL"
+    if (!LocalOfficeUtils.getCapabilities(context).isGraphicPropertySupported()) {
+      embedGraphicUrls(document, indexAccess);
+      return;
+    }
+
+    // Collect the linked images, grouped by URL.
+    final Map<String, List<XPropertySet>> linkedImages =
+        new LinkedHashMap<String, List<XPropertySet>>();
     for (int i = 0; i < indexAccess.getCount(); i++) {
-      final Any xImageAny = (Any) indexAccess.getByIndex(i);
-      final Object xImageObject = xImageAny.getObject();
-      final XTextContent xImage = (XTextContent) xImageObject;
-      final XServiceInfo xInfo = Lo.qi(XServiceInfo.class, xImage);
-      if (xInfo.supportsService("com.sun.star.text.TextGraphicObject")) {
-        final XPropertySet xPropSet = Lo.qi(XPropertySet.class, xImage);
-        if (Info.isLibreOffice(context)
-            && Info.compareVersions(Info.getOfficeVersionShort(context), "6.1", 2) >= 0) {
-          final XGraphic xGraphic =
-              (XGraphic)
-                  AnyConverter.toObject(XGraphic.class, xPropSet.getPropertyValue("Graphic"));
-          // Only ones that are not embedded
-          final XPropertySet xGraphicPropSet = Lo.qi(XPropertySet.class, xGraphic);
-          final boolean linked = (Boolean) xGraphicPropSet.getPropertyValue("Linked");
-          if (linked) {
-            // Since 6.1, we must use "Graphic" instead of "GraphicURL"
-            if (graphicProvider == null) {
-              throw new NullPointerException();
-            }
-            xPropSet.setPropertyValue(
-                "Graphic",
-                graphicProvider.queryGraphic(
-                    Props.makeProperties(
-                        "URL",
-                        xGraphicPropSet.getPropertyValue("OriginURL").toString(),
-                        "LoadAsLink",
-                        false)));
+      final XPropertySet xPropSet = getGraphicObjectProperties(indexAccess, i);
+      if (xPropSet != null) {
+        final XGraphic xGraphic =
+            (XGraphic) AnyConverter.toObject(XGraphic.class, xPropSet.getPropertyValue("Graphic"));
+        // Only ones that are not embedded
+        final XPropertySet xGraphicPropSet = Lo.qi(XPropertySet.class, xGraphic);
+        if (xGraphicPropSet != null && (Boolean) xGraphicPropSet.getPropertyValue("Linked")) {
+          final String url = xGraphicPropSet.getPropertyValue("OriginURL").toString();
+          List<XPropertySet> images = linkedImages.get(url);
+          if (images == null) {
+            images = new ArrayList<XPropertySet>();
+            linkedImages.put(url, images);
           }
-        } else {
-          final String name = xPropSet.getPropertyValue("LinkDisplayName").toString();
-          final String graphicUrl = xPropSet.getPropertyValue("GraphicURL").toString();
-          // Only ones that are not embedded
-          if (!graphicUrl.contains("vnd.sun.")) {
-            // Creating bitmap container service
-            final XNameContainer bitmapContainer =
+          images.add(xPropSet);
+        }
+      }
+    }
+    if (linkedImages.isEmpty()) {
+      return;
+    }
+
+    // Prefetch the remote images into local copies.
+    final Map<String, String> localUrls =
+        imageCache == null
+            ? Collections.<String, String>emptyMap()
+            : imageCache.fetchAll(linkedImages.keySet());
+
+    // Create a GraphicProvider.
+    final XGraphicProvider graphicProvider =
+        Lo.createInstanceMCF(
+            context.getComponentContext(),
+            XGraphicProvider.class,
+            "com.sun.star.graphic.GraphicProvider");
+    if (graphicProvider == null) {
+      throw new NullPointerException();
+    }
+
+    // Load each image once, and embed it everywhere it is linked.
+    for (final Map.Entry<String, List<XPropertySet>> entry : linkedImages.entrySet()) {
+      final XGraphic graphic =
+          queryGraphic(graphicProvider, entry.getKey(), localUrls.get(entry.getKey()));
+      for (final XPropertySet xPropSet : entry.getValue()) {
+        xPropSet.setPropertyValue("Graphic", graphic);
+      }
+    }
+  }
+
+  // Loads the image of the specified URL, from its local copy if any. The local copy may have been
+  // evicted from the cache by a concurrent conversion, in which case the original URL is used.
+  private static XGraphic queryGraphic(
+      final XGraphicProvider graphicProvider, final String url, final String localUrl)
+      throws Exception {
+
+    if (localUrl != null) {
+      XGraphic graphic = null;
+      try {
+        graphic =
+            graphicProvider.queryGraphic(
+                Props.makeProperties("URL", localUrl, "LoadAsLink", false));
+      } catch (com.sun.star.uno.Exception ex) {
+        LOGGER.trace("Could not load local copy {}", localUrl, ex);
+      }
+      if (graphic != null) {
+        return graphic;
+      }
+      LOGGER.debug("Local copy of linked image {} is gone, loading it from its URL", url);
+    }
+    return graphicProvider.queryGraphic(Props.makeProperties("URL", url, "LoadAsLink", false));
+  }
+
+  private static void embedGraphicUrls(final XComponent document, final XIndexAccess indexAccess)
+      throws Exception {
+
+    // Creating bitmap container service
+    XNameContainer bitmapContainer = null;
+    for (int i = 0; i < indexAccess.getCount(); i++) {
+      final XPropertySet xPropSet = getGraphicObjectProperties(indexAccess, i);
+      if (xPropSet != null) {
+        final String name = xPropSet.getPropertyValue("LinkDisplayName").toString();
+        final String graphicUrl = xPropSet.getPropertyValue("GraphicURL").toString();
+        // Only ones that are not embedded
+        if (!graphicUrl.contains("vnd.sun.")) {
+          if (bitmapContainer == null) {
+            bitmapContainer =
                 Lo.createInstanceMSF(
                     document, XNameContainer.class, "com.sun.star.drawing.BitmapTable");
-            if (!bitmapContainer.hasByName(name)) {
-              bitmapContainer.insertByName(name, graphicUrl);
-              xPropSet.setPropertyValue("GraphicURL", bitmapContainer.getByName(name).toString());
-            }
+          }
+          if (!bitmapContainer.hasByName(name)) {
+            bitmapContainer.insertByName(name, graphicUrl);
+            xPropSet.setPropertyValue("GraphicURL", bitmapContainer.getByName(name).toString());
           }
         }
       }
     }
   }
+
+  // Gets the properties of the graphic object at the specified index, if it is an image.
+  private static XPropertySet getGraphicObjectProperties(
+      final XIndexAccess indexAccess, final int index) throws Exception {
+
+    final Any xImageAny = (Any) indexAccess.getByIndex(index);
+    final XTextContent xImage = (XTextContent) xImageAny.getObject();
+    final XServiceInfo xInfo = Lo.qi(XServiceInfo.class, xImage);
+    return xInfo.supportsService("com.sun.star.text.TextGraphicObject")
+        ? Lo.qi(XPropertySet.class, xImage)
+        : null;
+  }
 }
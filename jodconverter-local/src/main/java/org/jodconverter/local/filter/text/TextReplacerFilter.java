@@ -19,9 +19,13 @@
 
 package org.jodconverter.local.filter.text;
 
+import com.sun.star.beans.XPropertySet;
+import com.sun.star.container.XIndexAccess;
 import com.sun.star.lang.XComponent;
+import com.sun.star.text.XTextRange;
 import com.sun.star.util.XReplaceDescriptor;
 import com.sun.star.util.XReplaceable;
+import com.sun.star.util.XSearchDescriptor;
 import org.jodconverter.core.office.OfficeContext;
 import org.jodconverter.core.office.OfficeException;
 import org.jodconverter.core.util.AssertUtils;
@@ -33,8 +37,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
-/** This filter is used to replace text in a document. */
+/**
+ * This filter is used to replace text in a document.
+ *
+ * <p>By default, each search string is replaced by its own search and replace pass over the whole
+ * document, in the order of the search list, so a replacement may itself be replaced by a
+ * subsequent pass. In bulk mode, all the search strings are found by a single regular expression
+ * search (an alternation of all the search strings, longest first) over the whole document,
+ * including headers, footers, tables and frames, and each occurrence is then replaced once. Bulk
+ * mode is much faster with many search strings, but a replacement is never replaced again.
+ */
 public class TextReplacerFilter implements Filter {
 
   // This class has been inspired by this example:
@@ -44,6 +61,7 @@ public class TextReplacerFilter implements Filter {
 
   private final String[] searchList;
   private final String[] replacementList;
+  private final boolean bulk;
 
   /**
    * Creates a new filter with the specified strings to replace.
@@ -53,6 +71,19 @@ public class TextReplacerFilter implements Filter {
    */
   public TextReplacerFilter(
       final String[] searchList, final String[] replacementList) {
+    this(searchList, replacementList, false);
+  }
+
+  /**
+   * Creates a new filter with the specified strings to replace.
+   *
+   * @param searchList The Strings to search for, no-op if null.
+   * @param replacementList The Strings to replace them with, no-op if null.
+   * @param bulk {@code true} to find all the search strings in a single pass over the document,
+   *     {@code false} to use one pass per search string.
+   */
+  public TextReplacerFilter(
+      final String[] searchList, final String[] replacementList, final boolean bulk) {
     super();
 
     // Both arrays are required and cannot be empty
@@ -71,6 +102,7 @@ public class TextReplacerFilter implements Filter {
     // Everything is fine
     this.searchList = Arrays.copyOf(searchList, searchList.length);
     this.replacementList = Arrays.copyOf(replacementList, replacementList.length);
+    this.bulk = bulk;
   }
 
   @Override
@@ -84,7 +116,11 @@ public class TextReplacerFilter implements Filter {
 
     // This filter can only be used with text document
     if (Write.isText(document)) {
-      replaceText(document);
+      if (bulk) {
+        replaceTextInBulk(document);
+      } else {
+        replaceText(document);
+      }
     }
 
     // Invoke the next filter in the chain
@@ -109,4 +145,79 @@ public class TextReplacerFilter implements Filter {
       replaceable.replaceAll(replaceDesc);
     }
   }
+
+  private void replaceTextInBulk(final XComponent document) throws OfficeException {
+
+    // Maps the search strings to their replacement. The search is case insensitive, like the
+    // one-pass-per-string mode, and the first search string wins when several differ only by case.
+    final Map<String, String> replacements = new HashMap<String, String>();
+    for (int i = 0; i < searchList.length; i++) {
+      final String key = searchList[i].toLowerCase(Locale.ROOT);
+      if (searchList[i].length() > 0 && !replacements.containsKey(key)) {
+        replacements.put(key, replacementList[i]);
+      }
+    }
+    if (replacements.isEmpty()) {
+      return;
+    }
+
+    final XReplaceable replaceable = Lo.qi(XReplaceable.class, document);
+    final XSearchDescriptor searchDesc = replaceable.createSearchDescriptor();
+    searchDesc.setSearchString(toAlternation(searchList));
+    try {
+      Lo.qi(XPropertySet.class, searchDesc).setPropertyValue("SearchRegularExpression", true);
+    } catch (Exception ex) {
+      throw new OfficeException("Could not create the bulk search descriptor", ex);
+    }
+
+    final XIndexAccess found = replaceable.findAll(searchDesc);
+    final int count = found == null ? 0 : found.getCount();
+    LOGGER.debug("Replacing {} occurrences of {} search strings", count, replacements.size());
+
+    // Replace from the end so that replacing an occurrence never moves the ones still to replace.
+    try {
+      for (int i = count - 1; i >= 0; i--) {
+        final XTextRange range = Lo.qi(XTextRange.class, found.getByIndex(i));
+        final String replacement = replacements.get(range.getString().toLowerCase(Locale.ROOT));
+        if (replacement != null) {
+          range.setString(replacement);
+        }
+      }
+    } catch (com.sun.star.uno.Exception ex) {
+      throw new OfficeException("Could not replace the found text", ex);
+    }
+  }
+
+  // Builds a regular expression matching any of the specified strings. The longest strings come
+  // first since the alternation picks the first alternative that matches, not the longest one.
+  private static String toAlternation(final String[] searchList) {
+
+    final String[] sorted = Arrays.copyOf(searchList, searchList.length);
+    Arrays.sort(
+        sorted,
+        new Comparator<String>() {
+          @Override
+          public int compare(final String str1, final String str2) {
+            return str2.length() - str1.length();
+          }
+        });
+
+    final StringBuilder regex = new StringBuilder();
+    for (final String search : sorted) {
+      if (search.length() == 0) {
+        continue;
+      }
+      if (regex.length() > 0) {
+        regex.append('|');
+      }
+      for (int i = 0; i < search.length(); i++) {
+        final char chr = search.charAt(i);
+        if ("\\^$.|?*+()[]{}".indexOf(chr) >= 0) {
+          regex.append('\\');
+        }
+        regex.append(chr);
+      }
+    }
+    return regex.toString();
+  }
 }
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.office;
+
+import com.google.common.base.Optional;
+import com.sun.star.drawing.XDrawPagesSupplier;
+import com.sun.star.frame.XController;
+import com.sun.star.frame.XModel;
+import com.sun.star.frame.XStorable;
+import com.sun.star.lang.XComponent;
+import com.sun.star.sheet.XSpreadsheetDocument;
+import com.sun.star.text.XTextDocument;
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.local.office.utils.Lo;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A handle on a document loaded by office, created once the document is loaded and used until it
+ * is stored. Every query made to a document is a round-trip to the office process; the handle
+ * performs each query once and memoizes the result: the family of the document, its common
+ * interfaces and its controller. It also collects the changes the filters want to make to the way
+ * the document is stored.
+ *
+ * <p>A handle is meant to be used by a single conversion at a time and is not thread safe.
+ */
+public final class DocumentHandle {
+
+  private final XComponent document;
+  private final DocumentFamily expectedFamily;
+  private final DocumentFormat targetFormat;
+  private final Map<String, Object> storeFilterData = new LinkedHashMap<String, Object>();
+  private DocumentFamily family;
+  private boolean familyResolved;
+  private Optional<XModel> model;
+  private Optional<XController> controller;
+  private Optional<XStorable> storable;
+  private Optional<XTextDocument> textDocument;
+  private Optional<XSpreadsheetDocument> spreadsheetDocument;
+  private Optional<XDrawPagesSupplier> drawPagesSupplier;
+
+  /**
+   * Creates a new handle for the specified document.
+   *
+   * @param document The loaded document.
+   */
+  public DocumentHandle(final XComponent document) {
+    this(document, null);
+  }
+
+  /**
+   * Creates a new handle for the specified document.
+   *
+   * @param document The loaded document.
+   * @param expectedFamily The family the document is expected to be of, usually the input family of
+   *     the source format, may be null. A right expectation saves office calls when the family of
+   *     the document is resolved.
+   */
+  public DocumentHandle(final XComponent document, final DocumentFamily expectedFamily) {
+    this(document, expectedFamily, null);
+  }
+
+  /**
+   * Creates a new handle for the specified document, which is being converted to the specified
+   * format.
+   *
+   * @param document The loaded document.
+   * @param expectedFamily The family the document is expected to be of, usually the input family of
+   *     the source format, may be null. A right expectation saves office calls when the family of
+   *     the document is resolved.
+   * @param targetFormat The format the document will be stored to, may be null if unknown.
+   */
+  public DocumentHandle(
+      final XComponent document,
+      final DocumentFamily expectedFamily,
+      final DocumentFormat targetFormat) {
+
+    AssertUtils.notNull(document, "document must not be null");
+
+    this.document = document;
+    this.expectedFamily = expectedFamily;
+    this.targetFormat = targetFormat;
+  }
+
+  /**
+   * Gets the document component.
+   *
+   * @return The {@link XComponent}.
+   */
+  public XComponent getComponent() {
+    return document;
+  }
+
+  /**
+   * Gets the format the document will be stored to.
+   *
+   * @return The target {@link DocumentFormat}, or null if unknown.
+   */
+  public DocumentFormat getTargetFormat() {
+    return targetFormat;
+  }
+
+  /**
+   * Adds a property to the filter data ({@code FilterData} store property) that will be used when
+   * the document is stored. This allows a filter to change the way the document is exported rather
+   * than modifying the document itself. A property added here overrides the filter data property
+   * with the same name coming from the target format or the converter.
+   *
+   * @param name The property name.
+   * @param value The property value.
+   */
+  public void addStoreFilterData(final String name, final Object value) {
+
+    AssertUtils.notBlank(name, "name must not be null nor blank");
+    storeFilterData.put(name, value);
+  }
+
+  /**
+   * Gets the filter data properties added by the filters applied to the document.
+   *
+   * @return An unmodifiable map of the properties, empty if none were added.
+   */
+  public Map<String, Object> getStoreFilterData() {
+    return Collections.unmodifiableMap(storeFilterData);
+  }
+
+  /**
+   * Gets the family of the document.
+   *
+   * @return The {@link DocumentFamily} of the document.
+   * @throws OfficeException If the document is of an unknown family.
+   */
+  public DocumentFamily getFamily() throws OfficeException {
+
+    final DocumentFamily docFamily = resolveFamily();
+    if (docFamily == null) {
+      // Let the exception describe the unknown family.
+      return LocalOfficeUtils.getDocumentFamily(document);
+    }
+    return docFamily;
+  }
+
+  /**
+   * Gets whether the document is a Text document.
+   *
+   * @return {@code true} if the document is a Text document, {@code false} otherwise.
+   */
+  public boolean isText() {
+    return resolveFamily() == DocumentFamily.TEXT;
+  }
+
+  /**
+   * Gets whether the document is a Calc (spreadsheet) document.
+   *
+   * @return {@code true} if the document is a Calc document, {@code false} otherwise.
+   */
+  public boolean isCalc() {
+    return resolveFamily() == DocumentFamily.SPREADSHEET;
+  }
+
+  /**
+   * Gets whether the document is an Impress (presentation) document.
+   *
+   * @return {@code true} if the document is an Impress document, {@code false} otherwise.
+   */
+  public boolean isImpress() {
+    return resolveFamily() == DocumentFamily.PRESENTATION;
+  }
+
+  /**
+   * Gets whether the document is a Draw document.
+   *
+   * @return {@code true} if the document is a Draw document, {@code false} otherwise.
+   */
+  public boolean isDraw() {
+    return resolveFamily() == DocumentFamily.DRAWING;
+  }
+
+  /**
+   * Gets the {@link XModel} interface of the document.
+   *
+   * @return The {@link XModel}, or null if not supported by the document.
+   */
+  public XModel getModel() {
+
+    if (model == null) {
+      model = Lo.qiOptional(XModel.class, document);
+    }
+    return model.orNull();
+  }
+
+  /**
+   * Gets the current controller of the document.
+   *
+   * @return The {@link XController}, or null if the document has no controller.
+   */
+  public XController getController() {
+
+    if (controller == null) {
+      final XModel xModel = getModel();
+      controller =
+          Optional.fromNullable(xModel == null ? null : xModel.getCurrentController());
+    }
+    return controller.orNull();
+  }
+
+  /**
+   * Gets the {@link XStorable} interface of the document.
+   *
+   * @return The {@link XStorable}, or null if not supported by the document.
+   */
+  public XStorable getStorable() {
+
+    if (storable == null) {
+      storable = Lo.qiOptional(XStorable.class, document);
+    }
+    return storable.orNull();
+  }
+
+  /**
+   * Gets the {@link XTextDocument} interface of the document.
+   *
+   * @return The {@link XTextDocument}, or null if the document is not a Text document.
+   */
+  public XTextDocument getTextDocument() {
+
+    if (textDocument == null) {
+      textDocument = Lo.qiOptional(XTextDocument.class, document);
+    }
+    return textDocument.orNull();
+  }
+
+  /**
+   * Gets the {@link XSpreadsheetDocument} interface of the document.
+   *
+   * @return The {@link XSpreadsheetDocument}, or null if the document is not a Calc document.
+   */
+  public XSpreadsheetDocument getSpreadsheetDocument() {
+
+    if (spreadsheetDocument == null) {
+      spreadsheetDocument = Lo.qiOptional(XSpreadsheetDocument.class, document);
+    }
+    return spreadsheetDocument.orNull();
+  }
+
+  /**
+   * Gets the {@link XDrawPagesSupplier} interface of the document.
+   *
+   * @return The {@link XDrawPagesSupplier}, or null if the document has no draw pages.
+   */
+  public XDrawPagesSupplier getDrawPagesSupplier() {
+
+    if (drawPagesSupplier == null) {
+      drawPagesSupplier = Lo.qiOptional(XDrawPagesSupplier.class, document);
+    }
+    return drawPagesSupplier.orNull();
+  }
+
+  // Resolves the family of the document, null if unknown.
+  private DocumentFamily resolveFamily() {
+
+    if (!familyResolved) {
+      try {
+        family = LocalOfficeUtils.getDocumentFamily(document, expectedFamily);
+      } catch (OfficeException ex) {
+        family = null;
+      }
+      familyResolved = true;
+    }
+    return family;
+  }
+}
@@ -20,9 +20,11 @@
 package org.jodconverter.local.office;
 
 import org.jodconverter.core.office.AbstractOfficeManagerPool;
+import org.jodconverter.core.office.DocumentQuarantine;
 import org.jodconverter.core.office.InstalledOfficeManagerHolder;
 import org.jodconverter.core.office.OfficeManager;
 import org.jodconverter.core.office.OfficeUtils;
+import org.jodconverter.core.office.TaskRetryPolicy;
 import org.jodconverter.core.util.AssertUtils;
 import org.jodconverter.core.util.StringUtils;
 import org.jodconverter.local.process.ProcessManager;
@@ -86,8 +88,12 @@ public final class LocalOfficeManager extends AbstractOfficeManagerPool {
       final Long taskExecutionTimeout,
       final Integer maxTasksPerProcess,
       final Boolean disableOpengl,
-      final Long taskQueueTimeout) {
-    super(workingDir, officeUrls.size(), taskQueueTimeout);
+      final OfficePerformanceProfile performanceProfile,
+      final TemplateCache templateCache,
+      final Long taskQueueTimeout,
+      final TaskRetryPolicy taskRetryPolicy,
+      final DocumentQuarantine documentQuarantine) {
+    super(workingDir, officeUrls.size(), taskQueueTimeout, taskRetryPolicy, documentQuarantine);
 
     List<OfficeManager> officeManagers = new ArrayList<OfficeManager>();
     for (OfficeUrl officeUrl : officeUrls) {
@@ -104,7 +110,9 @@ public final class LocalOfficeManager extends AbstractOfficeManagerPool {
               processRetryInterval,
               taskExecutionTimeout,
               maxTasksPerProcess,
-              disableOpengl));
+              disableOpengl,
+              performanceProfile,
+              templateCache));
     }
 
     setEntries(officeManagers);
@@ -138,6 +146,8 @@ public final class LocalOfficeManager extends AbstractOfficeManagerPool {
     private Long processRetryInterval;
     private Integer maxTasksPerProcess;
     private Boolean disableOpengl;
+    private OfficePerformanceProfile performanceProfile;
+    private TemplateCache templateCache;
 
     // Private constructor so only LocalOfficeManager can initialize an instance of this builder.
     private Builder() {
@@ -190,7 +200,11 @@ public final class LocalOfficeManager extends AbstractOfficeManagerPool {
               taskExecutionTimeout,
               maxTasksPerProcess,
               disableOpengl,
-              taskQueueTimeout);
+              performanceProfile,
+              templateCache,
+              taskQueueTimeout,
+              taskRetryPolicy,
+              documentQuarantine);
       if (install) {
         InstalledOfficeManagerHolder.setInstance(manager);
       }
@@ -455,5 +469,36 @@ public final class LocalOfficeManager extends AbstractOfficeManagerPool {
       this.disableOpengl = disableOpengl;
       return this;
     }
+
+    /**
+     * Specifies the performance profile applied to the configuration of an office process when it
+     * is started with a new instance profile directory. The process is restarted only if a
+     * setting requiring a restart is changed.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: null (no setting is changed)
+     *
+     * @param performanceProfile The profile to apply, see {@link OfficePerformanceProfile#make()}.
+     * @return This builder instance.
+     */
+    public Builder performanceProfile(final OfficePerformanceProfile performanceProfile) {
+
+      this.performanceProfile = performanceProfile;
+      return this;
+    }
+
+    /**
+     * Specifies the template documents to keep warm in every office process. A conversion of a
+     * registered template loads a working copy from memory instead of parsing the template file.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: null (no template is kept warm)
+     *
+     * @param templateCache The cache of the templates, see {@link TemplateCache#builder()}.
+     * @return This builder instance.
+     */
+    public Builder templateCache(final TemplateCache templateCache) {
+
+      this.templateCache = templateCache;
+      return this;
+    }
   }
 }
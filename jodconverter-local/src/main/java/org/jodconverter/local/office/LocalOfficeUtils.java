@@ -20,9 +20,12 @@
 package org.jodconverter.local.office;
 
 import com.sun.star.beans.PropertyValue;
+import com.sun.star.frame.XStorable;
 import com.sun.star.lang.XComponent;
 import com.sun.star.lang.XServiceInfo;
+import com.sun.star.lib.uno.adapter.XOutputStreamToByteArrayAdapter;
 import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.office.OfficeContext;
 import org.jodconverter.core.office.OfficeException;
 import org.jodconverter.core.util.AssertUtils;
 import org.jodconverter.core.util.OSUtils;
@@ -138,6 +141,55 @@ public final class LocalOfficeUtils {
     }
   }
 
+  /**
+   * Gets the capabilities of the office instance of the specified context. The capabilities of an
+   * {@link OfficeConnection} are retrieved once, when the connection is established; those of
+   * another local context are retrieved on each call.
+   *
+   * @param context The context.
+   * @return The capabilities, {@link OfficeCapabilities#UNKNOWN} if the context is not a local
+   *     context.
+   */
+  public static OfficeCapabilities getCapabilities(final OfficeContext context) {
+
+    if (context instanceof OfficeConnection) {
+      return ((OfficeConnection) context).getCapabilities();
+    }
+    if (context instanceof LocalOfficeContext) {
+      return OfficeCapabilities.of(((LocalOfficeContext) context).getComponentContext());
+    }
+    return OfficeCapabilities.UNKNOWN;
+  }
+
+  /**
+   * Gets the cache of the warm template documents of the office instance of the specified context.
+   *
+   * @param context The context.
+   * @return The {@link TemplateCache}, or null if no template is registered or if the context is
+   *     not an {@link OfficeConnection}.
+   */
+  public static TemplateCache getTemplateCache(final OfficeContext context) {
+
+    return context instanceof OfficeConnection
+        ? ((OfficeConnection) context).getTemplateCache()
+        : null;
+  }
+
+  /**
+   * Gets the cache of the resources (graphics, documents) loaded into the office instance of the
+   * specified context by the filters.
+   *
+   * @param context The context.
+   * @return The {@link OfficeResourceCache}, or null if the context is not an {@link
+   *     OfficeConnection}.
+   */
+  public static OfficeResourceCache getResourceCache(final OfficeContext context) {
+
+    return context instanceof OfficeConnection
+        ? ((OfficeConnection) context).getResourceCache()
+        : null;
+  }
+
   /**
    * Find the best process manager that will be used to retrieve a process PID and to kill a process
    * by PID.
@@ -234,6 +286,44 @@ public final class LocalOfficeUtils {
     throw new OfficeException("Document of unknown family: " + serviceInfo.getImplementationName());
   }
 
+  /**
+   * Gets the {@link org.jodconverter.core.document.DocumentFamily} of the specified document,
+   * checking first whether the document is of the expected family. When the expectation is right,
+   * which is usually the case when it is the input family of the format of the loaded document,
+   * the family is retrieved with a single call to office.
+   *
+   * @param document The document whose family will be returned.
+   * @param expectedFamily The family the document is expected to be of, may be null.
+   * @return The {@link org.jodconverter.core.document.DocumentFamily} for the specified document.
+   * @throws org.jodconverter.core.office.OfficeException If the document family cannot be
+   *     retrieved.
+   */
+  public static DocumentFamily getDocumentFamily(
+      final XComponent document, final DocumentFamily expectedFamily) throws OfficeException {
+
+    AssertUtils.notNull(document, "document must not be null");
+
+    if (expectedFamily != null
+        && Lo.qi(XServiceInfo.class, document).supportsService(getServiceName(expectedFamily))) {
+      return expectedFamily;
+    }
+    return getDocumentFamily(document);
+  }
+
+  private static String getServiceName(final DocumentFamily family) {
+
+    switch (family) {
+      case SPREADSHEET:
+        return "com.sun.star.sheet.SpreadsheetDocument";
+      case PRESENTATION:
+        return "com.sun.star.presentation.PresentationDocument";
+      case DRAWING:
+        return "com.sun.star.drawing.DrawingDocument";
+      default:
+        return "com.sun.star.text.GenericTextDocument";
+    }
+  }
+
   /**
    * Gets the office executable within an office installation.
    *
@@ -277,6 +367,38 @@ public final class LocalOfficeUtils {
     return prop;
   }
 
+  /**
+   * Stores the specified document into memory.
+   *
+   * @param document The document to store.
+   * @param storeProperties The properties used to store the document, which must at least specify
+   *     the export filter.
+   * @return The stored content.
+   * @throws OfficeException If the document cannot be stored.
+   */
+  public static byte[] storeToMemory(
+      final XComponent document, final PropertyValue[] storeProperties) throws OfficeException {
+
+    final XStorable storable = Lo.qi(XStorable.class, document);
+    AssertUtils.notNull(storable, "Document cannot be stored");
+
+    final XOutputStreamToByteArrayAdapter output = new XOutputStreamToByteArrayAdapter();
+    final List<PropertyValue> props = new ArrayList<PropertyValue>(storeProperties.length + 1);
+    for (final PropertyValue prop : storeProperties) {
+      if (!"OutputStream".equals(prop.Name)) {
+        props.add(prop);
+      }
+    }
+    props.add(property("OutputStream", output));
+    try {
+      storable.storeToURL("private:stream", props.toArray(new PropertyValue[props.size()]));
+      output.closeOutput();
+    } catch (com.sun.star.uno.Exception ex) {
+      throw new OfficeException("Could not store document into memory", ex);
+    }
+    return output.getBuffer();
+  }
+
   /**
    * Converts a regular java map to an array of {@code PropertyValue}, usable as arguments with UNO
    * interface types.
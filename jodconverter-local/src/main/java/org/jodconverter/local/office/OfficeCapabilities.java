@@ -0,0 +1,219 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.office;
+
+import com.sun.star.beans.XPropertySet;
+import com.sun.star.beans.XPropertySetInfo;
+import com.sun.star.uno.XComponentContext;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.local.office.utils.Info;
+import org.jodconverter.local.office.utils.Props;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Contains the capabilities of the office instance a connection is established with: the product,
+ * its version and the features that depend on them. The capabilities are retrieved once, when the
+ * connection is established, so filters and tasks do not have to query the office configuration
+ * again and again.
+ *
+ * @see LocalOfficeUtils#getCapabilities(OfficeContext)
+ */
+public final class OfficeCapabilities {
+
+  /** The capabilities of an office instance whose product and version are unknown. */
+  public static final OfficeCapabilities UNKNOWN = new OfficeCapabilities(null, null, null);
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OfficeCapabilities.class);
+
+  private static final String NODE_PRODUCT = "/org.openoffice.Setup/Product";
+  private static final String PROP_NAME = "ooName";
+  private static final String PROP_VERSION_SHORT = "ooSetupVersion";
+  private static final String PROP_VERSION_LONG = "ooSetupVersionAboutBox";
+
+  private final String productName;
+  private final String versionShort;
+  private final String versionLong;
+  private final boolean libreOffice;
+  private final boolean openOffice;
+  private final boolean graphicPropertySupported;
+  private final boolean imagePageRangeSupported;
+
+  /**
+   * Retrieves the capabilities of the office instance of the specified context.
+   *
+   * @param context The office component context.
+   * @return The capabilities, {@link #UNKNOWN} if they cannot be retrieved.
+   */
+  public static OfficeCapabilities of(final XComponentContext context) {
+
+    try {
+      // All the properties live in the same node, so a single configuration access is required.
+      final XPropertySet props = Info.getConfigProperties(context, NODE_PRODUCT);
+      if (props == null) {
+        return UNKNOWN;
+      }
+      final XPropertySetInfo propsInfo = props.getPropertySetInfo();
+      final OfficeCapabilities capabilities =
+          new OfficeCapabilities(
+              getString(props, propsInfo, PROP_NAME),
+              getString(props, propsInfo, PROP_VERSION_SHORT),
+              getString(props, propsInfo, PROP_VERSION_LONG));
+      LOGGER.debug("Office capabilities: {}", capabilities);
+      return capabilities;
+
+    } catch (RuntimeException ex) {
+      LOGGER.warn("Could not retrieve the office capabilities", ex);
+      return UNKNOWN;
+    }
+  }
+
+  private static String getString(
+      final XPropertySet props, final XPropertySetInfo propsInfo, final String propName) {
+
+    if (propsInfo != null && !propsInfo.hasPropertyByName(propName)) {
+      return null;
+    }
+    final Object value = Props.getProperty(props, propName);
+    return value == null ? null : value.toString();
+  }
+
+  /**
+   * Creates new capabilities.
+   *
+   * @param productName The office product name, may be null.
+   * @param versionShort The office version (short representation, e.g 6.1), may be null.
+   * @param versionLong The office version (long representation, e.g 6.1.0.3), may be null.
+   */
+  public OfficeCapabilities(
+      final String productName, final String versionShort, final String versionLong) {
+
+    this.productName = productName;
+    this.versionShort = versionShort;
+    this.versionLong = versionLong;
+    this.libreOffice = "libreoffice".equalsIgnoreCase(productName);
+    this.openOffice = "openoffice".equalsIgnoreCase(productName);
+    this.graphicPropertySupported = libreOffice && isVersionAtLeast("6.1");
+    this.imagePageRangeSupported = libreOffice && isVersionAtLeast("7.4");
+  }
+
+  /**
+   * Gets the office product name.
+   *
+   * @return The product name, or {@code null} if unknown.
+   */
+  public String getProductName() {
+    return productName;
+  }
+
+  /**
+   * Gets the office product version (short representation), e.g 6.1
+   *
+   * @return The product version, or {@code null} if unknown.
+   */
+  public String getVersionShort() {
+    return versionShort;
+  }
+
+  /**
+   * Gets the office product version (long representation), e.g 6.1.0.3
+   *
+   * @return The product version, or {@code null} if unknown.
+   */
+  public String getVersionLong() {
+    return versionLong;
+  }
+
+  /**
+   * Gets whether the office instance is a LibreOffice installation.
+   *
+   * @return {@code true} if the office instance is a LibreOffice installation, {@code false}
+   *     otherwise.
+   */
+  public boolean isLibreOffice() {
+    return libreOffice;
+  }
+
+  /**
+   * Gets whether the office instance is an OpenOffice installation.
+   *
+   * @return {@code true} if the office instance is an OpenOffice installation, {@code false}
+   *     otherwise.
+   */
+  public boolean isOpenOffice() {
+    return openOffice;
+  }
+
+  /**
+   * Gets whether the version (short representation) of the office instance is greater than or
+   * equal to the specified version.
+   *
+   * @param version The version to compare with, e.g 6.1
+   * @return {@code true} if the office version is known and is at least the specified version,
+   *     {@code false} otherwise.
+   */
+  public boolean isVersionAtLeast(final String version) {
+
+    if (versionShort == null) {
+      return false;
+    }
+    try {
+      final int length =
+          Math.max(versionShort.split("\\.").length, version.split("\\.").length);
+      return Info.compareVersions(versionShort, version, length) >= 0;
+    } catch (NumberFormatException ex) {
+      return false;
+    }
+  }
+
+  /**
+   * Gets whether images are set using the {@code Graphic} property rather than the {@code
+   * GraphicURL} property, which is the case since LibreOffice 6.1.
+   *
+   * @return {@code true} if the {@code Graphic} property must be used, {@code false} otherwise.
+   */
+  public boolean isGraphicPropertySupported() {
+    return graphicPropertySupported;
+  }
+
+  /**
+   * Gets whether the PNG and JPEG export filters support the {@code PageRange} filter data, which
+   * is the case since LibreOffice 7.4.
+   *
+   * @return {@code true} if the page to export as an image can be selected, {@code false}
+   *     otherwise.
+   */
+  public boolean isImagePageRangeSupported() {
+    return imagePageRangeSupported;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "productName="
+        + productName
+        + ", versionShort="
+        + versionShort
+        + ", versionLong="
+        + versionLong
+        + '}';
+  }
+}
@@ -51,11 +51,14 @@ public class OfficeConnection implements LocalOfficeContext, XEventListener {
   private static final Logger LOGGER = LoggerFactory.getLogger(OfficeConnection.class);
 
   private final OfficeUrl officeUrl;
+  private final TemplateCache templateCache;
+  private final OfficeResourceCache resourceCache = new OfficeResourceCache(this);
   private Object desktopService;
   private XComponent bridgeComponent;
   private XComponentContext componentContext;
   private XMultiComponentFactory serviceManager;
   private XComponentLoader componentLoader;
+  private OfficeCapabilities capabilities = OfficeCapabilities.UNKNOWN;
   private final List<OfficeConnectionEventListener> connectionEventListeners;
   private final AtomicBoolean connected = new AtomicBoolean();
 
@@ -65,8 +68,19 @@ public class OfficeConnection implements LocalOfficeContext, XEventListener {
    * @param officeUrl The URL for which the connection is created.
    */
   public OfficeConnection(final OfficeUrl officeUrl) {
+    this(officeUrl, null);
+  }
+
+  /**
+   * Constructs a new connection for the specified UNO URL.
+   *
+   * @param officeUrl The URL for which the connection is created.
+   * @param templateCache The cache of the warm template documents, may be null.
+   */
+  public OfficeConnection(final OfficeUrl officeUrl, final TemplateCache templateCache) {
 
     this.officeUrl = officeUrl;
+    this.templateCache = templateCache;
     this.connectionEventListeners = new ArrayList<OfficeConnectionEventListener>();
   }
 
@@ -167,6 +181,9 @@ public class OfficeConnection implements LocalOfficeContext, XEventListener {
           throw new OfficeConnectionException("Could not create a desktop service", connectPart);
         }
 
+        // Retrieve the capabilities of the office instance once and for all.
+        capabilities = OfficeCapabilities.of(componentContext);
+
         // We are now connected
         connected.set(true);
         LOGGER.info("Connected: '{}'", connectPart);
@@ -213,6 +230,9 @@ public class OfficeConnection implements LocalOfficeContext, XEventListener {
       componentLoader = null;
       desktopService = null;
       bridgeComponent = null;
+      capabilities = OfficeCapabilities.UNKNOWN;
+      // The cached resources belong to the lost office process.
+      resourceCache.clear();
 
       LOGGER.info("Disconnected from '{}'", officeUrl.getConnectionAndParametersAsString());
 
@@ -240,6 +260,34 @@ public class OfficeConnection implements LocalOfficeContext, XEventListener {
     return componentLoader;
   }
 
+  /**
+   * Gets the capabilities of the office instance, retrieved when the connection was established.
+   *
+   * @return The {@link OfficeCapabilities}, never null.
+   */
+  public OfficeCapabilities getCapabilities() {
+    return capabilities;
+  }
+
+  /**
+   * Gets the cache of the warm template documents of the office instance.
+   *
+   * @return The {@link TemplateCache}, or null if no template is registered.
+   */
+  public TemplateCache getTemplateCache() {
+    return templateCache;
+  }
+
+  /**
+   * Gets the cache of the resources (graphics, documents) loaded into the office instance by the
+   * filters, cleared when the connection is lost.
+   *
+   * @return The {@link OfficeResourceCache}, never null.
+   */
+  public OfficeResourceCache getResourceCache() {
+    return resourceCache;
+  }
+
   @Override
   public XDesktop getDesktop() {
     if (desktopService == null) {
@@ -0,0 +1,423 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.office;
+
+import com.sun.star.beans.XHierarchicalPropertySet;
+import com.sun.star.beans.XHierarchicalPropertySetInfo;
+import com.sun.star.lang.XComponent;
+import com.sun.star.uno.XComponentContext;
+import com.sun.star.util.XChangesBatch;
+import com.sun.star.util.XFlushable;
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.local.office.utils.Info;
+import org.jodconverter.local.office.utils.Lo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contains the office configuration settings applied to the user profile of an office process when
+ * it is started, in order to turn off the features that are useless for conversions but that
+ * consume CPU or memory in the background: auto recovery, thumbnail generation, undo history,
+ * automatic spell and grammar checking, etc.
+ *
+ * <p>A profile is applied once per instance profile directory, when a new office process is
+ * started. Settings that already have the expected value are left untouched, and the office
+ * process is restarted only if a setting requiring a restart has actually been changed.
+ */
+public final class OfficePerformanceProfile {
+
+  /** A profile that does not change any setting. */
+  public static final OfficePerformanceProfile NONE =
+      new OfficePerformanceProfile(Collections.<Setting>emptyList());
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OfficePerformanceProfile.class);
+
+  private static final String NODE_COMMON = "/org.openoffice.Office.Common";
+  private static final String NODE_LINGUISTIC = "/org.openoffice.Office.Linguistic";
+  private static final String NODE_RECOVERY = "/org.openoffice.Office.Recovery";
+  private static final String PROP_PATH_USE_OPENGL = "VCL/UseOpenGL";
+  // The default number of undo steps; no undo history.
+  private static final int DEFAULT_UNDO_STEPS = 0;
+
+  private final List<Setting> settings;
+
+  /** A configuration setting to apply. */
+  private static final class Setting {
+
+    private final String nodePath;
+    private final String propertyPath;
+    private final Object value;
+    private final boolean restartRequired;
+
+    private Setting(
+        final String nodePath,
+        final String propertyPath,
+        final Object value,
+        final boolean restartRequired) {
+
+      this.nodePath = nodePath;
+      this.propertyPath = propertyPath;
+      this.value = value;
+      this.restartRequired = restartRequired;
+    }
+
+    @Override
+    public String toString() {
+      return nodePath + "/" + propertyPath + "=" + value;
+    }
+  }
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a new {@link OfficePerformanceProfile} with default configuration, suitable for an
+   * office process dedicated to conversions.
+   *
+   * @return A {@link OfficePerformanceProfile} with default configuration.
+   */
+  public static OfficePerformanceProfile make() {
+    return builder().build();
+  }
+
+  private OfficePerformanceProfile(final List<Setting> settings) {
+    this.settings = Collections.unmodifiableList(settings);
+  }
+
+  /**
+   * Gets whether this profile does not change any setting.
+   *
+   * @return {@code true} if the profile is empty, {@code false} otherwise.
+   */
+  public boolean isEmpty() {
+    return settings.isEmpty();
+  }
+
+  /**
+   * Creates a copy of this profile that also disables OpenGL.
+   *
+   * @return The new profile.
+   */
+  /* default */ OfficePerformanceProfile withOpenglDisabled() {
+
+    for (final Setting setting : settings) {
+      if (NODE_COMMON.equals(setting.nodePath)
+          && PROP_PATH_USE_OPENGL.equals(setting.propertyPath)) {
+        return this;
+      }
+    }
+    final List<Setting> newSettings = new ArrayList<Setting>(settings);
+    newSettings.add(new Setting(NODE_COMMON, PROP_PATH_USE_OPENGL, false, true));
+    return new OfficePerformanceProfile(newSettings);
+  }
+
+  /**
+   * Applies this profile to the configuration of the office process of the specified context.
+   * Settings that are not supported by the office installation are ignored.
+   *
+   * @param officeContext The office component context.
+   * @return {@code true} if a setting requiring a restart of the office process has been changed,
+   *     {@code false} otherwise.
+   */
+  /* default */ boolean apply(final XComponentContext officeContext) {
+
+    // See configuration registry for more options.
+    // e.g: C:\Program Files\LibreOffice 5\share\registry\main.xcd
+
+    // Group the settings by node, a view being required by node.
+    final Map<String, List<Setting>> settingsByNode = new LinkedHashMap<String, List<Setting>>();
+    for (final Setting setting : settings) {
+      List<Setting> nodeSettings = settingsByNode.get(setting.nodePath);
+      if (nodeSettings == null) {
+        nodeSettings = new ArrayList<Setting>();
+        settingsByNode.put(setting.nodePath, nodeSettings);
+      }
+      nodeSettings.add(setting);
+    }
+
+    boolean changed = false;
+    boolean restartRequired = false;
+    for (final Map.Entry<String, List<Setting>> entry : settingsByNode.entrySet()) {
+
+      // Create the view to the root element where the options live
+      final Object viewRoot = Info.getConfigUpdateAccess(officeContext, entry.getKey());
+      if (viewRoot == null) {
+        continue;
+      }
+      try {
+        boolean nodeChanged = false;
+        final XHierarchicalPropertySet properties = Lo.qi(XHierarchicalPropertySet.class, viewRoot);
+        final XHierarchicalPropertySetInfo propsInfo = properties.getHierarchicalPropertySetInfo();
+        for (final Setting setting : entry.getValue()) {
+          if (applySetting(properties, propsInfo, setting)) {
+            nodeChanged = true;
+            restartRequired |= setting.restartRequired;
+          }
+        }
+        if (nodeChanged) {
+          // Changes have been applied to the view here
+          Lo.qi(XChangesBatch.class, viewRoot).commitChanges();
+          changed = true;
+        }
+      } catch (com.sun.star.uno.Exception ex) {
+        LOGGER.warn("Could not apply the performance profile to {}", entry.getKey(), ex);
+      } finally {
+        // We are done with the view - dispose it
+        Lo.qi(XComponent.class, viewRoot).dispose();
+      }
+    }
+
+    // Write the changes to the user profile now, since the process may be killed right away.
+    if (changed) {
+      final XFlushable flushable =
+          Lo.qiOptional(XFlushable.class, Info.getConfigProvider(officeContext)).orNull();
+      if (flushable != null) {
+        flushable.flush();
+      }
+    }
+    return restartRequired;
+  }
+
+  private static boolean applySetting(
+      final XHierarchicalPropertySet properties,
+      final XHierarchicalPropertySetInfo propsInfo,
+      final Setting setting) {
+
+    if (!propsInfo.hasPropertyByHierarchicalName(setting.propertyPath)) {
+      LOGGER.debug("Setting {} not supported by office; ignored", setting);
+      return false;
+    }
+    try {
+      final Object current = properties.getHierarchicalPropertyValue(setting.propertyPath);
+      if (setting.value.equals(current)) {
+        return false;
+      }
+      properties.setHierarchicalPropertyValue(setting.propertyPath, setting.value);
+      LOGGER.info("Office setting {} changed from {}", setting, current);
+      return true;
+    } catch (com.sun.star.uno.Exception ex) {
+      LOGGER.warn("Could not apply the office setting {}", setting, ex);
+      return false;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "{" + "settings=" + settings + '}';
+  }
+
+  /**
+   * A builder for constructing an {@link OfficePerformanceProfile}.
+   *
+   * @see OfficePerformanceProfile
+   */
+  public static final class Builder {
+
+    private Boolean disableAutoRecovery;
+    private Boolean disableThumbnails;
+    private Integer undoSteps = DEFAULT_UNDO_STEPS;
+    private Boolean disableAutoSpellChecking;
+    private Integer graphicCacheSize;
+    private Boolean disableOpengl;
+    private final List<Setting> customSettings = new ArrayList<Setting>();
+
+    // Private constructor so only OfficePerformanceProfile can create an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the profile that is specified by this builder.
+     *
+     * @return The profile that is specified by this builder.
+     */
+    public OfficePerformanceProfile build() {
+
+      final List<Setting> settings = new ArrayList<Setting>();
+      if (disableAutoRecovery == null || disableAutoRecovery) {
+        settings.add(new Setting(NODE_RECOVERY, "AutoSave/Enabled", false, false));
+        settings.add(new Setting(NODE_RECOVERY, "RecoveryInfo/Enabled", false, false));
+      }
+      if (disableThumbnails == null || disableThumbnails) {
+        settings.add(new Setting(NODE_COMMON, "Save/Document/GenerateThumbnail", false, false));
+      }
+      if (undoSteps != null) {
+        settings.add(new Setting(NODE_COMMON, "Undo/Steps", undoSteps, false));
+      }
+      if (disableAutoSpellChecking == null || disableAutoSpellChecking) {
+        settings.add(new Setting(NODE_LINGUISTIC, "SpellChecking/IsSpellAuto", false, false));
+        settings.add(new Setting(NODE_LINGUISTIC, "GrammarChecking/IsAutoCheck", false, false));
+      }
+      if (graphicCacheSize != null) {
+        // The property has been renamed in LibreOffice 6.4; the one
+        // unknown to the office installation is ignored.
+        settings.add(
+            new Setting(NODE_COMMON, "Cache/GraphicManager/TotalCacheSize", graphicCacheSize, true));
+        settings.add(
+            new Setting(
+                NODE_COMMON, "Cache/GraphicManager/GraphicMemoryLimit", graphicCacheSize, true));
+      }
+      if (disableOpengl != null && disableOpengl) {
+        settings.add(new Setting(NODE_COMMON, PROP_PATH_USE_OPENGL, false, true));
+      }
+      settings.addAll(customSettings);
+      return new OfficePerformanceProfile(settings);
+    }
+
+    /**
+     * Specifies whether the auto recovery (periodic saving of recovery information and autosave)
+     * must be disabled.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: true
+     *
+     * @param disableAutoRecovery {@code true} to disable the auto recovery, {@code false} to leave
+     *     the setting untouched.
+     * @return This builder instance.
+     */
+    public Builder disableAutoRecovery(final Boolean disableAutoRecovery) {
+
+      this.disableAutoRecovery = disableAutoRecovery;
+      return this;
+    }
+
+    /**
+     * Specifies whether the generation of the thumbnail stored within a document must be disabled.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: true
+     *
+     * @param disableThumbnails {@code true} to disable the thumbnail generation, {@code false} to
+     *     leave the setting untouched.
+     * @return This builder instance.
+     */
+    public Builder disableThumbnails(final Boolean disableThumbnails) {
+
+      this.disableThumbnails = disableThumbnails;
+      return this;
+    }
+
+    /**
+     * Specifies the number of operations that can be undone. Filters modifying a document record
+     * undo actions that are never used by a conversion.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 0 (no undo history)
+     *
+     * @param undoSteps The number of undo steps, or {@code null} to leave the setting untouched.
+     * @return This builder instance.
+     */
+    public Builder undoSteps(final Integer undoSteps) {
+
+      if (undoSteps != null) {
+        AssertUtils.isTrue(
+            undoSteps >= 0, String.format("undoSteps %s must greater than or equal to 0", undoSteps));
+      }
+      this.undoSteps = undoSteps;
+      return this;
+    }
+
+    /**
+     * Specifies whether the automatic spell and grammar checking must be disabled.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: true
+     *
+     * @param disableAutoSpellChecking {@code true} to disable the automatic checking, {@code false}
+     *     to leave the settings untouched.
+     * @return This builder instance.
+     */
+    public Builder disableAutoSpellChecking(final Boolean disableAutoSpellChecking) {
+
+      this.disableAutoSpellChecking = disableAutoSpellChecking;
+      return this;
+    }
+
+    /**
+     * Specifies the maximum size of the graphic cache of office. Changing this setting requires a
+     * restart of the office process.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: null (setting untouched)
+     *
+     * @param graphicCacheSize The graphic cache size, in bytes, or {@code null} to leave the
+     *     setting untouched.
+     * @return This builder instance.
+     */
+    public Builder graphicCacheSize(final Integer graphicCacheSize) {
+
+      if (graphicCacheSize != null) {
+        AssertUtils.isTrue(
+            graphicCacheSize > 0,
+            String.format("graphicCacheSize %s must be greater than 0", graphicCacheSize));
+      }
+      this.graphicCacheSize = graphicCacheSize;
+      return this;
+    }
+
+    /**
+     * Specifies whether OpenGL must be disabled. Some files won't load properly if OpenGL is on
+     * (LibreOffice). Changing this setting requires a restart of the office process.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: false
+     *
+     * @param disableOpengl {@code true} to disable OpenGL, {@code false} to leave the setting
+     *     untouched.
+     * @return This builder instance.
+     */
+    public Builder disableOpengl(final Boolean disableOpengl) {
+
+      this.disableOpengl = disableOpengl;
+      return this;
+    }
+
+    /**
+     * Adds a custom setting to the profile.
+     *
+     * @param nodePath The path of the configuration node, e.g. {@code
+     *     /org.openoffice.Office.Common}.
+     * @param propertyPath The hierarchical name of the property within the node, e.g. {@code
+     *     Save/Document/GenerateThumbnail}.
+     * @param value The value of the property.
+     * @param restartRequired Whether the office process must be restarted when the setting is
+     *     changed for the change to take effect.
+     * @return This builder instance.
+     */
+    public Builder setting(
+        final String nodePath,
+        final String propertyPath,
+        final Object value,
+        final boolean restartRequired) {
+
+      AssertUtils.notBlank(nodePath, "nodePath must not be null nor blank");
+      AssertUtils.notBlank(propertyPath, "propertyPath must not be null nor blank");
+      AssertUtils.notNull(value, "value must not be null");
+      customSettings.add(new Setting(nodePath, propertyPath, value, restartRequired));
+      return this;
+    }
+  }
+}
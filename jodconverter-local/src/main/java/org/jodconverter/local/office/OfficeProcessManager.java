@@ -19,18 +19,11 @@
 
 package org.jodconverter.local.office;
 
-import com.sun.star.beans.XHierarchicalPropertySet;
-import com.sun.star.beans.XHierarchicalPropertySetInfo;
 import com.sun.star.frame.XDesktop;
 import com.sun.star.lang.DisposedException;
-import com.sun.star.lang.XComponent;
-import com.sun.star.uno.XComponentContext;
-import com.sun.star.util.XChangesBatch;
 import org.jodconverter.core.office.NamedThreadFactory;
 import org.jodconverter.core.office.OfficeException;
 import org.jodconverter.core.office.RetryTimeoutException;
-import org.jodconverter.local.office.utils.Info;
-import org.jodconverter.local.office.utils.Lo;
 import org.jodconverter.local.process.ProcessManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,16 +54,15 @@ class OfficeProcessManager {
   private static final long DEFAULT_PROCESS_RETRY_INTERVAL = 250L; // 0.25 secs.
   // The default behavior when an office process is started regarding to OpenGL usage.
   private static final boolean DEFAULT_DISABLE_OPENGL = false;
-  // The path to the UseOpenGL configuration property.
-  private static final String PROP_PATH_USE_OPENGL = "VCL/UseOpenGL";
 
   private final OfficeProcess process;
   private final OfficeConnection connection;
   private final ExecutorService executor;
   private final long processTimeout;
   private final long processRetryInterval;
-  private final boolean disableOpengl;
-  // Disconnection is expected when disabling OpenGL (restart required).
+  private final OfficePerformanceProfile performanceProfile;
+  private final TemplateCache templateCache;
+  // Disconnection is expected when applying the performance profile (restart required).
   private final AtomicBoolean disconnectExpected = new AtomicBoolean(false);
 
   /**
@@ -92,6 +84,10 @@ class OfficeProcessManager {
    * @param disableOpengl Indicates whether OpenGL must be disabled when starting a new office
    *     process. Nothing will be done if OpenGL is already disabled according to the user profile
    *     used with the office process. If the options is changed, then office must be restarted.
+   * @param performanceProfile The performance profile to apply when starting a new office process,
+   *     may be null.
+   * @param templateCache The cache of the template documents to preload when a connection is
+   *     established, may be null.
    */
   /* default */ OfficeProcessManager(
       final OfficeUrl officeUrl,
@@ -103,7 +99,9 @@ class OfficeProcessManager {
       final Boolean killExistingProcess,
       final Long processTimeout,
       final Long processRetryInterval,
-      final Boolean disableOpengl) {
+      final Boolean disableOpengl,
+      final OfficePerformanceProfile performanceProfile,
+      final TemplateCache templateCache) {
 
     process =
         new OfficeProcess(
@@ -114,13 +112,20 @@ class OfficeProcessManager {
             runAsArgs,
             templateProfileDir,
             killExistingProcess);
-    connection = new OfficeConnection(officeUrl);
+    connection = new OfficeConnection(officeUrl, templateCache);
     executor =
         Executors.newSingleThreadExecutor(new NamedThreadFactory("jodconverter-officeprocess"));
     this.processTimeout = processTimeout == null ? DEFAULT_PROCESS_TIMEOUT : processTimeout;
     this.processRetryInterval =
         processRetryInterval == null ? DEFAULT_PROCESS_RETRY_INTERVAL : processRetryInterval;
-    this.disableOpengl = disableOpengl == null ? DEFAULT_DISABLE_OPENGL : disableOpengl;
+    // Disabling OpenGL is part of the performance profile.
+    final OfficePerformanceProfile profile =
+        performanceProfile == null ? OfficePerformanceProfile.NONE : performanceProfile;
+    this.performanceProfile =
+        (disableOpengl == null ? DEFAULT_DISABLE_OPENGL : disableOpengl)
+            ? profile.withOpenglDisabled()
+            : profile;
+    this.templateCache = templateCache;
   }
 
   /**
@@ -185,8 +190,8 @@ class OfficeProcessManager {
         new Runnable() {
           public void run() {
             if (disconnectExpected.compareAndSet(true, false)) {
-              LOGGER.debug("Connection lost because OpenGL was changed");
-              // Since we have lost the connection because OpenGL was changed.
+              LOGGER.debug("Connection lost because the performance profile was applied");
+              // Since we have lost the connection because the profile was applied.
               // Thus, we want to keep the instance profile directory on restart.
               OfficeProcessManager.this.ensureProcessExited(false);
               OfficeProcessManager.this.startProcessAndConnect(true, false);
@@ -262,9 +267,10 @@ class OfficeProcessManager {
    * @param restart Indicates whether it is a fresh start or a restart. A restart will assume that
    *     the instance profile directory is already created. To recreate the instance profile
    *     directory, {@code restart} should be set to {@code false}.
-   * @param checkOpengl Indicates whether we must check to change the OpenGL setting.
+   * @param applyProfile Indicates whether we must apply the performance profile, which is done once
+   *     per instance profile directory.
    */
-  private void startProcessAndConnect(final boolean restart, final boolean checkOpengl) {
+  private void startProcessAndConnect(final boolean restart, final boolean applyProfile) {
     LOGGER.debug("Starting the office process with restart set to {}...", restart);
 
     try {
@@ -281,12 +287,13 @@ class OfficeProcessManager {
       new ConnectRetryable(connection, process)
           .execute(DEFAULT_PROCESS_INITIAL_DELAY, processRetryInterval, processTimeout);
 
-      // Here a connection has been made successfully. Check to disable
-      // the usage of OpenGL. Some file won't load properly if OpenGL
-      // is on (LibreOffice).
-      if (checkOpengl && disableOpengl && disableOpengl(connection.getComponentContext())) {
+      // Here a connection has been made successfully. Apply the
+      // performance profile (which may disable the usage of OpenGL).
+      if (applyProfile
+          && !performanceProfile.isEmpty()
+          && performanceProfile.apply(connection.getComponentContext())) {
 
-        LOGGER.info("OpenGL has been disabled and a restart is required; restarting...");
+        LOGGER.info("The performance profile has been applied and a restart is required...");
         // Set disconnectExpected to tru in order to avoid instanceProfileDir deletion.
         disconnectExpected.set(true);
         // This will cause unexpected disconnection and subsequent restart.
@@ -296,6 +303,12 @@ class OfficeProcessManager {
                 process.forciblyTerminate();
               }
             });
+        return;
+      }
+
+      // Load the registered templates while the process is not used yet.
+      if (templateCache != null) {
+        templateCache.preload(connection);
       }
 
     } catch (Exception ex) {
@@ -375,48 +388,4 @@ class OfficeProcessManager {
       }
     }
   }
-
-  private boolean disableOpengl(final XComponentContext officeContext) throws OfficeException {
-
-    // See configuration registry for more options.
-    // e.g: C:\Program Files\LibreOffice 5\share\registry\main.xcd
-
-    try {
-
-      // Create the view to the root element where UseOpenGL option lives
-      final Object viewRoot =
-          Info.getConfigUpdateAccess(officeContext, "/org.openoffice.Office.Common");
-      if (viewRoot == null) {
-        return false; // No restart needed
-      }
-      try {
-
-        // Check if the OpenGL option is on
-        final XHierarchicalPropertySet properties = Lo.qi(XHierarchicalPropertySet.class, viewRoot);
-
-        final XHierarchicalPropertySetInfo propsInfo = properties.getHierarchicalPropertySetInfo();
-        if (propsInfo.hasPropertyByHierarchicalName(PROP_PATH_USE_OPENGL)) {
-          final boolean useOpengl =
-              (Boolean) properties.getHierarchicalPropertyValue(PROP_PATH_USE_OPENGL);
-          LOGGER.info("Use OpenGL is set to {}", useOpengl);
-          if (useOpengl) {
-            properties.setHierarchicalPropertyValue(PROP_PATH_USE_OPENGL, false);
-            // Changes have been applied to the view here
-            final XChangesBatch updateControl = Lo.qi(XChangesBatch.class, viewRoot);
-            updateControl.commitChanges();
-
-            // A restart is required.
-            return true;
-          }
-        }
-      } finally {
-        // We are done with the view - dispose it
-        Lo.qi(XComponent.class, viewRoot).dispose();
-      }
-      return false; // No restart needed
-
-    } catch (com.sun.star.uno.Exception ex) {
-      throw new OfficeException("Could not check if the Use OpenGL option is on.", ex);
-    }
-  }
 }
@@ -80,6 +80,10 @@ class OfficeProcessManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
    * @param disableOpengl Indicates whether OpenGL must be disabled when starting a new office
    *     process. Nothing will be done if OpenGL is already disabled according to the user profile
    *     used with the office process. If the options is changed, then office must be restarted.
+   * @param performanceProfile The performance profile to apply when starting a new office process,
+   *     may be null.
+   * @param templateCache The cache of the template documents to preload when a connection is
+   *     established, may be null.
    */
   /* default */ OfficeProcessManagerPoolEntry(
       final OfficeUrl officeUrl,
@@ -93,7 +97,9 @@ class OfficeProcessManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
       final Long processRetryInterval,
       final Long taskExecutionTimeout,
       final Integer maxTasksPerProcess,
-      final Boolean disableOpengl) {
+      final Boolean disableOpengl,
+      final OfficePerformanceProfile performanceProfile,
+      final TemplateCache templateCache) {
     super(taskExecutionTimeout);
 
     // Create the process manager that will deal with the office instance
@@ -108,7 +114,9 @@ class OfficeProcessManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
             killExistingProcess,
             processTimeout,
             processRetryInterval,
-            disableOpengl);
+            disableOpengl,
+            performanceProfile,
+            templateCache);
 
     this.maxTasksPerProcess =
         maxTasksPerProcess == null ? DEFAULT_MAX_TASKS_PER_PROCESS : maxTasksPerProcess;
@@ -144,7 +152,7 @@ class OfficeProcessManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
               // Here, we didn't expect this disconnection. We must restart
               // the office process, canceling any task that may be running.
               LOGGER.warn("Connection lost unexpectedly; attempting restart");
-              cancelTask();
+              cancelTaskDueToLostConnection();
               officeProcessManager.restartDueToLostConnection();
             }
           }
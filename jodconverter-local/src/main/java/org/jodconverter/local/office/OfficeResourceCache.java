@@ -0,0 +1,257 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.office;
+
+import com.sun.star.beans.PropertyValue;
+import com.sun.star.frame.XComponentLoader;
+import com.sun.star.frame.XStorable;
+import com.sun.star.graphic.XGraphic;
+import com.sun.star.graphic.XGraphicProvider;
+import com.sun.star.lang.XComponent;
+import com.sun.star.util.CloseVetoException;
+import com.sun.star.util.XCloseable;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.core.util.FileUtils;
+import org.jodconverter.local.office.utils.Lo;
+import org.jodconverter.local.office.utils.Props;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.jodconverter.local.office.LocalOfficeUtils.property;
+import static org.jodconverter.local.office.LocalOfficeUtils.toUrl;
+
+/**
+ * Caches the resources that filters load again and again into an office process: the graphics
+ * inserted into documents and the documents inserted into other documents. The resources are
+ * identified by the path, the modification time and the size of their file, so a modified file is
+ * loaded again, replacing the previous version of the file. The cache is cleared when the
+ * connection to the office process is lost, since the cached objects belong to that process.
+ */
+public final class OfficeResourceCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OfficeResourceCache.class);
+
+  // The maximum number of cached resources of each kind; the cache is cleared when reached.
+  private static final int MAX_ENTRIES = 64;
+
+  private final LocalOfficeContext context;
+  // File path -> resource of the cached version of the file.
+  private final Map<String, Entry<XGraphic>> graphics = new HashMap<String, Entry<XGraphic>>();
+  private final Map<String, Entry<File>> insertableDocuments = new HashMap<String, Entry<File>>();
+  private XGraphicProvider graphicProvider;
+
+  /**
+   * Creates a new cache for the office process of the specified context.
+   *
+   * @param context The context of the office process.
+   */
+  /* default */ OfficeResourceCache(final LocalOfficeContext context) {
+    this.context = context;
+  }
+
+  /**
+   * Gets the graphic of the specified image file, loading it only if it is not cached yet.
+   *
+   * @param image The image file.
+   * @return The graphic, embeddable into any document of the office process.
+   * @throws OfficeException If the image cannot be loaded.
+   */
+  public synchronized XGraphic getGraphic(final File image) throws OfficeException {
+
+    final Key key = new Key(image);
+    final Entry<XGraphic> entry = graphics.get(key.path);
+    XGraphic graphic = entry != null && entry.key.equals(key) ? entry.resource : null;
+    if (graphic == null) {
+      if (graphicProvider == null) {
+        graphicProvider =
+            Lo.createInstanceMCF(
+                context.getComponentContext(),
+                XGraphicProvider.class,
+                "com.sun.star.graphic.GraphicProvider");
+        AssertUtils.notNull(graphicProvider, "Could not create the graphic provider");
+      }
+      LOGGER.debug("Loading graphic {}", image);
+      try {
+        graphic =
+            graphicProvider.queryGraphic(
+                Props.makeProperties("URL", toUrl(image), "LoadAsLink", false));
+      } catch (com.sun.star.uno.Exception ex) {
+        throw new OfficeException("Could not load graphic " + image, ex);
+      }
+      AssertUtils.notNull(graphic, "Could not load graphic " + image);
+      if (entry == null && graphics.size() >= MAX_ENTRIES) {
+        graphics.clear();
+      }
+      graphics.put(key.path, new Entry<XGraphic>(key, graphic));
+    }
+    return graphic;
+  }
+
+  /**
+   * Gets a copy of the specified document, stored in the native format of office, to be inserted
+   * into other documents. Inserting the copy only requires the native import filter of office,
+   * whatever the format of the original document (DOCX, DOC, RTF...).
+   *
+   * @param document The document to insert.
+   * @return The copy of the document, or the document itself if it is already in the native format.
+   * @throws OfficeException If the copy cannot be created.
+   */
+  public synchronized File getInsertableDocument(final File document) throws OfficeException {
+
+    final String extension = FileUtils.getExtension(document.getName());
+    if ("odt".equalsIgnoreCase(extension) || "ott".equalsIgnoreCase(extension)) {
+      return document;
+    }
+
+    final Key key = new Key(document);
+    final Entry<File> entry = insertableDocuments.get(key.path);
+    if (entry != null && entry.key.equals(key) && entry.resource.isFile()) {
+      return entry.resource;
+    }
+
+    final File copy = createNativeCopy(document);
+    if (entry != null) {
+      // The copy of the previous version of the document is no longer used.
+      FileUtils.deleteQuietly(entry.resource);
+    } else if (insertableDocuments.size() >= MAX_ENTRIES) {
+      deleteInsertableDocuments();
+    }
+    insertableDocuments.put(key.path, new Entry<File>(key, copy));
+    return copy;
+  }
+
+  private File createNativeCopy(final File document) throws OfficeException {
+
+    final XComponentLoader loader = context.getComponentLoader();
+    AssertUtils.notNull(loader, "Context component loader must not be null");
+
+    LOGGER.debug("Creating an insertable copy of {}", document);
+    File copy = null;
+    XComponent loaded = null;
+    boolean created = false;
+    try {
+      copy = File.createTempFile("insertable", ".odt");
+      loaded =
+          loader.loadComponentFromURL(
+              toUrl(document),
+              "_blank",
+              0,
+              new PropertyValue[] {property("Hidden", true), property("ReadOnly", true)});
+      AssertUtils.notNull(loaded, "Could not load document " + document);
+      Lo.qi(XStorable.class, loaded)
+          .storeToURL(toUrl(copy), new PropertyValue[] {property("FilterName", "writer8")});
+      created = true;
+      return copy;
+    } catch (IOException ex) {
+      throw new OfficeException("Could not create an insertable copy of " + document, ex);
+    } catch (com.sun.star.uno.Exception ex) {
+      throw new OfficeException("Could not create an insertable copy of " + document, ex);
+    } finally {
+      if (loaded != null) {
+        close(loaded);
+      }
+      if (!created && copy != null) {
+        FileUtils.deleteQuietly(copy);
+      }
+    }
+  }
+
+  private static void close(final XComponent document) {
+
+    final XCloseable closeable = Lo.qiOptional(XCloseable.class, document).orNull();
+    if (closeable == null) {
+      document.dispose();
+    } else {
+      try {
+        closeable.close(true);
+      } catch (CloseVetoException ignored) {
+        // whoever raised the veto should close the document
+      }
+    }
+  }
+
+  private void deleteInsertableDocuments() {
+
+    for (final Entry<File> entry : insertableDocuments.values()) {
+      FileUtils.deleteQuietly(entry.resource);
+    }
+    insertableDocuments.clear();
+  }
+
+  /** Removes all the cached resources. */
+  public synchronized void clear() {
+
+    graphics.clear();
+    graphicProvider = null;
+    deleteInsertableDocuments();
+  }
+
+  // A cached resource, along with the version of the file it was loaded from.
+  private static final class Entry<T> {
+
+    private final Key key;
+    private final T resource;
+
+    private Entry(final Key key, final T resource) {
+      this.key = key;
+      this.resource = resource;
+    }
+  }
+
+  // Identifies a version of a file.
+  private static final class Key {
+
+    private final String path;
+    private final long lastModified;
+    private final long length;
+
+    private Key(final File file) {
+      this.path = file.getAbsolutePath();
+      this.lastModified = file.lastModified();
+      this.length = file.length();
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+
+      if (this == object) {
+        return true;
+      }
+      if (!(object instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) object;
+      return lastModified == other.lastModified
+          && length == other.length
+          && path.equals(other.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return path.hashCode() * 31 + (int) (lastModified ^ (lastModified >>> 32));
+    }
+  }
+}
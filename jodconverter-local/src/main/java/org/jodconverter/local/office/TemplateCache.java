@@ -0,0 +1,335 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.office;
+
+import com.sun.star.beans.PropertyValue;
+import com.sun.star.frame.XComponentLoader;
+import com.sun.star.lang.XComponent;
+import com.sun.star.lib.uno.adapter.ByteArrayToXInputStreamAdapter;
+import com.sun.star.util.CloseVetoException;
+import com.sun.star.util.XCloseable;
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.local.office.utils.Lo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.jodconverter.local.office.LocalOfficeUtils.property;
+import static org.jodconverter.local.office.LocalOfficeUtils.toUrl;
+
+/**
+ * Keeps warm copies of registered template documents. A template is loaded from its file (hidden)
+ * once, when an office process is started, and is kept in memory stored in the native format of
+ * office. Each conversion of a registered template then loads a fresh working copy from memory,
+ * which bypasses the file access and the import filter of the template format (DOCX, DOC...), by
+ * far the most expensive part of loading such a template.
+ *
+ * <p>A template is loaded once, even when several conversions use it concurrently, and is reloaded
+ * from its file as soon as the file is modified.
+ */
+public final class TemplateCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TemplateCache.class);
+
+  private final Set<File> templates;
+  // Template file -> warm copy.
+  private final ConcurrentMap<File, Snapshot> snapshots = new ConcurrentHashMap<File, Snapshot>();
+  // Template file -> lock held while the template is loaded, so it is loaded once.
+  private final ConcurrentMap<File, Object> loadLocks = new ConcurrentHashMap<File, Object>();
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private TemplateCache(final Set<File> templates) {
+    this.templates = templates;
+  }
+
+  /**
+   * Gets the registered template files.
+   *
+   * @return An unmodifiable set of the template files.
+   */
+  public Set<File> getTemplates() {
+    return templates;
+  }
+
+  /**
+   * Gets whether the specified file is a registered template.
+   *
+   * @param file The file.
+   * @return {@code true} if the file is a registered template, {@code false} otherwise.
+   */
+  public boolean isTemplate(final File file) {
+    return templates.contains(toKey(file));
+  }
+
+  /**
+   * Loads the registered templates that are not warm yet into memory, using the specified context.
+   * A template that cannot be loaded is ignored; it will be loaded from its file when it is used.
+   *
+   * @param context The context of the office process loading the templates.
+   */
+  /* default */ void preload(final LocalOfficeContext context) {
+
+    for (final File template : templates) {
+      try {
+        getSnapshot(context, template);
+      } catch (OfficeException ex) {
+        LOGGER.warn("Could not preload template {}", template, ex);
+      }
+    }
+  }
+
+  /**
+   * Loads a fresh working copy of the specified template.
+   *
+   * @param context The context of the office process loading the copy.
+   * @param file The template file.
+   * @param loadProperties The properties used to load the copy. The properties specifying the
+   *     import filter are ignored since the copy is loaded from the native format of office.
+   * @return The working copy, or {@code null} if the file is not a registered template.
+   * @throws OfficeException If the copy cannot be loaded.
+   */
+  public XComponent loadCopy(
+      final LocalOfficeContext context, final File file, final PropertyValue[] loadProperties)
+      throws OfficeException {
+
+    if (!isTemplate(file)) {
+      return null;
+    }
+    final Snapshot snapshot = getSnapshot(context, toKey(file));
+
+    final List<PropertyValue> props = new ArrayList<PropertyValue>(loadProperties.length + 1);
+    for (final PropertyValue prop : loadProperties) {
+      if (!"FilterName".equals(prop.Name)
+          && !"FilterOptions".equals(prop.Name)
+          && !"InputStream".equals(prop.Name)) {
+        props.add(prop);
+      }
+    }
+    props.add(property("InputStream", new ByteArrayToXInputStreamAdapter(snapshot.content)));
+
+    LOGGER.debug("Loading a working copy of template {}", file.getName());
+    final XComponent copy =
+        load(context, "private:stream", props.toArray(new PropertyValue[props.size()]));
+    AssertUtils.notNull(copy, "Could not load a working copy of template " + file.getName());
+    return copy;
+  }
+
+  // Gets the warm copy of the specified template, loading it if required. Concurrent
+  // callers wait for the template to be loaded by the first one instead of loading it too.
+  private Snapshot getSnapshot(final LocalOfficeContext context, final File template)
+      throws OfficeException {
+
+    final Snapshot snapshot = snapshots.get(template);
+    if (snapshot != null && snapshot.isCurrent(template)) {
+      return snapshot;
+    }
+
+    Object lock = loadLocks.get(template);
+    if (lock == null) {
+      final Object newLock = new Object();
+      lock = loadLocks.putIfAbsent(template, newLock);
+      if (lock == null) {
+        lock = newLock;
+      }
+    }
+    synchronized (lock) {
+      // The template may have been loaded while waiting for the lock.
+      final Snapshot current = snapshots.get(template);
+      if (current != null && current.isCurrent(template)) {
+        return current;
+      }
+      return loadSnapshot(context, template);
+    }
+  }
+
+  // Loads the warm copy of the specified template from its file.
+  private Snapshot loadSnapshot(final LocalOfficeContext context, final File template)
+      throws OfficeException {
+
+    final long lastModified = template.lastModified();
+    final long length = template.length();
+    final XComponent document =
+        load(
+            context,
+            toUrl(template),
+            new PropertyValue[] {property("Hidden", true), property("ReadOnly", true)});
+    AssertUtils.notNull(document, "Could not load template " + template.getName());
+    try {
+      final Snapshot loaded =
+          new Snapshot(
+              LocalOfficeUtils.storeToMemory(
+                  document,
+                  new PropertyValue[] {
+                    property(
+                        "FilterName",
+                        getNativeFilterName(LocalOfficeUtils.getDocumentFamily(document)))
+                  }),
+              lastModified,
+              length);
+      snapshots.put(template, loaded);
+      LOGGER.info(
+          "Template {} loaded into memory ({} bytes)", template.getName(), loaded.content.length);
+      return loaded;
+
+    } finally {
+      close(document);
+    }
+  }
+
+  private static XComponent load(
+      final LocalOfficeContext context, final String url, final PropertyValue[] props)
+      throws OfficeException {
+
+    final XComponentLoader loader = context.getComponentLoader();
+    AssertUtils.notNull(loader, "Context component loader must not be null");
+    try {
+      return loader.loadComponentFromURL(url, "_blank", 0, props);
+    } catch (com.sun.star.uno.Exception ex) {
+      throw new OfficeException("Could not load document from " + url, ex);
+    }
+  }
+
+  private static void close(final XComponent document) {
+
+    final XCloseable closeable = Lo.qiOptional(XCloseable.class, document).orNull();
+    if (closeable == null) {
+      document.dispose();
+    } else {
+      try {
+        closeable.close(true);
+      } catch (CloseVetoException ignored) {
+        // whoever raised the veto should close the document
+      }
+    }
+  }
+
+  private static String getNativeFilterName(final DocumentFamily family) {
+
+    switch (family) {
+      case SPREADSHEET:
+        return "calc8";
+      case PRESENTATION:
+        return "impress8";
+      case DRAWING:
+        return "draw8";
+      default:
+        return "writer8";
+    }
+  }
+
+  private static File toKey(final File file) {
+
+    try {
+      return file.getCanonicalFile();
+    } catch (IOException ex) {
+      return file.getAbsoluteFile();
+    }
+  }
+
+  // The content of a template stored in the native format of office.
+  private static final class Snapshot {
+
+    private final byte[] content;
+    private final long lastModified;
+    private final long length;
+
+    private Snapshot(final byte[] content, final long lastModified, final long length) {
+      this.content = content;
+      this.lastModified = lastModified;
+      this.length = length;
+    }
+
+    private boolean isCurrent(final File file) {
+      return file.lastModified() == lastModified && file.length() == length;
+    }
+  }
+
+  /**
+   * A builder for constructing a {@link TemplateCache}.
+   *
+   * @see TemplateCache
+   */
+  public static final class Builder {
+
+    private final Set<File> templates = new LinkedHashSet<File>();
+
+    // Private constructor so only TemplateCache can create an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the cache that is specified by this builder.
+     *
+     * @return The cache that is specified by this builder.
+     */
+    public TemplateCache build() {
+      return new TemplateCache(Collections.unmodifiableSet(new LinkedHashSet<File>(templates)));
+    }
+
+    /**
+     * Registers a template document.
+     *
+     * @param template The template file.
+     * @return This builder instance.
+     */
+    public Builder template(final File template) {
+
+      AssertUtils.notNull(template, "template must not be null");
+      AssertUtils.isTrue(
+          template.isFile(), String.format("template %s must be an existing file", template));
+      templates.add(toKey(template));
+      return this;
+    }
+
+    /**
+     * Registers all the specified template documents.
+     *
+     * @param templates The template files.
+     * @return This builder instance.
+     */
+    public Builder templates(final File... templates) {
+
+      for (final File template : templates) {
+        template(template);
+      }
+      return this;
+    }
+  }
+}
@@ -19,6 +19,7 @@
 
 package org.jodconverter.local.task;
 
+import com.sun.star.beans.PropertyValue;
 import com.sun.star.frame.XComponentLoader;
 import com.sun.star.io.IOException;
 import com.sun.star.lang.IllegalArgumentException;
@@ -32,13 +33,16 @@ import org.jodconverter.core.task.AbstractOfficeTask;
 import org.jodconverter.core.util.AssertUtils;
 import org.jodconverter.local.LocalConverter;
 import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.LocalOfficeUtils;
+import org.jodconverter.local.office.TemplateCache;
 import org.jodconverter.local.office.utils.Lo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
 
-import static org.jodconverter.local.office.LocalOfficeUtils.toUnoProperties;
 import static org.jodconverter.local.office.LocalOfficeUtils.toUrl;
 
 /**
@@ -48,7 +52,10 @@ import static org.jodconverter.local.office.LocalOfficeUtils.toUrl;
  */
 public abstract class AbstractLocalOfficeTask extends AbstractOfficeTask {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(AbstractLocalOfficeTask.class);
+
   private static final String ERROR_MESSAGE_LOAD = "Could not open document: ";
+  private static final String FILTER_NAME = "FilterName";
   protected final Map<String, Object> loadProperties;
 
   protected static void appendProperties(
@@ -105,14 +112,50 @@ public abstract class AbstractLocalOfficeTask extends AbstractOfficeTask {
     final XComponentLoader loader = context.getComponentLoader();
     AssertUtils.notNull(loader, "Context component loader must not be null");
 
-    try {
-      final XComponent document =
-          loader.loadComponentFromURL(
-              toUrl(sourceFile), "_blank", 0, toUnoProperties(getLoadProperties()));
+    // The UNO properties are shared by the conversions loading documents with the same properties.
+    final PropertyValue[] loadProps = ConversionRouteCache.getLoadProperties(getLoadProperties());
+
+    // A registered template is loaded from its warm copy, without parsing the template file.
+    final TemplateCache templateCache = LocalOfficeUtils.getTemplateCache(context);
+    if (templateCache != null && templateCache.isTemplate(sourceFile)) {
+      return templateCache.loadCopy(context, sourceFile, loadProps);
+    }
+
+    // When the import filter of the source format is known, office does not
+    // have to detect the type of the document, unless the filter fails to load it.
+    if (source.getFormat() != null
+        && source.getFormat().getImportFilterName() != null
+        && !ConversionRouteCache.contains(loadProps, FILTER_NAME)) {
+      final String filterName = source.getFormat().getImportFilterName();
+      try {
+        final XComponent document =
+            loadDocument(
+                loader, sourceFile, ConversionRouteCache.with(loadProps, FILTER_NAME, filterName));
+        if (document != null) {
+          return document;
+        }
+      } catch (OfficeException ex) {
+        LOGGER.debug(
+            "Could not open document {} using filter '{}', falling back to type detection",
+            sourceFile.getName(),
+            filterName,
+            ex);
+      }
+    }
+
+    final XComponent document = loadDocument(loader, sourceFile, loadProps);
+
+    // The document cannot be null
+    AssertUtils.notNull(document, ERROR_MESSAGE_LOAD + sourceFile.getName());
+    return document;
+  }
 
-      // The document cannot be null
-      AssertUtils.notNull(document, ERROR_MESSAGE_LOAD + sourceFile.getName());
-      return document;
+  private static XComponent loadDocument(
+      final XComponentLoader loader, final File sourceFile, final PropertyValue[] loadProps)
+      throws OfficeException {
+
+    try {
+      return loader.loadComponentFromURL(toUrl(sourceFile), "_blank", 0, loadProps);
 
     } catch (ErrorCodeIOException exception) {
       throw new OfficeException(
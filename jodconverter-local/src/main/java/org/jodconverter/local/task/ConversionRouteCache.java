@@ -0,0 +1,260 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.task;
+
+import com.sun.star.beans.PropertyValue;
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.document.DocumentFormat;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.jodconverter.local.office.LocalOfficeUtils.property;
+import static org.jodconverter.local.office.LocalOfficeUtils.toUnoProperties;
+
+/**
+ * Caches, by conversion route, the UNO properties used to load and store documents. Building these
+ * properties requires merging the converter-level properties with the properties of the document
+ * formats, and converting the result into {@code PropertyValue} arrays, which gives the same result
+ * for every conversion between the same formats, using the same converter.
+ *
+ * <p>A route is identified by the values of the properties it is built from, not by the document
+ * formats themselves, so formats created for each conversion with the same properties share the
+ * same route. The properties are snapshotted when a route is cached, so they may safely be changed
+ * between two conversions.
+ *
+ * <p>The cached arrays are shared and must not be modified. A property that is specific to a
+ * single conversion must be applied on a copy, see {@link #with(PropertyValue[], String, Object)}.
+ */
+final class ConversionRouteCache {
+
+  // The maximum number of routes kept by cache before it is cleared.
+  private static final int MAX_ROUTES = 256;
+  // The value cached for the routes that cannot be stored (no store filter).
+  private static final PropertyValue[] UNSUPPORTED = new PropertyValue[0];
+  private static final String FILTER_NAME = "FilterName";
+  private static final String FILTER_DATA = "FilterData";
+
+  private static final ConcurrentMap<RouteKey, PropertyValue[]> LOAD_ROUTES =
+      new ConcurrentHashMap<RouteKey, PropertyValue[]>();
+  private static final ConcurrentMap<RouteKey, PropertyValue[]> STORE_ROUTES =
+      new ConcurrentHashMap<RouteKey, PropertyValue[]>();
+
+  /** The key of a route. The format and converter-level properties are compared by value. */
+  private static final class RouteKey {
+
+    private final Map<String, Object> formatProperties;
+    private final Map<String, Object> properties;
+    private final int hash;
+
+    private RouteKey(
+        final Map<String, Object> formatProperties, final Map<String, Object> properties) {
+
+      this.formatProperties = formatProperties;
+      this.properties = properties;
+      this.hash =
+          31 * (formatProperties == null ? 0 : formatProperties.hashCode())
+              + (properties == null ? 0 : properties.hashCode());
+    }
+
+    // Creates a key holding a snapshot of the properties, so it can be stored in a cache.
+    private RouteKey snapshot() {
+      return new RouteKey(copy(formatProperties), copy(properties));
+    }
+
+    private static Map<String, Object> copy(final Map<String, Object> properties) {
+      return properties == null ? null : new HashMap<String, Object>(properties);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof RouteKey)) {
+        return false;
+      }
+      final RouteKey other = (RouteKey) obj;
+      return hash == other.hash
+          && equals(formatProperties, other.formatProperties)
+          && equals(properties, other.properties);
+    }
+
+    private static boolean equals(final Map<String, Object> map, final Map<String, Object> other) {
+      return map == null ? other == null : map.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /**
+   * Gets the UNO properties to apply when loading a document with the specified properties.
+   *
+   * @param loadProperties The load properties, merged with the load properties of the format of the
+   *     document to load.
+   * @return The load properties, which must not be modified.
+   */
+  /* default */ static PropertyValue[] getLoadProperties(final Map<String, Object> loadProperties) {
+
+    final RouteKey key = new RouteKey(loadProperties, null);
+    PropertyValue[] props = LOAD_ROUTES.get(key);
+    if (props == null) {
+      props = toUnoProperties(loadProperties);
+      put(LOAD_ROUTES, key, props);
+    }
+    return props;
+  }
+
+  /**
+   * Gets the properties to apply when storing a document of the specified family to the specified
+   * format.
+   *
+   * @param targetFormat The format of the document to store.
+   * @param family The family of the document to store.
+   * @param storeProperties The converter-level store properties, may be null. These properties are
+   *     applied after the store properties of the target format.
+   * @return The store properties, which must not be modified, or null if the document cannot be
+   *     stored to the target format.
+   */
+  /* default */ static PropertyValue[] getStoreProperties(
+      final DocumentFormat targetFormat,
+      final DocumentFamily family,
+      final Map<String, Object> storeProperties) {
+
+    final Map<String, Object> formatProps = targetFormat.getStoreProperties(family);
+    final RouteKey key = new RouteKey(formatProps, storeProperties);
+    PropertyValue[] props = STORE_ROUTES.get(key);
+    if (props == null) {
+      props = createStoreProperties(formatProps, storeProperties);
+      put(STORE_ROUTES, key, props);
+    }
+    return toSupported(props);
+  }
+
+  /**
+   * Gets whether the specified properties contain a property with the specified name.
+   *
+   * @param properties The properties.
+   * @param name The property name.
+   * @return {@code true} if the property is found, {@code false} otherwise.
+   */
+  /* default */ static boolean contains(final PropertyValue[] properties, final String name) {
+
+    for (final PropertyValue prop : properties) {
+      if (name.equals(prop.Name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Creates a copy of the specified properties in which the property with the specified name is
+   * set to the specified value.
+   *
+   * @param properties The properties to copy, which are not modified.
+   * @param name The property name.
+   * @param value The property value.
+   * @return The new properties.
+   */
+  /* default */ static PropertyValue[] with(
+      final PropertyValue[] properties, final String name, final Object value) {
+
+    for (int i = 0; i < properties.length; i++) {
+      if (name.equals(properties[i].Name)) {
+        final PropertyValue[] props = properties.clone();
+        props[i] = property(name, value);
+        return props;
+      }
+    }
+    final PropertyValue[] props = Arrays.copyOf(properties, properties.length + 1);
+    props[properties.length] = property(name, value);
+    return props;
+  }
+
+  /**
+   * Creates a copy of the specified properties in which the specified properties are merged into
+   * the {@code FilterData} property.
+   *
+   * @param properties The properties to copy, which are not modified.
+   * @param filterData The filter data properties to merge, which override the existing ones.
+   * @return The new properties, or the specified ones if there is no filter data to merge.
+   */
+  /* default */ static PropertyValue[] withFilterData(
+      final PropertyValue[] properties, final Map<String, Object> filterData) {
+
+    if (filterData.isEmpty()) {
+      return properties;
+    }
+
+    // Preserve the order of the existing filter data, then append the new properties.
+    final Map<String, Object> mergedData = new LinkedHashMap<String, Object>();
+    for (final PropertyValue prop : properties) {
+      if (FILTER_DATA.equals(prop.Name) && prop.Value instanceof PropertyValue[]) {
+        for (final PropertyValue dataProp : (PropertyValue[]) prop.Value) {
+          mergedData.put(dataProp.Name, dataProp.Value);
+        }
+      }
+    }
+    mergedData.putAll(filterData);
+    return with(properties, FILTER_DATA, toUnoProperties(mergedData));
+  }
+
+  private static PropertyValue[] createStoreProperties(
+      final Map<String, Object> formatProperties, final Map<String, Object> storeProperties) {
+
+    final Map<String, Object> storeProps = new HashMap<String, Object>();
+    AbstractLocalOfficeTask.appendProperties(storeProps, formatProperties);
+    AbstractLocalOfficeTask.appendProperties(storeProps, storeProperties);
+
+    // FilterName must be specify.
+    return storeProps.containsKey(FILTER_NAME) ? toUnoProperties(storeProps) : UNSUPPORTED;
+  }
+
+  private static PropertyValue[] toSupported(final PropertyValue[] props) {
+    return props == UNSUPPORTED ? null : props; // NOPMD - Identity comparison wanted
+  }
+
+  private static void put(
+      final ConcurrentMap<RouteKey, PropertyValue[]> routes,
+      final RouteKey key,
+      final PropertyValue[] props) {
+
+    // Routes are few in practice; a cache growing that much means the properties keep changing,
+    // in which case starting over is as good as anything else.
+    if (routes.size() >= MAX_ROUTES) {
+      routes.clear();
+    }
+    routes.put(key.snapshot(), props);
+  }
+
+  // Suppresses default constructor, ensuring non-instantiability.
+  private ConversionRouteCache() {
+    throw new AssertionError("Utility class must not be instantiated");
+  }
+}
@@ -21,6 +21,7 @@ package org.jodconverter.local.task;
 
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
+import com.sun.star.beans.PropertyValue;
 import com.sun.star.frame.XStorable;
 import com.sun.star.io.IOException;
 import com.sun.star.lang.XComponent;
@@ -30,24 +31,26 @@ import org.jodconverter.core.job.SourceDocumentSpecs;
 import org.jodconverter.core.job.TargetDocumentSpecs;
 import org.jodconverter.core.office.OfficeContext;
 import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.task.ConversionTask;
 import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.local.LocalConverter;
+import org.jodconverter.local.filter.AbstractFilterChain;
+import org.jodconverter.local.filter.Filter;
 import org.jodconverter.local.filter.FilterChain;
+import org.jodconverter.local.filter.NoopFilter;
 import org.jodconverter.local.filter.RefreshFilter;
+import org.jodconverter.local.office.DocumentHandle;
 import org.jodconverter.local.office.LocalOfficeContext;
-import org.jodconverter.local.office.LocalOfficeUtils;
-import org.jodconverter.local.office.utils.Lo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.util.HashMap;
 import java.util.Map;
 
-import static org.jodconverter.local.office.LocalOfficeUtils.toUnoProperties;
 import static org.jodconverter.local.office.LocalOfficeUtils.toUrl;
 
 /** Represents the default behavior for a local conversion task. */
-public class LocalConversionTask extends AbstractLocalOfficeTask {
+public class LocalConversionTask extends AbstractLocalOfficeTask implements ConversionTask {
 
   private static final String ERROR_MESSAGE_STORE = "Could not store document: ";
 
@@ -56,6 +59,8 @@ public class LocalConversionTask extends AbstractLocalOfficeTask {
   private final TargetDocumentSpecs target;
   private final FilterChain filterChain;
   private final Map<String, Object> storeProperties;
+  // The handle of the document being converted, shared by the filters and the store.
+  private DocumentHandle currentHandle;
 
   /**
    * Creates a new conversion task from a specified source to a specified target.
@@ -79,11 +84,8 @@ public class LocalConversionTask extends AbstractLocalOfficeTask {
     super(source, loadProperties);
 
     this.target = target;
-    if (filterChain == null) {
-      this.filterChain = RefreshFilter.CHAIN;
-    } else {
-      this.filterChain = filterChain.copy();
-    }
+    // A chain holds no state about the documents it filters, so it can be shared by the tasks.
+    this.filterChain = filterChain == null ? RefreshFilter.CONDITIONAL_CHAIN : filterChain;
     this.storeProperties = storeProperties;
   }
 
@@ -135,6 +137,10 @@ public class LocalConversionTask extends AbstractLocalOfficeTask {
       XComponent document = null;
       try {
         document = loadDocument(localContext, sourceFile);
+
+        // The handle is shared by the filters and the store, so each
+        // query to the document is made once during the conversion.
+        currentHandle = createHandle(document);
         modifyDocument(context, document);
         storeDocument(document, targetFile);
 
@@ -153,6 +159,7 @@ public class LocalConversionTask extends AbstractLocalOfficeTask {
         target.onFailure(targetFile, officeEx);
         throw officeEx;
       } finally {
+        currentHandle = null;
         closeDocument(document);
       }
 
@@ -164,18 +171,66 @@ public class LocalConversionTask extends AbstractLocalOfficeTask {
     }
   }
 
+  @Override
+  public TargetDocumentSpecs getTarget() {
+    return target;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>A local conversion task is portable if it uses neither custom load/store properties nor
+   * filters modifying the document, since filters can only be applied locally.
+   */
+  @Override
+  public boolean isPortable() {
+
+    if (loadProperties != null && !loadProperties.equals(LocalConverter.DEFAULT_LOAD_PROPERTIES)
+        || storeProperties != null && !storeProperties.isEmpty()) {
+      return false;
+    }
+    if (!(filterChain instanceof AbstractFilterChain)) {
+      return false;
+    }
+    for (final Filter filter : ((AbstractFilterChain) filterChain).getFilters()) {
+      if (!(filter instanceof RefreshFilter) && !(filter instanceof NoopFilter)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   // Gets the office properties to apply when the converted
   // document will be saved as the output file.
-  private Map<String, Object> getStoreProperties(final XComponent document) throws OfficeException {
+  private PropertyValue[] getStoreProperties(final DocumentHandle document)
+      throws OfficeException {
     AssertUtils.notNull(target.getFormat(), "Target format must not be null");
 
-    final Map<String, Object> storeProps = new HashMap<String, Object>();
-    appendProperties(
-        storeProps,
-        target.getFormat().getStoreProperties(LocalOfficeUtils.getDocumentFamily(document)));
-    appendProperties(storeProps, storeProperties);
+    final PropertyValue[] storeProps =
+        ConversionRouteCache.getStoreProperties(
+            target.getFormat(), document.getFamily(), storeProperties);
+
+    // Apply the changes requested by the filters, if any.
+    return storeProps == null
+        ? null
+        : ConversionRouteCache.withFilterData(storeProps, document.getStoreFilterData());
+  }
+
+  // Creates the handle of the loaded document.
+  private DocumentHandle createHandle(final XComponent document) {
 
-    return storeProps;
+    return new DocumentHandle(
+        document,
+        source.getFormat() == null ? null : source.getFormat().getInputFamily(),
+        target.getFormat());
+  }
+
+  // Gets the handle of the specified document, which is the handle shared during
+  // the conversion unless another document is passed by a subclass.
+  private DocumentHandle getHandle(final XComponent document) {
+
+    final DocumentHandle handle = currentHandle;
+    return handle != null && handle.getComponent() == document ? handle : createHandle(document);
   }
 
   // Modifies the document after it has been loaded and before
@@ -183,20 +238,57 @@ public class LocalConversionTask extends AbstractLocalOfficeTask {
   protected void modifyDocument(final OfficeContext context, final XComponent document)
       throws OfficeException {
 
-    filterChain.doFilter(context, document);
+    modifyDocument(context, getHandle(document));
+  }
+
+  /**
+   * Modifies the document after it has been loaded and before it gets saved in the new format,
+   * using the handle shared by the filters and the store during the conversion.
+   *
+   * @param context The context of the office process.
+   * @param document The handle of the document.
+   * @throws OfficeException If the document cannot be modified.
+   */
+  protected void modifyDocument(final OfficeContext context, final DocumentHandle document)
+      throws OfficeException {
+
+    if (filterChain instanceof AbstractFilterChain) {
+      ((AbstractFilterChain) filterChain).doFilter(context, document);
+    } else {
+      // Such a chain may keep the position of the next filter to invoke, so every
+      // execution (the task may be executed again after a failure) must start over
+      // with a fresh copy of the chain.
+      filterChain.copy().doFilter(context, document.getComponent());
+    }
   }
 
   // Stores the converted document as the output file.
   protected void storeDocument(final XComponent document, final File targetFile)
       throws OfficeException {
 
-    final Map<String, Object> storeProps = getStoreProperties(document);
+    storeDocument(getHandle(document), targetFile);
+  }
+
+  /**
+   * Stores the converted document as the output file, applying the store filter data collected by
+   * the filters on the handle shared during the conversion.
+   *
+   * @param document The handle of the document.
+   * @param targetFile The output file.
+   * @throws OfficeException If the document cannot be stored.
+   */
+  protected void storeDocument(final DocumentHandle document, final File targetFile)
+      throws OfficeException {
+
+    final PropertyValue[] storeProps = getStoreProperties(document);
 
     // FilterName must be specify.
-    AssertUtils.isTrue(storeProps.containsKey("FilterName"), "Unsupported conversion");
+    AssertUtils.isTrue(storeProps != null, "Unsupported conversion");
 
     try {
-      Lo.qi(XStorable.class, document).storeToURL(toUrl(targetFile), toUnoProperties(storeProps));
+      final XStorable storable = document.getStorable();
+      AssertUtils.notNull(storable, "Document cannot be stored");
+      storable.storeToURL(toUrl(targetFile), storeProps);
     } catch (ErrorCodeIOException errorCodeIoEx) {
       throw new OfficeException(
           ERROR_MESSAGE_STORE + targetFile.getName() + "; errorCode: " + errorCodeIoEx.ErrCode,
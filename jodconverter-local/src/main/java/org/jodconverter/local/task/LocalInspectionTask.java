@@ -0,0 +1,184 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.task;
+
+import com.sun.star.beans.NamedValue;
+import com.sun.star.document.XDocumentProperties;
+import com.sun.star.document.XDocumentPropertiesSupplier;
+import com.sun.star.drawing.XDrawPagesSupplier;
+import com.sun.star.lang.XComponent;
+import com.sun.star.sheet.XSpreadsheetDocument;
+import com.sun.star.util.DateTime;
+import org.jodconverter.core.document.DocumentMetadata;
+import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.local.office.DocumentHandle;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.utils.Lo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * A task that reads the statistics and the core metadata of a document without converting it. The
+ * statistics are the ones stored within the document, and the sheets or draw pages are counted
+ * from the document model, so the document is never laid out.
+ */
+public class LocalInspectionTask extends AbstractLocalOfficeTask {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LocalInspectionTask.class);
+
+  private DocumentMetadata metadata;
+
+  /**
+   * Creates a new inspection task for the specified source document.
+   *
+   * @param source The source specifications of the document.
+   */
+  public LocalInspectionTask(final SourceDocumentSpecs source) {
+    super(source);
+  }
+
+  @Override
+  public void execute(final OfficeContext context) throws OfficeException {
+
+    LOGGER.info("Executing local inspection task...");
+    final LocalOfficeContext localContext = (LocalOfficeContext) context;
+
+    final File sourceFile = source.getFile();
+    try {
+      XComponent document = null;
+      try {
+        document = loadDocument(localContext, sourceFile);
+        metadata =
+            readMetadata(
+                new DocumentHandle(
+                    document,
+                    source.getFormat() == null ? null : source.getFormat().getInputFamily()));
+
+      } catch (OfficeException officeEx) {
+        throw officeEx;
+      } catch (Exception ex) {
+        throw new OfficeException("Local inspection failed", ex);
+      } finally {
+        closeDocument(document);
+      }
+
+    } finally {
+      source.onConsumed(sourceFile);
+    }
+  }
+
+  /**
+   * Gets the metadata read by this task.
+   *
+   * @return The metadata, or {@code null} if the task has not been executed successfully.
+   */
+  public DocumentMetadata getMetadata() {
+    return metadata;
+  }
+
+  private static DocumentMetadata readMetadata(final DocumentHandle document) {
+
+    final DocumentMetadata.Builder builder = DocumentMetadata.builder();
+
+    final XDocumentPropertiesSupplier supplier =
+        Lo.qiOptional(XDocumentPropertiesSupplier.class, document.getComponent()).orNull();
+    if (supplier != null) {
+      final XDocumentProperties props = supplier.getDocumentProperties();
+      for (final NamedValue stat : props.getDocumentStatistics()) {
+        applyStatistic(builder, stat.Name, stat.Value);
+      }
+      builder
+          .title(emptyToNull(props.getTitle()))
+          .subject(emptyToNull(props.getSubject()))
+          .description(emptyToNull(props.getDescription()))
+          .author(emptyToNull(props.getAuthor()))
+          .creationDate(toDate(props.getCreationDate()))
+          .modificationDate(toDate(props.getModificationDate()));
+      for (final String keyword : props.getKeywords()) {
+        builder.keyword(keyword);
+      }
+    }
+
+    // Count the sheets and draw pages from the model, which is accurate and requires no layout.
+    if (document.isCalc()) {
+      final XSpreadsheetDocument calcDoc = document.getSpreadsheetDocument();
+      builder.pageCount(null).sheetCount(calcDoc.getSheets().getElementNames().length);
+    } else if (document.isImpress() || document.isDraw()) {
+      final XDrawPagesSupplier drawPagesSupplier = document.getDrawPagesSupplier();
+      builder.pageCount(drawPagesSupplier.getDrawPages().getCount());
+    }
+    return builder.build();
+  }
+
+  private static void applyStatistic(
+      final DocumentMetadata.Builder builder, final String name, final Object value) {
+
+    if (!(value instanceof Integer)) {
+      return;
+    }
+    final Integer count = (Integer) value;
+    if ("PageCount".equals(name)) {
+      builder.pageCount(count);
+    } else if ("WordCount".equals(name)) {
+      builder.wordCount(count);
+    } else if ("CharacterCount".equals(name)) {
+      builder.characterCount(count);
+    } else if ("ParagraphCount".equals(name)) {
+      builder.paragraphCount(count);
+    } else if ("TableCount".equals(name)) {
+      builder.tableCount(count);
+    } else if ("ImageCount".equals(name)) {
+      builder.imageCount(count);
+    }
+  }
+
+  private static String emptyToNull(final String value) {
+    return value == null || value.length() == 0 ? null : value;
+  }
+
+  private static Date toDate(final DateTime dateTime) {
+
+    if (dateTime == null || dateTime.Year == 0) {
+      return null;
+    }
+    final Calendar calendar = Calendar.getInstance();
+    calendar.clear();
+    calendar.set(
+        dateTime.Year,
+        dateTime.Month - 1,
+        dateTime.Day,
+        dateTime.Hours,
+        dateTime.Minutes,
+        dateTime.Seconds);
+    calendar.set(Calendar.MILLISECOND, dateTime.HundredthSeconds * 10);
+    return calendar.getTime();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "{" + "source=" + source + '}';
+  }
+}
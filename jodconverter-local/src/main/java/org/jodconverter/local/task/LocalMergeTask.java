@@ -0,0 +1,239 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jodconverter.local.task;
+
+import com.sun.star.beans.PropertyValue;
+import com.sun.star.lang.XComponent;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.util.AssertUtils;
+import org.jodconverter.local.filter.DefaultFilterChain;
+import org.jodconverter.local.filter.text.TextReplacerFilter;
+import org.jodconverter.local.office.DocumentHandle;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.LocalOfficeUtils;
+import org.jodconverter.local.office.TemplateCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.jodconverter.local.office.LocalOfficeUtils.property;
+
+/**
+ * A task that merges a template document with a list of records, producing one document per
+ * record. Each record is merged into a pristine copy of the template loaded from a {@link
+ * TemplateCache}, which keeps the template warm in memory, stored in the native format of office.
+ * The placeholders of a record are replaced in a single pass (see {@link TextReplacerFilter}).
+ *
+ * <p>The merged documents are handed to a {@link MergeSink} as soon as they are stored, and each
+ * of them is handed to the sink only once: if the task is executed again (for example when it is
+ * retried after an office crash or a timeout), it only merges the records not handed to the sink
+ * yet, even if a previous execution is still running.
+ */
+public class LocalMergeTask extends AbstractLocalOfficeTask {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LocalMergeTask.class);
+
+  // The states of a record.
+  private static final int PENDING = 0;
+  private static final int DELIVERING = 1;
+  private static final int DELIVERED = 2;
+
+  private final TemplateCache templateCache;
+  private final DocumentFormat targetFormat;
+  private final List<Map<String, String>> records;
+  private final int firstIndex;
+  private final MergeSink sink;
+  private final Map<String, Object> storeProperties;
+  // The state of each record, guarded by this task.
+  private final int[] states;
+
+  /**
+   * Creates a new merge task.
+   *
+   * @param template The source specifications of the template document.
+   * @param templateCache The cache keeping the template warm. The template must be registered in
+   *     this cache.
+   * @param targetFormat The format of the merged documents.
+   * @param records The records to merge, each mapping the placeholders to their value.
+   * @param firstIndex The index of the first record, passed to the sink, when the records are a
+   *     chunk of a larger list.
+   * @param sink The sink receiving the merged documents.
+   * @param storeProperties The store properties to be applied when storing the merged documents,
+   *     may be null.
+   */
+  public LocalMergeTask(
+      final SourceDocumentSpecs template,
+      final TemplateCache templateCache,
+      final DocumentFormat targetFormat,
+      final List<Map<String, String>> records,
+      final int firstIndex,
+      final MergeSink sink,
+      final Map<String, Object> storeProperties) {
+    super(template);
+
+    AssertUtils.notNull(templateCache, "templateCache must not be null");
+    AssertUtils.isTrue(
+        templateCache.isTemplate(template.getFile()),
+        String.format("template %s must be registered in the cache", template.getFile()));
+    AssertUtils.notNull(targetFormat, "targetFormat must not be null");
+    AssertUtils.notNull(records, "records must not be null");
+    AssertUtils.notNull(sink, "sink must not be null");
+    this.templateCache = templateCache;
+    this.targetFormat = targetFormat;
+    this.records = new ArrayList<Map<String, String>>(records);
+    this.firstIndex = firstIndex;
+    this.sink = sink;
+    this.storeProperties = storeProperties;
+    this.states = new int[records.size()];
+  }
+
+  @Override
+  public void execute(final OfficeContext context) throws OfficeException {
+
+    LOGGER.info("Executing local merge task [{} records]...", records.size());
+    final LocalOfficeContext localContext = (LocalOfficeContext) context;
+
+    final File templateFile = source.getFile();
+    try {
+      for (int i = 0; i < records.size(); i++) {
+        if (!isDelivered(i)) {
+          merge(localContext, templateFile, i);
+        }
+      }
+    } finally {
+      source.onConsumed(templateFile);
+    }
+  }
+
+  // Merges a record into a pristine copy of the template and hands the result to the sink.
+  private void merge(final LocalOfficeContext context, final File templateFile, final int index)
+      throws OfficeException {
+
+    final Map<String, String> record = records.get(index);
+    XComponent document = null;
+    try {
+      document =
+          templateCache.loadCopy(
+              context, templateFile, new PropertyValue[] {property("Hidden", true)});
+
+      final DocumentHandle handle =
+          new DocumentHandle(
+              document,
+              source.getFormat() == null ? null : source.getFormat().getInputFamily(),
+              targetFormat);
+      if (!record.isEmpty()) {
+        final String[] searchList = record.keySet().toArray(new String[record.size()]);
+        final String[] replacementList = new String[searchList.length];
+        for (int i = 0; i < searchList.length; i++) {
+          final String value = record.get(searchList[i]);
+          replacementList[i] = value == null ? "" : value;
+        }
+        new DefaultFilterChain(false, new TextReplacerFilter(searchList, replacementList, true))
+            .doFilter(context, handle);
+      }
+
+      final PropertyValue[] storeProps =
+          ConversionRouteCache.getStoreProperties(
+              targetFormat, handle.getFamily(), storeProperties);
+      AssertUtils.isTrue(storeProps != null, "Unsupported conversion");
+      deliver(
+          index,
+          LocalOfficeUtils.storeToMemory(
+              document,
+              ConversionRouteCache.withFilterData(storeProps, handle.getStoreFilterData())));
+
+    } catch (OfficeException officeEx) {
+      throw officeEx;
+    } catch (Exception ex) {
+      throw new OfficeException("Could not merge record " + (firstIndex + index), ex);
+    } finally {
+      closeDocument(document);
+    }
+  }
+
+  // Hands a merged document to the sink, unless another execution already did.
+  private void deliver(final int index, final byte[] content) throws OfficeException {
+
+    if (!claim(index)) {
+      LOGGER.debug("Record {} already merged, skipping it", firstIndex + index);
+      return;
+    }
+    boolean delivered = false;
+    try {
+      sink.accept(firstIndex + index, content);
+      delivered = true;
+    } catch (IOException ex) {
+      throw new OfficeException(
+          "The sink could not accept merged document " + (firstIndex + index), ex);
+    } finally {
+      complete(index, delivered);
+    }
+  }
+
+  private synchronized boolean isDelivered(final int index) {
+    return states[index] == DELIVERED;
+  }
+
+  // Claims the delivery of a record, waiting for a concurrent delivery of the same record.
+  private synchronized boolean claim(final int index) throws OfficeException {
+
+    while (states[index] == DELIVERING) {
+      try {
+        wait();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new OfficeException("Interrupted while merging record " + (firstIndex + index), ex);
+      }
+    }
+    if (states[index] == DELIVERED) {
+      return false;
+    }
+    states[index] = DELIVERING;
+    return true;
+  }
+
+  private synchronized void complete(final int index, final boolean delivered) {
+
+    states[index] = delivered ? DELIVERED : PENDING;
+    notifyAll();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "template="
+        + source
+        + ", targetFormat="
+        + targetFormat.getExtension()
+        + ", records="
+        + records.size()
+        + ", firstIndex="
+        + firstIndex
+        + '}';
+  }
+}
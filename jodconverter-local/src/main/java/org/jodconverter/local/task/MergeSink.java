@@ -0,0 +1,40 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.local.task;
+
+import java.io.IOException;
+
+/**
+ * Receives the documents produced by a {@link LocalMergeTask}, as soon as each of them is merged.
+ * A document is accepted only once per index, even if its task is retried. When the records are
+ * merged in parallel by several office processes, a sink is called concurrently by several threads
+ * and must therefore be thread-safe.
+ */
+public interface MergeSink {
+
+  /**
+   * Accepts a merged document.
+   *
+   * @param index The index of the record from which the document has been merged.
+   * @param content The content of the merged document, in the target format of the merge.
+   * @throws IOException If the document cannot be accepted. The merge is aborted.
+   */
+  void accept(int index, byte[] content) throws IOException;
+}
@@ -21,11 +21,13 @@ package org.jodconverter.remote;
 
 import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
 import org.jodconverter.core.document.DocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentValidator;
 import org.jodconverter.core.job.*;
 import org.jodconverter.core.office.InstalledOfficeManagerHolder;
 import org.jodconverter.core.office.OfficeException;
 import org.jodconverter.core.office.OfficeManager;
 import org.jodconverter.remote.office.RemoteOfficeManager;
+import org.jodconverter.remote.task.HedgingPolicy;
 import org.jodconverter.remote.task.RemoteConversionTask;
 
 /**
@@ -73,9 +75,17 @@ public class RemoteConverter extends AbstractConverter {
     return builder().officeManager(officeManager).build();
   }
 
+  private final HedgingPolicy hedgingPolicy;
+
   private RemoteConverter(
-      final OfficeManager officeManager, final DocumentFormatRegistry formatRegistry) {
-    super(officeManager, formatRegistry);
+      final OfficeManager officeManager,
+      final DocumentFormatRegistry formatRegistry,
+      final DocumentValidator documentValidator,
+      final Boolean formatSniffing,
+      final HedgingPolicy hedgingPolicy) {
+    super(officeManager, formatRegistry, documentValidator, formatSniffing);
+
+    this.hedgingPolicy = hedgingPolicy;
   }
 
 
@@ -108,14 +118,14 @@ public class RemoteConverter extends AbstractConverter {
 
     private RemoteConversionJob(
         final AbstractSourceDocumentSpecs source, final AbstractTargetDocumentSpecs target) {
-      super(source, target);
+      super(source, target, RemoteConverter.this.documentValidator);
     }
 
     @Override
     public void doExecute() throws OfficeException {
 
       // Create a default conversion task and execute it
-      final RemoteConversionTask task = new RemoteConversionTask(source, target);
+      final RemoteConversionTask task = new RemoteConversionTask(source, target, hedgingPolicy);
       officeManager.execute(task);
     }
   }
@@ -127,6 +137,8 @@ public class RemoteConverter extends AbstractConverter {
    */
   public static final class Builder extends AbstractConverterBuilder<Builder> {
 
+    private HedgingPolicy hedgingPolicy;
+
     // Private constructor so only RemoteConverter can create an instance of this builder.
     private Builder() {
       super();
@@ -149,7 +161,27 @@ public class RemoteConverter extends AbstractConverter {
       // Create the converter
       return new RemoteConverter(
           manager,
-          formatRegistry == null ? DefaultDocumentFormatRegistry.getInstance() : formatRegistry);
+          formatRegistry == null ? DefaultDocumentFormatRegistry.getInstance() : formatRegistry,
+          documentValidator,
+          formatSniffing,
+          hedgingPolicy);
+    }
+
+    /**
+     * Specifies the hedging policy to apply to the conversions. Hedging requires an office manager
+     * with several endpoints; when no response is received within the delay of the policy, a
+     * duplicate request is sent to another endpoint. Hedging is disabled by default.
+     *
+     * <p>The policy must be shut down (see {@link HedgingPolicy#shutdown()}) along with the office
+     * manager of the converter, once the converter is no longer used.
+     *
+     * @param hedgingPolicy The hedging policy.
+     * @return This builder instance.
+     */
+    public Builder hedgingPolicy(final HedgingPolicy hedgingPolicy) {
+
+      this.hedgingPolicy = hedgingPolicy;
+      return this;
     }
   }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Contains the conversion capabilities advertised by a remote server through its capabilities
+ * document ({@code /hosting/capabilities}). LibreOffice Online only advertises whether the
+ * conversion service is available; the following optional members of the {@code convert-to}
+ * object are also supported:
+ *
+ * <ul>
+ *   <li>{@code inputFormats}: The extensions of the formats that can be converted.
+ *   <li>{@code outputFormats}: The extensions of the formats that can be produced.
+ *   <li>{@code capacity}: The maximum number of concurrent conversions the server can process.
+ * </ul>
+ *
+ * <p>A capability that is not advertised is considered unknown, in which case nothing is assumed
+ * about it.
+ */
+public final class RemoteCapabilities {
+
+  /** The capabilities of a server that does not advertise any capabilities. */
+  public static final RemoteCapabilities UNKNOWN = new RemoteCapabilities(true, null, null, 0);
+
+  private final boolean available;
+  private final Set<String> inputFormats;
+  private final Set<String> outputFormats;
+  private final int capacity;
+
+  /**
+   * Parses the specified capabilities document.
+   *
+   * @param json The JSON capabilities document.
+   * @return The parsed capabilities.
+   * @throws RuntimeException If the document is not a valid JSON document.
+   */
+  public static RemoteCapabilities parse(final String json) {
+
+    final JsonElement root = JsonParser.parseString(json);
+    if (!root.isJsonObject()) {
+      return UNKNOWN;
+    }
+    final JsonElement convertTo = root.getAsJsonObject().get("convert-to");
+    if (convertTo == null || !convertTo.isJsonObject()) {
+      return UNKNOWN;
+    }
+
+    final JsonObject obj = convertTo.getAsJsonObject();
+    final JsonElement available = obj.get("available");
+    final JsonElement capacity = obj.get("capacity");
+    return new RemoteCapabilities(
+        available == null || !available.isJsonPrimitive() || available.getAsBoolean(),
+        toSet(obj.get("inputFormats")),
+        toSet(obj.get("outputFormats")),
+        capacity == null || !capacity.isJsonPrimitive() ? 0 : capacity.getAsInt());
+  }
+
+  private static Set<String> toSet(final JsonElement element) {
+
+    if (element == null || !element.isJsonArray()) {
+      return null;
+    }
+    final JsonArray array = element.getAsJsonArray();
+    final Set<String> set = new HashSet<String>(array.size());
+    for (final JsonElement ext : array) {
+      set.add(ext.getAsString().toLowerCase(Locale.ROOT));
+    }
+    return Collections.unmodifiableSet(set);
+  }
+
+  /**
+   * Creates new capabilities.
+   *
+   * @param available Whether the conversion service is available.
+   * @param inputFormats The extensions of the formats that can be converted, {@code null} if
+   *     unknown.
+   * @param outputFormats The extensions of the formats that can be produced, {@code null} if
+   *     unknown.
+   * @param capacity The maximum number of concurrent conversions, 0 if unknown.
+   */
+  public RemoteCapabilities(
+      final boolean available,
+      final Set<String> inputFormats,
+      final Set<String> outputFormats,
+      final int capacity) {
+
+    this.available = available;
+    this.inputFormats = inputFormats;
+    this.outputFormats = outputFormats;
+    this.capacity = Math.max(0, capacity);
+  }
+
+  /**
+   * Gets whether the conversion service is available.
+   *
+   * @return {@code true} if the conversion service is available, {@code false} otherwise.
+   */
+  public boolean isAvailable() {
+    return available;
+  }
+
+  /**
+   * Gets the maximum number of concurrent conversions the server can process.
+   *
+   * @return The capacity, or 0 if unknown.
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Gets whether the server supports the conversion between the specified formats.
+   *
+   * @param inputExtension The extension of the source format.
+   * @param outputExtension The extension of the target format.
+   * @return {@code true} if the conversion is supported or if the capabilities are unknown, {@code
+   *     false} otherwise.
+   */
+  public boolean supports(final String inputExtension, final String outputExtension) {
+
+    return available
+        && (inputFormats == null
+            || inputExtension == null
+            || inputFormats.contains(inputExtension.toLowerCase(Locale.ROOT)))
+        && (outputFormats == null
+            || outputExtension == null
+            || outputFormats.contains(outputExtension.toLowerCase(Locale.ROOT)));
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "available="
+        + available
+        + ", inputFormats="
+        + inputFormats
+        + ", outputFormats="
+        + outputFormats
+        + ", capacity="
+        + capacity
+        + '}';
+  }
+}
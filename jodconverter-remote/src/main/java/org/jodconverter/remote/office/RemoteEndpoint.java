@@ -0,0 +1,244 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.office;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.fluent.Executor;
+import org.apache.http.client.fluent.Request;
+import org.jodconverter.core.office.NamedThreadFactory;
+import org.jodconverter.core.util.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Locale;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Holds the state shared by all the pool entries sending requests to the same remote server: the
+ * cached capabilities of the server and the number of requests that can be sent concurrently.
+ */
+class RemoteEndpoint {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RemoteEndpoint.class);
+  private static final ThreadFactory REFRESH_THREAD_FACTORY =
+      new NamedThreadFactory("jodconverter-capabilities");
+
+  private final String connectionUrl;
+  private final long refreshInterval;
+  private final int entryCount;
+  private final Object refreshLock = new Object();
+  private volatile RemoteCapabilities capabilities = RemoteCapabilities.UNKNOWN;
+  private long lastRefresh;
+  private boolean refreshing;
+  private int limit;
+  private int inFlight;
+
+  /**
+   * Creates a new endpoint.
+   *
+   * @param connectionUrl The URL to the remote server.
+   * @param refreshInterval The interval, in milliseconds, between two refreshes of the capabilities
+   *     of the server. 0 disables the capabilities discovery.
+   * @param entryCount The number of pool entries sending requests to the server.
+   */
+  /* default */ RemoteEndpoint(
+      final String connectionUrl, final long refreshInterval, final int entryCount) {
+
+    this.connectionUrl = connectionUrl;
+    this.refreshInterval = refreshInterval;
+    this.entryCount = entryCount;
+    this.limit = entryCount;
+  }
+
+  /**
+   * Gets the URL to the remote server.
+   *
+   * @return The connection URL.
+   */
+  /* default */ String getConnectionUrl() {
+    return connectionUrl;
+  }
+
+  /**
+   * Gets the last known capabilities of the server.
+   *
+   * @return The capabilities, never {@code null}.
+   */
+  /* default */ RemoteCapabilities getCapabilities() {
+    return capabilities;
+  }
+
+  /**
+   * Fetches the capabilities of the server if they have never been fetched or if the refresh
+   * interval is elapsed. A server that cannot provide its capabilities is considered having
+   * unknown capabilities.
+   *
+   * @param httpClient The client used to send the request.
+   * @param connectTimeout The connect timeout, in milliseconds.
+   * @param socketTimeout The socket timeout, in milliseconds.
+   */
+  /* default */ void refreshCapabilities(
+      final HttpClient httpClient, final long connectTimeout, final long socketTimeout) {
+
+    // The lock is only held to claim the refresh, so the threads checking
+    // whether a refresh is due are never blocked by a request to the server.
+    synchronized (refreshLock) {
+      if (!isRefreshDue()) {
+        return;
+      }
+      lastRefresh = System.currentTimeMillis();
+    }
+    doRefreshCapabilities(httpClient, connectTimeout, socketTimeout);
+  }
+
+  /**
+   * Fetches the capabilities of the server in the background if the refresh interval is elapsed,
+   * unless a refresh is already in progress. This method does not wait for the refresh; the last
+   * known capabilities are served until the new ones are fetched.
+   *
+   * @param refresher The task fetching the capabilities, which is expected to call {@link
+   *     #refreshCapabilities(HttpClient, long, long)}.
+   */
+  /* default */ void refreshCapabilitiesAsync(final Runnable refresher) {
+
+    synchronized (refreshLock) {
+      if (refreshing || !isRefreshDue()) {
+        return;
+      }
+      refreshing = true;
+    }
+    REFRESH_THREAD_FACTORY
+        .newThread(
+            new Runnable() {
+              @Override
+              public void run() {
+                try {
+                  refresher.run();
+                } finally {
+                  synchronized (refreshLock) {
+                    refreshing = false;
+                  }
+                }
+              }
+            })
+        .start();
+  }
+
+  // Must be called while holding the refresh lock.
+  private boolean isRefreshDue() {
+
+    return refreshInterval > 0L
+        && (lastRefresh == 0L || System.currentTimeMillis() - lastRefresh >= refreshInterval);
+  }
+
+  private void doRefreshCapabilities(
+      final HttpClient httpClient, final long connectTimeout, final long socketTimeout) {
+
+    RemoteCapabilities caps;
+    try {
+      final String url = buildCapabilitiesUrl();
+      LOGGER.debug("Fetching capabilities from {}", url);
+      caps =
+          RemoteCapabilities.parse(
+              Executor.newInstance(httpClient)
+                  .execute(
+                      Request.Get(url)
+                          .connectTimeout(Long.valueOf(connectTimeout).intValue())
+                          .socketTimeout(Long.valueOf(socketTimeout).intValue()))
+                  .returnContent()
+                  .asString());
+      LOGGER.info("Capabilities of {}: {}", connectionUrl, caps);
+    } catch (Exception ex) {
+      LOGGER.warn(
+          "Could not fetch the capabilities of {}; assuming unknown capabilities",
+          connectionUrl,
+          ex);
+      caps = RemoteCapabilities.UNKNOWN;
+    }
+    capabilities = caps;
+
+    // The advertised capacity seeds the concurrency limit of the endpoint.
+    synchronized (this) {
+      limit = caps.getCapacity() > 0 ? Math.min(caps.getCapacity(), entryCount) : entryCount;
+      notifyAll();
+    }
+  }
+
+  /**
+   * Acquires the permission to send a conversion request to the server, waiting if the
+   * concurrency limit of the server is reached.
+   *
+   * @param timeout The maximum time to wait, in milliseconds.
+   * @return {@code true} if the permission has been acquired, {@code false} if the timeout elapsed
+   *     before.
+   * @throws InterruptedException If the current thread is interrupted while waiting.
+   */
+  /* default */ synchronized boolean acquire(final long timeout) throws InterruptedException {
+
+    final long deadline = System.currentTimeMillis() + timeout;
+    while (inFlight >= limit) {
+      final long remaining = deadline - System.currentTimeMillis();
+      if (remaining <= 0L) {
+        return false;
+      }
+      wait(remaining);
+    }
+    inFlight++;
+    return true;
+  }
+
+  /**
+   * Acquires the permission to send a conversion request to the server, without waiting.
+   *
+   * @return {@code true} if the permission has been acquired, {@code false} if the concurrency
+   *     limit of the server is reached.
+   */
+  /* default */ synchronized boolean tryAcquire() {
+
+    if (inFlight >= limit) {
+      return false;
+    }
+    inFlight++;
+    return true;
+  }
+
+  /** Releases a permission previously acquired. */
+  /* default */ synchronized void release() {
+
+    inFlight--;
+    notifyAll();
+  }
+
+  private String buildCapabilitiesUrl() throws MalformedURLException {
+
+    // The capabilities are at the root of the server, for example:
+    // http://localhost:9980/hosting/capabilities
+    String url = StringUtils.appendIfMissing(new URL(connectionUrl).toExternalForm(), "/");
+    final String path = url.toLowerCase(Locale.ROOT);
+    if (path.endsWith("lool/convert-to/")) {
+      url = url.substring(0, url.length() - "lool/convert-to/".length());
+    } else if (path.endsWith("lool/")) {
+      url = url.substring(0, url.length() - "lool/".length());
+    }
+    return url + "hosting/capabilities";
+  }
+}
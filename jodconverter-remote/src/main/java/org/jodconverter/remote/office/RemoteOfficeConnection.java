@@ -22,14 +22,70 @@ package org.jodconverter.remote.office;
 import org.apache.http.client.HttpClient;
 import org.apache.http.impl.client.CloseableHttpClient;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
 /**
  * An RemoteOfficeConnection holds the request configuration to communicate with the LibreOffice
  * Online server.
  */
 public class RemoteOfficeConnection implements RemoteOfficeContext {
 
+  private static final Random RANDOM = new Random();
+
   private final CloseableHttpClient httpClient;
   private final RequestConfig requestConfig;
+  private final RemoteCapabilities capabilities;
+  // The endpoints of the alternate URLs of the request configuration, in the same order.
+  private final List<RemoteEndpoint> alternateEndpoints;
+
+  /**
+   * The permission to send a request to an alternate server, which must be released once the
+   * request is done.
+   */
+  public static final class AlternatePermit {
+
+    private final String url;
+    private final RemoteEndpoint endpoint;
+    private boolean released;
+
+    private AlternatePermit(final String url, final RemoteEndpoint endpoint) {
+      this.url = url;
+      this.endpoint = endpoint;
+    }
+
+    /**
+     * Creates a permission to send a request to a server that does not limit the number of
+     * concurrent requests.
+     *
+     * @param url The URL of the server.
+     * @return The permission, whose release has no effect.
+     */
+    public static AlternatePermit unlimited(final String url) {
+      return new AlternatePermit(url, null);
+    }
+
+    /**
+     * Gets the URL where the request can be sent.
+     *
+     * @return The URL of the alternate server.
+     */
+    public String getUrl() {
+      return url;
+    }
+
+    /** Releases this permission. Releasing a permission more than once has no effect. */
+    public synchronized void release() {
+
+      if (!released) {
+        released = true;
+        if (endpoint != null) {
+          endpoint.release();
+        }
+      }
+    }
+  }
 
   /**
    * Constructs a new connection with the specified client and URL.
@@ -40,9 +96,46 @@ public class RemoteOfficeConnection implements RemoteOfficeContext {
    */
   public RemoteOfficeConnection(
       final CloseableHttpClient httpClient, final RequestConfig requestConfig) {
+    this(httpClient, requestConfig, null);
+  }
+
+  /**
+   * Constructs a new connection with the specified client, URL and server capabilities.
+   *
+   * @param httpClient The HTTP client (already initialized) used to communicate with the
+   *     LibreOffice Online server.
+   * @param requestConfig The request configuration for the conversion.
+   * @param capabilities The capabilities of the server, may be {@code null} if unknown.
+   */
+  public RemoteOfficeConnection(
+      final CloseableHttpClient httpClient,
+      final RequestConfig requestConfig,
+      final RemoteCapabilities capabilities) {
+    this(httpClient, requestConfig, capabilities, null);
+  }
+
+  /**
+   * Constructs a new connection with the specified client, URL, server capabilities and alternate
+   * servers.
+   *
+   * @param httpClient The HTTP client (already initialized) used to communicate with the
+   *     LibreOffice Online server.
+   * @param requestConfig The request configuration for the conversion.
+   * @param capabilities The capabilities of the server, may be {@code null} if unknown.
+   * @param alternateEndpoints The endpoints of the alternate URLs of the request configuration, in
+   *     the same order, may be {@code null}.
+   */
+  /* default */ RemoteOfficeConnection(
+      final CloseableHttpClient httpClient,
+      final RequestConfig requestConfig,
+      final RemoteCapabilities capabilities,
+      final List<RemoteEndpoint> alternateEndpoints) {
 
     this.httpClient = httpClient;
     this.requestConfig = requestConfig;
+    this.capabilities = capabilities == null ? RemoteCapabilities.UNKNOWN : capabilities;
+    this.alternateEndpoints =
+        alternateEndpoints == null ? Collections.<RemoteEndpoint>emptyList() : alternateEndpoints;
   }
 
 
@@ -56,4 +149,38 @@ public class RemoteOfficeConnection implements RemoteOfficeContext {
   public RequestConfig getRequestConfig() {
     return requestConfig;
   }
+
+  @Override
+  public RemoteCapabilities getCapabilities() {
+    return capabilities;
+  }
+
+  /**
+   * Acquires, without waiting, the permission to send a request to an alternate server (for
+   * example a duplicate request when a request is hedged). Only the servers that are not known to
+   * not support the conversion, and whose concurrency limit is not reached, are considered.
+   *
+   * @param sourceExtension The extension of the source format, may be {@code null} if unknown.
+   * @param targetExtension The extension of the target format.
+   * @return The permission, or {@code null} if no alternate server can accept the request.
+   */
+  public AlternatePermit tryAcquireAlternate(
+      final String sourceExtension, final String targetExtension) {
+
+    final int count = alternateEndpoints.size();
+    if (count == 0) {
+      return null;
+    }
+    // Start with a random server in order to spread the requests among the servers.
+    final int first = RANDOM.nextInt(count);
+    for (int i = 0; i < count; i++) {
+      final int index = (first + i) % count;
+      final RemoteEndpoint endpoint = alternateEndpoints.get(index);
+      if (endpoint.getCapabilities().supports(sourceExtension, targetExtension)
+          && endpoint.tryAcquire()) {
+        return new AlternatePermit(requestConfig.getAlternateUrls().get(index), endpoint);
+      }
+    }
+    return null;
+  }
 }
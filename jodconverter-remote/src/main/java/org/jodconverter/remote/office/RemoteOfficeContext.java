@@ -40,4 +40,12 @@ public interface RemoteOfficeContext extends OfficeContext {
    */
 
   RequestConfig getRequestConfig();
+
+  /**
+   * Gets the capabilities advertised by the server.
+   *
+   * @return The capabilities of the server, never {@code null}.
+   */
+
+  RemoteCapabilities getCapabilities();
 }
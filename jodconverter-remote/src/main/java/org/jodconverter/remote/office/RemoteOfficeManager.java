@@ -20,14 +20,18 @@
 package org.jodconverter.remote.office;
 
 import org.jodconverter.core.office.AbstractOfficeManagerPool;
+import org.jodconverter.core.office.DocumentQuarantine;
 import org.jodconverter.core.office.InstalledOfficeManagerHolder;
 import org.jodconverter.core.office.OfficeManager;
 import org.jodconverter.core.office.OfficeUtils;
+import org.jodconverter.core.office.TaskRetryPolicy;
 import org.jodconverter.core.util.AssertUtils;
 import org.jodconverter.remote.ssl.SslConfig;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * {@link org.jodconverter.core.office.OfficeManager} pool implementation that does not depend on an
@@ -35,6 +39,9 @@ import java.util.ArrayList;
  */
 public final class RemoteOfficeManager extends AbstractOfficeManagerPool {
 
+  // The default interval between two refreshes of the capabilities of a server.
+  private static final long DEFAULT_CAPABILITIES_REFRESH_INTERVAL = 300000L; // 5 minutes
+
   /**
    * Creates a new builder instance.
    *
@@ -70,21 +77,49 @@ public final class RemoteOfficeManager extends AbstractOfficeManagerPool {
 
   private RemoteOfficeManager(
       final File workingDir,
-      final String urlConnection,
+      final List<String> urlConnections,
       final Integer poolSize,
       final SslConfig sslConfig,
       final Long connectTimeout,
       final Long socketTimeout,
+      final Boolean compression,
+      final Long capabilitiesRefreshInterval,
       final Long taskExecutionTimeout,
-      final Long taskQueueTimeout) {
-    super(workingDir, poolSize, taskQueueTimeout);
+      final Long taskQueueTimeout,
+      final TaskRetryPolicy taskRetryPolicy,
+      final DocumentQuarantine documentQuarantine) {
+    super(workingDir, poolSize, taskQueueTimeout, taskRetryPolicy, documentQuarantine);
+
+    // Each endpoint gets at least one entry, the entries being spread evenly among the endpoints.
+    int poolSizeSafe =
+        Math.max(poolSize == null ? DEFAULT_POOL_SIZE : poolSize, urlConnections.size());
+    final long refreshInterval =
+        capabilitiesRefreshInterval == null
+            ? DEFAULT_CAPABILITIES_REFRESH_INTERVAL
+            : capabilitiesRefreshInterval;
+    final List<RemoteEndpoint> endpoints = new ArrayList<RemoteEndpoint>(urlConnections.size());
+    for (int i = 0; i < urlConnections.size(); i++) {
+      // Number of entries sending requests to this endpoint.
+      final int entryCount =
+          poolSizeSafe / urlConnections.size() + (i < poolSizeSafe % urlConnections.size() ? 1 : 0);
+      endpoints.add(new RemoteEndpoint(urlConnections.get(i), refreshInterval, entryCount));
+    }
 
-    int poolSizeSafe = poolSize == null ? DEFAULT_POOL_SIZE : poolSize;
     ArrayList<OfficeManager> officeManagers = new ArrayList<OfficeManager>(poolSizeSafe);
     for (int i = 0; i < poolSizeSafe; i++) {
+      final RemoteEndpoint endpoint = endpoints.get(i % endpoints.size());
+      final List<RemoteEndpoint> alternateEndpoints = new ArrayList<RemoteEndpoint>(endpoints);
+      alternateEndpoints.remove(endpoint);
       officeManagers.add(
           new RemoteOfficeManagerPoolEntry(
-              urlConnection, sslConfig, connectTimeout, socketTimeout, taskExecutionTimeout));
+              endpoint,
+              alternateEndpoints,
+              sslConfig,
+              connectTimeout,
+              socketTimeout,
+              compression,
+              getTaskQueueTimeout(),
+              taskExecutionTimeout));
     }
     setEntries(officeManagers);
   }
@@ -100,10 +135,12 @@ public final class RemoteOfficeManager extends AbstractOfficeManagerPool {
     private static final int MAX_POOL_SIZE = 1000;
 
     private Integer poolSize;
-    private String urlConnection;
+    private List<String> urlConnections;
     private SslConfig sslConfig;
     private Long connectTimeout;
     private Long socketTimeout;
+    private Boolean compression;
+    private Long capabilitiesRefreshInterval;
 
     // Private constructor so only RemoteOfficeManager can initialize an instance of this builder.
     private Builder() {
@@ -113,7 +150,10 @@ public final class RemoteOfficeManager extends AbstractOfficeManagerPool {
     @Override
     public RemoteOfficeManager build() {
 
-      AssertUtils.notBlank(urlConnection, "urlConnection must not be null nor blank");
+      AssertUtils.notEmpty(urlConnections, "urlConnection must not be null nor empty");
+      for (final String urlConnection : urlConnections) {
+        AssertUtils.notBlank(urlConnection, "urlConnection must not be null nor blank");
+      }
 
       // Assign default values for properties that are not set yet.
       if (workingDir == null) {
@@ -123,13 +163,17 @@ public final class RemoteOfficeManager extends AbstractOfficeManagerPool {
       final RemoteOfficeManager manager =
           new RemoteOfficeManager(
               workingDir,
-              urlConnection,
+              urlConnections,
               poolSize,
               sslConfig,
               connectTimeout,
               socketTimeout,
+              compression,
+              capabilitiesRefreshInterval,
               taskExecutionTimeout,
-              taskQueueTimeout);
+              taskQueueTimeout,
+              taskRetryPolicy,
+              documentQuarantine);
       if (install) {
         InstalledOfficeManagerHolder.setInstance(manager);
       }
@@ -161,7 +205,24 @@ public final class RemoteOfficeManager extends AbstractOfficeManagerPool {
      */
     public Builder urlConnection(final String urlConnection) {
 
-      this.urlConnection = urlConnection;
+      this.urlConnections = urlConnection == null ? null : Arrays.asList(urlConnection);
+      return this;
+    }
+
+    /**
+     * Specifies the URL connections of the manager, one for each remote server (endpoint). The
+     * entries of the pool are spread evenly among the endpoints, and each endpoint gets at least
+     * one entry. The other endpoints are used as alternates when a request is hedged (see {@link
+     * org.jodconverter.remote.task.HedgingPolicy}).
+     *
+     * @param urlConnections The URL connections.
+     * @return This builder instance.
+     */
+    public Builder urlConnections(final String... urlConnections) {
+
+      if (urlConnections != null && urlConnections.length != 0) {
+        this.urlConnections = Arrays.asList(urlConnections);
+      }
       return this;
     }
 
@@ -219,5 +280,49 @@ public final class RemoteOfficeManager extends AbstractOfficeManagerPool {
       this.socketTimeout = socketTimeout;
       return this;
     }
+
+    /**
+     * Specifies whether the request and response bodies must be compressed using the gzip
+     * content-encoding. The decision is made for each conversion, according to the source and
+     * target formats; formats that are already compressed (docx, xlsx, pdf, png...) are never
+     * compressed. Note that the server must support gzip encoded requests, which is not the case
+     * of LibreOffice Online.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: false
+     *
+     * @param compression {@code true} to enable compression, {@code false} otherwise.
+     * @return This builder instance.
+     */
+    public Builder compression(final Boolean compression) {
+
+      this.compression = compression;
+      return this;
+    }
+
+    /**
+     * Specifies the interval between two refreshes of the capabilities of the remote servers. The
+     * capabilities ({@code /hosting/capabilities}) of each server are fetched in the background
+     * when the manager starts and then cached; until they are fetched, all the conversions are
+     * sent to the server. They are used to reject unsupported conversions before uploading the
+     * document, and the advertised capacity limits the number of concurrent requests sent to a
+     * server. A value of 0 disables the capabilities discovery.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 300000 (5 minutes)
+     *
+     * @param capabilitiesRefreshInterval The refresh interval, in milliseconds.
+     * @return This builder instance.
+     */
+    public Builder capabilitiesRefreshInterval(final Long capabilitiesRefreshInterval) {
+
+      if (capabilitiesRefreshInterval != null) {
+        AssertUtils.isTrue(
+            capabilitiesRefreshInterval >= 0,
+            String.format(
+                "capabilitiesRefreshInterval %s must greater than or equal to 0",
+                capabilitiesRefreshInterval));
+      }
+      this.capabilitiesRefreshInterval = capabilitiesRefreshInterval;
+      return this;
+    }
   }
 }
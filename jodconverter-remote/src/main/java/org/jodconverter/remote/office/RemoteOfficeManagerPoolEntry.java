@@ -30,12 +30,16 @@ import org.apache.http.ssl.PrivateKeyDetails;
 import org.apache.http.ssl.PrivateKeyStrategy;
 import org.apache.http.ssl.SSLContextBuilder;
 import org.apache.http.ssl.SSLContexts;
+import org.jodconverter.core.document.DocumentFormat;
 import org.jodconverter.core.office.AbstractOfficeManagerPoolEntry;
 import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.task.ConversionTask;
 import org.jodconverter.core.task.OfficeTask;
 import org.jodconverter.core.util.AssertUtils;
 import org.jodconverter.core.util.StringUtils;
 import org.jodconverter.remote.ssl.SslConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.net.ssl.SSLContext;
 import java.io.*;
@@ -43,6 +47,9 @@ import java.net.*;
 import java.security.*;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -56,15 +63,20 @@ import java.util.Map;
  */
 class RemoteOfficeManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(RemoteOfficeManagerPoolEntry.class);
+
   // The default connect timeout
   private static final long DEFAULT_CONNECT_TIMEOUT = 60000L; // 2 minutes
   // The default socket timeout
   private static final long DEFAULT_SOCKET_TIMEOUT = 120000L; // 2 minutes
 
-  private final String connectionUrl;
+  private final RemoteEndpoint endpoint;
+  private final List<RemoteEndpoint> alternateEndpoints;
   private final SslConfig sslConfig;
   private final long connectTimeout;
   private final long socketTimeout;
+  private final boolean compression;
+  private final long permitTimeout;
 
   /** Strategy that selects a private key by its alias. */
   private static final class SelectByAlias implements PrivateKeyStrategy {
@@ -168,7 +180,9 @@ class RemoteOfficeManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
   /**
    * Creates a new pool entry with the specified configuration.
    *
-   * @param connectionUrl The URL to the remote server.
+   * @param endpoint The remote server, shared by all the entries sending requests to this server.
+   * @param alternateEndpoints The other remote servers managed by the same manager, may be {@code
+   *     null}.
    * @param sslConfig The SSL configuration used to secure communication with the remote server.
    * @param connectTimeout The timeout in milliseconds until a connection is established. A timeout
    *     value of zero is interpreted as an infinite timeout. A negative value is interpreted as
@@ -177,22 +191,33 @@ class RemoteOfficeManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
    *     timeout for waiting for data or, put differently, a maximum period inactivity between two
    *     consecutive data packets). A timeout value of zero is interpreted as an infinite timeout. A
    *     negative value is interpreted as undefined (system default).
+   * @param compression Whether the request and response bodies must be compressed when the
+   *     document formats are compressible.
+   * @param permitTimeout The maximum time, in milliseconds, to wait for the remote server to accept
+   *     a new request when its concurrency limit is reached.
    * @param taskExecutionTimeout The maximum time allowed to process a task. If the processing time
    *     of a task is longer than this timeout, this task will be aborted and the next task is
    *     processed.
    */
   /* default */ RemoteOfficeManagerPoolEntry(
-      final String connectionUrl,
+      final RemoteEndpoint endpoint,
+      final List<RemoteEndpoint> alternateEndpoints,
       final SslConfig sslConfig,
       final Long connectTimeout,
       final Long socketTimeout,
+      final Boolean compression,
+      final long permitTimeout,
       final Long taskExecutionTimeout) {
     super(taskExecutionTimeout);
 
-    this.connectionUrl = connectionUrl;
+    this.endpoint = endpoint;
+    this.alternateEndpoints =
+        alternateEndpoints == null ? Collections.<RemoteEndpoint>emptyList() : alternateEndpoints;
     this.sslConfig = sslConfig;
     this.connectTimeout = connectTimeout == null ? DEFAULT_CONNECT_TIMEOUT : connectTimeout;
     this.socketTimeout = socketTimeout == null ? DEFAULT_SOCKET_TIMEOUT : socketTimeout;
+    this.compression = compression != null && compression;
+    this.permitTimeout = permitTimeout;
   }
 
   private String buildUrl(final String connectionUrl) throws MalformedURLException {
@@ -210,6 +235,58 @@ class RemoteOfficeManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
     return StringUtils.appendIfMissing(connectionUrl, "/") + "lool/convert-to/";
   }
 
+  // Gets the endpoints other than the specified one.
+  private List<RemoteEndpoint> getAlternateEndpoints(final RemoteEndpoint selected) {
+
+    final List<RemoteEndpoint> alternates = new ArrayList<RemoteEndpoint>(alternateEndpoints);
+    if (selected != endpoint) {
+      alternates.remove(selected);
+      alternates.add(0, endpoint);
+    }
+    return alternates;
+  }
+
+  // Builds the URLs of the specified endpoints.
+  private List<String> buildUrls(final List<RemoteEndpoint> endpoints)
+      throws MalformedURLException {
+
+    final List<String> urls = new ArrayList<String>(endpoints.size());
+    for (final RemoteEndpoint alternate : endpoints) {
+      urls.add(buildUrl(alternate.getConnectionUrl()));
+    }
+    return urls;
+  }
+
+  // Selects the endpoint to which the task is sent: the endpoint of this entry, unless it is
+  // known not to support the conversion performed by the task while another endpoint does.
+  private RemoteEndpoint selectEndpoint(final OfficeTask task) {
+
+    if (!(task instanceof ConversionTask) || alternateEndpoints.isEmpty()) {
+      return endpoint;
+    }
+    final ConversionTask conversion = (ConversionTask) task;
+    final DocumentFormat sourceFormat = conversion.getSource().getFormat();
+    final DocumentFormat targetFormat = conversion.getTarget().getFormat();
+    final String sourceExtension = sourceFormat == null ? null : sourceFormat.getExtension();
+    final String targetExtension = targetFormat == null ? null : targetFormat.getExtension();
+    if (endpoint.getCapabilities().supports(sourceExtension, targetExtension)) {
+      return endpoint;
+    }
+    for (final RemoteEndpoint alternate : alternateEndpoints) {
+      if (alternate.getCapabilities().supports(sourceExtension, targetExtension)) {
+        LOGGER.debug(
+            "{} does not support the conversion from {} to {}, sending it to {}",
+            endpoint.getConnectionUrl(),
+            sourceExtension,
+            targetExtension,
+            alternate.getConnectionUrl());
+        return alternate;
+      }
+    }
+    // No endpoint supports the conversion, the task will report it.
+    return endpoint;
+  }
+
   private void configureKeyMaterial(final SSLContextBuilder sslBuilder)
       throws UnrecoverableKeyException, NoSuchAlgorithmException, KeyStoreException,
           CertificateException, IOException, NoSuchProviderException {
@@ -276,32 +353,99 @@ class RemoteOfficeManagerPoolEntry extends AbstractOfficeManagerPoolEntry {
     }
   }
 
+  private CloseableHttpClient createHttpClient() throws OfficeException {
+    return HttpClients.custom().setSSLSocketFactory(configureSsl()).build();
+  }
+
   @Override
   protected void doExecute(final OfficeTask task) throws OfficeException {
 
-    final SSLConnectionSocketFactory sslFactory = configureSsl();
     try {
-      CloseableHttpClient httpClient = HttpClients.custom().setSSLSocketFactory(sslFactory).build();
+      final CloseableHttpClient httpClient = createHttpClient();
       try {
+        // Refresh the capabilities of the server in the background if they are
+        // outdated; the task is meanwhile validated against the last known ones.
+        refreshCapabilitiesAsync();
+
         // Use the task execution timeout as connection and socket timeout.
         // TODO: Should the user be able to customize connection and socket timeout ?
+        final RemoteEndpoint selected = selectEndpoint(task);
+        final List<RemoteEndpoint> alternates = getAlternateEndpoints(selected);
         final RequestConfig requestConfig =
-            new RequestConfig(buildUrl(connectionUrl), connectTimeout, socketTimeout);
-        task.execute(new RemoteOfficeConnection(httpClient, requestConfig));
+            new RequestConfig(
+                buildUrl(selected.getConnectionUrl()),
+                connectTimeout,
+                socketTimeout,
+                buildUrls(alternates),
+                compression);
+
+        // Respect the concurrency limit of the server, the task being
+        // queued no longer than it would have been in the pool.
+        if (!selected.acquire(permitTimeout)) {
+          throw new OfficeException(
+              "Remote server "
+                  + selected.getConnectionUrl()
+                  + " did not accept a new request after "
+                  + permitTimeout
+                  + " millisec.");
+        }
+        try {
+          task.execute(
+              new RemoteOfficeConnection(
+                  httpClient, requestConfig, selected.getCapabilities(), alternates));
+        } finally {
+          selected.release();
+        }
 
       } finally {
         httpClient.close();
       }
     } catch (IOException ex) {
       throw new OfficeException("Could not create the HTTP client", ex);
+    } catch (InterruptedException ex) {
+      throw new OfficeException("Interrupted while waiting for the remote server", ex);
     }
   }
 
   @Override
   protected void doStart() {
+
+    // Fetch the capabilities of the server in the background (only once for all the entries
+    // of the server), so an unreachable server does not block the start of the manager. Until
+    // they are fetched, the capabilities of the server are unknown: all the conversions are
+    // accepted and the concurrency limit is the number of entries of the server.
+    refreshCapabilitiesAsync();
+
     setAvailable(true);
   }
 
+  // Fetches the capabilities of the server in the background if they are outdated.
+  private void refreshCapabilitiesAsync() {
+
+    endpoint.refreshCapabilitiesAsync(
+        new Runnable() {
+          @Override
+          public void run() {
+            refreshCapabilities();
+          }
+        });
+  }
+
+  // Fetches the capabilities of the server if they are outdated, using a dedicated client.
+  private void refreshCapabilities() {
+
+    try {
+      final CloseableHttpClient httpClient = createHttpClient();
+      try {
+        endpoint.refreshCapabilities(httpClient, connectTimeout, socketTimeout);
+      } finally {
+        httpClient.close();
+      }
+    } catch (Exception ex) {
+      LOGGER.warn("Could not fetch the capabilities of {}", endpoint.getConnectionUrl(), ex);
+    }
+  }
+
   @Override
   protected void doStop() {
     // Nothing to stop here.
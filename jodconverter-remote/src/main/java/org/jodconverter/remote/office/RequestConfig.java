@@ -19,12 +19,17 @@
 
 package org.jodconverter.remote.office;
 
+import java.util.Collections;
+import java.util.List;
+
 /** Contains the request configuration to communication with LibreOffice Online. */
 public class RequestConfig {
 
   private final String url;
   private final long connectTimeout;
   private final long socketTimeout;
+  private final List<String> alternateUrls;
+  private final boolean compression;
 
   /**
    * Constructs a new configuration with the specified arguments.
@@ -40,10 +45,62 @@ public class RequestConfig {
    */
   public RequestConfig(
       final String url, final long connectTimeout, final long socketTimeout) {
+    this(url, connectTimeout, socketTimeout, null);
+  }
+
+  /**
+   * Constructs a new configuration with the specified arguments.
+   *
+   * @param url The URL for the conversion.
+   * @param connectTimeout The timeout in milliseconds until a connection is established. A timeout
+   *     value of zero is interpreted as an infinite timeout. A negative value is interpreted as
+   *     undefined (system default).
+   * @param socketTimeout The socket timeout ({@code SO_TIMEOUT}) in milliseconds, which is the
+   *     timeout for waiting for data or, put differently, a maximum period inactivity between two
+   *     consecutive data packets). A timeout value of zero is interpreted as an infinite timeout. A
+   *     negative value is interpreted as undefined (system default).
+   * @param alternateUrls The URLs of the other endpoints that can process the conversion, may be
+   *     {@code null}.
+   */
+  public RequestConfig(
+      final String url,
+      final long connectTimeout,
+      final long socketTimeout,
+      final List<String> alternateUrls) {
+    this(url, connectTimeout, socketTimeout, alternateUrls, false);
+  }
+
+  /**
+   * Constructs a new configuration with the specified arguments.
+   *
+   * @param url The URL for the conversion.
+   * @param connectTimeout The timeout in milliseconds until a connection is established. A timeout
+   *     value of zero is interpreted as an infinite timeout. A negative value is interpreted as
+   *     undefined (system default).
+   * @param socketTimeout The socket timeout ({@code SO_TIMEOUT}) in milliseconds, which is the
+   *     timeout for waiting for data or, put differently, a maximum period inactivity between two
+   *     consecutive data packets). A timeout value of zero is interpreted as an infinite timeout. A
+   *     negative value is interpreted as undefined (system default).
+   * @param alternateUrls The URLs of the other endpoints that can process the conversion, may be
+   *     {@code null}.
+   * @param compression {@code true} to compress the request and response bodies when the document
+   *     formats are compressible, {@code false} otherwise.
+   */
+  public RequestConfig(
+      final String url,
+      final long connectTimeout,
+      final long socketTimeout,
+      final List<String> alternateUrls,
+      final boolean compression) {
 
     this.url = url;
     this.connectTimeout = connectTimeout;
     this.socketTimeout = socketTimeout;
+    this.alternateUrls =
+        alternateUrls == null
+            ? Collections.<String>emptyList()
+            : Collections.unmodifiableList(alternateUrls);
+    this.compression = compression;
   }
 
   /**
@@ -86,4 +143,27 @@ public class RequestConfig {
   public long getSocketTimeout() {
     return socketTimeout;
   }
+
+  /**
+   * Gets the URLs of the other endpoints where conversion request can be sent, for example when a
+   * request is hedged.
+   *
+   * @return An unmodifiable list of URLs, never {@code null}.
+   */
+  public List<String> getAlternateUrls() {
+    return alternateUrls;
+  }
+
+  /**
+   * Gets whether the request body (the uploaded document) is sent using the gzip content-encoding,
+   * and the response body (the converted document) is requested using the gzip content-encoding,
+   * when the format of the document is compressible.
+   *
+   * <p>Default: {@code false}
+   *
+   * @return {@code true} if compression is enabled, {@code false} otherwise.
+   */
+  public boolean isCompression() {
+    return compression;
+  }
 }
@@ -0,0 +1,376 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.task;
+
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.office.NamedThreadFactory;
+import org.jodconverter.core.util.AssertUtils;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hedging policy used by a {@link RemoteConversionTask} in order to control the tail latency of
+ * remote conversions. When no response has been received from the server after a delay computed
+ * from the latencies previously observed for the same target format, a duplicate request is sent to
+ * another endpoint. The first response wins and the other request is aborted.
+ *
+ * <p>The extra load generated by the duplicate requests is capped by a budget, expressed as a
+ * percentage of the total number of requests.
+ *
+ * <p>A policy is thread safe and is meant to be shared by all the tasks created by a converter.
+ * It owns the threads sending the requests of the hedged tasks, which are released by {@link
+ * #shutdown()} once the converter is no longer used.
+ */
+public final class HedgingPolicy {
+
+  // The default percentile of the observed latencies used as hedging delay.
+  private static final double DEFAULT_PERCENTILE = 95.0D;
+  // The default delay used until enough latencies have been observed.
+  private static final long DEFAULT_INITIAL_DELAY = 2000L; // 2 seconds
+  // The default minimum delay before sending a duplicate request.
+  private static final long DEFAULT_MIN_DELAY = 50L;
+  // The default maximum percentage of requests that can be duplicated.
+  private static final int DEFAULT_BUDGET = 10;
+  // The default number of latencies kept by target format.
+  private static final int DEFAULT_WINDOW_SIZE = 100;
+  // The default number of latencies required before using the percentile.
+  private static final int DEFAULT_MIN_SAMPLES = 20;
+
+  private final double percentile;
+  private final long initialDelay;
+  private final long minDelay;
+  private final int budget;
+  private final int windowSize;
+  private final int minSamples;
+  private final ConcurrentMap<String, LatencyWindow> latencies;
+  private ExecutorService executor;
+  private boolean shutdown;
+  private long requestCount;
+  private long hedgedCount;
+
+  /** Holds the last latencies observed for a target format. */
+  private static final class LatencyWindow {
+
+    private final long[] samples;
+    private int count;
+    private int next;
+
+    private LatencyWindow(final int size) {
+      samples = new long[size];
+    }
+
+    private synchronized void add(final long latency) {
+
+      samples[next] = latency;
+      next = (next + 1) % samples.length;
+      if (count < samples.length) {
+        count++;
+      }
+    }
+
+    private synchronized long percentile(final double percentile, final int minSamples) {
+
+      if (count < minSamples) {
+        return -1L;
+      }
+      final long[] sorted = Arrays.copyOf(samples, count);
+      Arrays.sort(sorted);
+      final int index = (int) Math.ceil(percentile / 100.0D * count) - 1;
+      return sorted[Math.max(0, Math.min(index, count - 1))];
+    }
+  }
+
+  /**
+   * Creates a new builder instance.
+   *
+   * @return A new builder instance.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a new {@link HedgingPolicy} with default configuration.
+   *
+   * @return A {@link HedgingPolicy} with default configuration.
+   */
+  public static HedgingPolicy make() {
+    return builder().build();
+  }
+
+  private HedgingPolicy(
+      final Double percentile,
+      final Long initialDelay,
+      final Long minDelay,
+      final Integer budget,
+      final Integer windowSize,
+      final Integer minSamples) {
+
+    this.percentile = percentile == null ? DEFAULT_PERCENTILE : percentile;
+    this.initialDelay = initialDelay == null ? DEFAULT_INITIAL_DELAY : initialDelay;
+    this.minDelay = minDelay == null ? DEFAULT_MIN_DELAY : minDelay;
+    this.budget = budget == null ? DEFAULT_BUDGET : budget;
+    this.windowSize = windowSize == null ? DEFAULT_WINDOW_SIZE : windowSize;
+    this.minSamples =
+        Math.min(this.windowSize, minSamples == null ? DEFAULT_MIN_SAMPLES : minSamples);
+    this.latencies = new ConcurrentHashMap<String, LatencyWindow>();
+  }
+
+  /**
+   * Gets the executor that sends the (primary and duplicate) requests of hedged tasks. The
+   * executor is created on first use.
+   *
+   * @return The executor, or null if the policy has been shut down.
+   */
+  /* default */ synchronized ExecutorService getExecutor() {
+
+    if (shutdown) {
+      return null;
+    }
+    if (executor == null) {
+      executor = Executors.newCachedThreadPool(new NamedThreadFactory("jodconverter-hedging"));
+    }
+    return executor;
+  }
+
+  /**
+   * Shuts the policy down, interrupting the requests of the hedged tasks that are still running and
+   * releasing the threads sending them. The tasks using a policy that has been shut down are no
+   * longer hedged. Do nothing if the policy has already been shut down.
+   */
+  public synchronized void shutdown() {
+
+    shutdown = true;
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  /**
+   * Gets the delay to wait for a response before sending a duplicate request for the specified
+   * target format.
+   *
+   * @param format The target format of the conversion.
+   * @return The delay, in milliseconds.
+   */
+  public long getDelay(final DocumentFormat format) {
+
+    final LatencyWindow window = latencies.get(getKey(format));
+    final long observed = window == null ? -1L : window.percentile(percentile, minSamples);
+    return Math.max(minDelay, observed < 0L ? initialDelay : observed);
+  }
+
+  /**
+   * Records the latency of a successful conversion for the specified target format. The latency is
+   * measured from the moment the primary request is sent until the first response is received,
+   * whichever request wins, so a slow primary request that loses against a duplicate request is
+   * accounted for.
+   *
+   * @param format The target format of the conversion.
+   * @param latency The latency, in milliseconds.
+   */
+  public void recordLatency(final DocumentFormat format, final long latency) {
+
+    final String key = getKey(format);
+    LatencyWindow window = latencies.get(key);
+    if (window == null) {
+      final LatencyWindow newWindow = new LatencyWindow(windowSize);
+      window = latencies.putIfAbsent(key, newWindow);
+      if (window == null) {
+        window = newWindow;
+      }
+    }
+    window.add(latency);
+  }
+
+  /** Records that a request is about to be sent, whether it will be hedged or not. */
+  public synchronized void recordRequest() {
+    requestCount++;
+  }
+
+  /**
+   * Tries to acquire the permission to send a duplicate request. The permission is granted only if
+   * the number of duplicate requests remains within the budget.
+   *
+   * @return {@code true} if a duplicate request can be sent, {@code false} otherwise.
+   */
+  public synchronized boolean tryAcquire() {
+
+    if ((hedgedCount + 1) * 100L > budget * requestCount) {
+      return false;
+    }
+    hedgedCount++;
+    return true;
+  }
+
+  private static String getKey(final DocumentFormat format) {
+    return format.getExtension().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * A builder for constructing a {@link HedgingPolicy}.
+   *
+   * @see HedgingPolicy
+   */
+  public static final class Builder {
+
+    private Double percentile;
+    private Long initialDelay;
+    private Long minDelay;
+    private Integer budget;
+    private Integer windowSize;
+    private Integer minSamples;
+
+    // Private constructor so only HedgingPolicy can create an instance of this builder.
+    private Builder() {
+      super();
+    }
+
+    /**
+     * Creates the policy that is specified by this builder.
+     *
+     * @return The policy that is specified by this builder.
+     */
+    public HedgingPolicy build() {
+      return new HedgingPolicy(
+          percentile, initialDelay, minDelay, budget, windowSize, minSamples);
+    }
+
+    /**
+     * Specifies the percentile of the latencies observed for a target format that is used as the
+     * delay before sending a duplicate request.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 95
+     *
+     * @param percentile The percentile, between 1 and 100.
+     * @return This builder instance.
+     */
+    public Builder percentile(final Double percentile) {
+
+      if (percentile != null) {
+        AssertUtils.isTrue(
+            percentile > 0.0D && percentile <= 100.0D,
+            String.format("percentile %s must be between %d and %d", percentile, 1, 100));
+      }
+      this.percentile = percentile;
+      return this;
+    }
+
+    /**
+     * Specifies the delay before sending a duplicate request, used until enough latencies have been
+     * observed for a target format.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 2000 (2 seconds)
+     *
+     * @param initialDelay The initial delay, in milliseconds.
+     * @return This builder instance.
+     */
+    public Builder initialDelay(final Long initialDelay) {
+
+      if (initialDelay != null) {
+        AssertUtils.isTrue(
+            initialDelay >= 0,
+            String.format("initialDelay %s must greater than or equal to 0", initialDelay));
+      }
+      this.initialDelay = initialDelay;
+      return this;
+    }
+
+    /**
+     * Specifies the minimum delay before sending a duplicate request.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 50
+     *
+     * @param minDelay The minimum delay, in milliseconds.
+     * @return This builder instance.
+     */
+    public Builder minDelay(final Long minDelay) {
+
+      if (minDelay != null) {
+        AssertUtils.isTrue(
+            minDelay >= 0, String.format("minDelay %s must greater than or equal to 0", minDelay));
+      }
+      this.minDelay = minDelay;
+      return this;
+    }
+
+    /**
+     * Specifies the maximum percentage of requests that can be duplicated.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 10
+     *
+     * @param budget The budget, between 0 and 100.
+     * @return This builder instance.
+     */
+    public Builder budget(final Integer budget) {
+
+      if (budget != null) {
+        AssertUtils.isTrue(
+            budget >= 0 && budget <= 100,
+            String.format("budget %s must be between %d and %d", budget, 0, 100));
+      }
+      this.budget = budget;
+      return this;
+    }
+
+    /**
+     * Specifies the number of latencies kept by target format in order to compute the percentile.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 100
+     *
+     * @param windowSize The window size.
+     * @return This builder instance.
+     */
+    public Builder windowSize(final Integer windowSize) {
+
+      if (windowSize != null) {
+        AssertUtils.isTrue(
+            windowSize > 0, String.format("windowSize %s must be greater than 0", windowSize));
+      }
+      this.windowSize = windowSize;
+      return this;
+    }
+
+    /**
+     * Specifies the number of latencies that must be observed for a target format before the
+     * percentile is used instead of the initial delay.
+     *
+     * <p>&nbsp; <b><i>Default</i></b>: 20
+     *
+     * @param minSamples The minimum number of samples.
+     * @return This builder instance.
+     */
+    public Builder minSamples(final Integer minSamples) {
+
+      if (minSamples != null) {
+        AssertUtils.isTrue(
+            minSamples > 0, String.format("minSamples %s must be greater than 0", minSamples));
+      }
+      this.minSamples = minSamples;
+      return this;
+    }
+  }
+}
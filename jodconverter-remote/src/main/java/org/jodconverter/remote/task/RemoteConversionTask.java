@@ -20,34 +20,118 @@
 package org.jodconverter.remote.task;
 
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.entity.GzipCompressingEntity;
 import org.apache.http.client.fluent.Executor;
 import org.apache.http.client.fluent.Request;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.entity.mime.content.FileBody;
+import org.jodconverter.core.document.DocumentFormatUtils;
 import org.jodconverter.core.job.SourceDocumentSpecs;
 import org.jodconverter.core.job.TargetDocumentSpecs;
 import org.jodconverter.core.office.OfficeContext;
 import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.task.ConversionTask;
+import org.jodconverter.core.util.FileUtils;
 import org.jodconverter.core.util.StringUtils;
+import org.jodconverter.remote.office.RemoteOfficeConnection;
 import org.jodconverter.remote.office.RemoteOfficeContext;
 import org.jodconverter.remote.office.RequestConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /** Represents the default behavior for an remote conversion task. */
-public class RemoteConversionTask extends AbstractRemoteOfficeTask {
+public class RemoteConversionTask extends AbstractRemoteOfficeTask implements ConversionTask {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(RemoteConversionTask.class);
   private static final String FILTER_DATA = "FilterData";
   private static final String FILTER_DATA_PREFIX_PARAM = "fd";
   private static final String LOAD_PROPERTIES_PREFIX_PARAM = "l";
   private static final String STORE_PROPERTIES_PREFIX_PARAM = "s";
+  private static final Random RANDOM = new Random();
 
   private final TargetDocumentSpecs target;
+  private final HedgingPolicy hedgingPolicy;
+
+  /** A request sent to an endpoint, saving the response into its own temporary file. */
+  private final class Attempt implements Callable<Attempt> {
+
+    private final RemoteOfficeContext context;
+    private final String url;
+    private final File sourceFile;
+    private final File targetDir;
+    private Request request;
+    private boolean aborted;
+    private boolean completed;
+    private File responseFile;
+
+    private Attempt(
+        final RemoteOfficeContext context,
+        final String url,
+        final File sourceFile,
+        final File targetDir) {
+
+      this.context = context;
+      this.url = url;
+      this.sourceFile = sourceFile;
+      this.targetDir = targetDir;
+    }
+
+    @Override
+    public Attempt call() throws Exception {
+
+      final File file =
+          File.createTempFile("jodconverter", "." + target.getFormat().getExtension(), targetDir);
+      try {
+        synchronized (this) {
+          if (aborted) {
+            throw new InterruptedIOException("Request aborted: " + url);
+          }
+          request = createRequest(context.getRequestConfig(), url, sourceFile);
+        }
+        Executor.newInstance(context.getHttpClient()).execute(request).saveContent(file);
+        synchronized (this) {
+          if (aborted) {
+            throw new InterruptedIOException("Request aborted: " + url);
+          }
+          responseFile = file;
+          completed = true;
+        }
+      } catch (Exception ex) {
+        FileUtils.deleteQuietly(file);
+        throw ex;
+      }
+      return this;
+    }
+
+    private synchronized void abort() {
+
+      aborted = true;
+      if (completed) {
+        // The response has been received, but another request has won.
+        FileUtils.deleteQuietly(responseFile);
+      } else if (request != null) {
+        request.abort();
+      }
+    }
+  }
 
   /**
    * Creates a new conversion task from a specified source to a specified target.
@@ -56,9 +140,25 @@ public class RemoteConversionTask extends AbstractRemoteOfficeTask {
    * @param target The target specifications for the conversion.
    */
   public RemoteConversionTask(final SourceDocumentSpecs source, final TargetDocumentSpecs target) {
+    this(source, target, null);
+  }
+
+  /**
+   * Creates a new conversion task from a specified source to a specified target, using the
+   * specified hedging policy.
+   *
+   * @param source The source specifications for the conversion.
+   * @param target The target specifications for the conversion.
+   * @param hedgingPolicy The hedging policy to apply, may be {@code null} to disable hedging.
+   */
+  public RemoteConversionTask(
+      final SourceDocumentSpecs source,
+      final TargetDocumentSpecs target,
+      final HedgingPolicy hedgingPolicy) {
     super(source);
 
     this.target = target;
+    this.hedgingPolicy = hedgingPolicy;
   }
 
   @SuppressWarnings("unchecked")
@@ -93,6 +193,19 @@ public class RemoteConversionTask extends AbstractRemoteOfficeTask {
     LOGGER.info("Executing remote conversion task...");
     final RemoteOfficeContext remoteContext = (RemoteOfficeContext) context;
 
+    // Reject the conversion before uploading the document if the server
+    // is known not to support it.
+    final String sourceExtension =
+        source.getFormat() == null ? null : source.getFormat().getExtension();
+    final String targetExtension = target.getFormat().getExtension();
+    if (!remoteContext.getCapabilities().supports(sourceExtension, targetExtension)) {
+      throw new OfficeException(
+          "The remote server does not support the conversion from "
+              + sourceExtension
+              + " to "
+              + targetExtension);
+    }
+
     // Obtain a source file that can be loaded by office. If the source
     // is an input stream, then a temporary file will be created from the
     // stream. The temporary file will be deleted once the task is done.
@@ -104,36 +217,19 @@ public class RemoteConversionTask extends AbstractRemoteOfficeTask {
       final File targetFile = target.getFile();
 
       try {
-        // TODO: Add the ability to pass on a custom charset to FileBody
-
-        // See https://github.com/LibreOffice/online/blob/master/wsd/reference.txt
-        final HttpEntity entity =
-            MultipartEntityBuilder.create().addPart("data", new FileBody(sourceFile)).build();
-
-        // Use the fluent API to post the file and save the response into the target file.
         final RequestConfig requestConfig = remoteContext.getRequestConfig();
-        final URIBuilder uriBuilder = new URIBuilder(buildUrl(requestConfig.getUrl()));
-
-        // We suppose that the server supports custom load properties, but LibreOffice Online
-        // does not support custom load properties, only the sample web service do.
-        addPropertiesToBuilder(
-            uriBuilder, LOAD_PROPERTIES_PREFIX_PARAM, target.getFormat().getLoadProperties());
-
-        // We suppose that the server supports custom store properties, but LibreOffice Online
-        // does not support custom store properties, only the sample web service do.
-        addPropertiesToBuilder(
-            uriBuilder,
-            STORE_PROPERTIES_PREFIX_PARAM,
-            target.getFormat().getStoreProperties(source.getFormat().getInputFamily()));
-
-        Executor.newInstance(remoteContext.getHttpClient())
-            .execute(
-                // Request.Post(buildUrl(requestConfig.getUrl()))
-                Request.Post(uriBuilder.build())
-                    .connectTimeout(Long.valueOf(requestConfig.getConnectTimeout()).intValue())
-                    .socketTimeout(Long.valueOf(requestConfig.getSocketTimeout()).intValue())
-                    .body(entity))
-            .saveContent(targetFile);
+        final ExecutorService executor =
+            hedgingPolicy == null || requestConfig.getAlternateUrls().isEmpty()
+                ? null
+                : hedgingPolicy.getExecutor();
+        if (executor == null) {
+          // Use the fluent API to post the file and save the response into the target file.
+          Executor.newInstance(remoteContext.getHttpClient())
+              .execute(createRequest(requestConfig, requestConfig.getUrl(), sourceFile))
+              .saveContent(targetFile);
+        } else {
+          executeHedged(remoteContext, executor, sourceFile, targetFile);
+        }
 
         // onComplete on target will copy the temp file to
         // the OutputStream and then delete the temp file
@@ -155,6 +251,169 @@ public class RemoteConversionTask extends AbstractRemoteOfficeTask {
     }
   }
 
+  @Override
+  public TargetDocumentSpecs getTarget() {
+    return target;
+  }
+
+  @Override
+  public boolean isPortable() {
+    return true;
+  }
+
+  private Request createRequest(
+      final RequestConfig requestConfig, final String url, final File sourceFile)
+      throws URISyntaxException {
+
+    // TODO: Add the ability to pass on a custom charset to FileBody
+
+    // See https://github.com/LibreOffice/online/blob/master/wsd/reference.txt
+    HttpEntity entity =
+        MultipartEntityBuilder.create().addPart("data", new FileBody(sourceFile)).build();
+    if (requestConfig.isCompression() && DocumentFormatUtils.isCompressible(source.getFormat())) {
+      entity = new GzipCompressingEntity(entity);
+    }
+
+    final URIBuilder uriBuilder = new URIBuilder(buildUrl(url));
+
+    // We suppose that the server supports custom load properties, but LibreOffice Online
+    // does not support custom load properties, only the sample web service do.
+    addPropertiesToBuilder(
+        uriBuilder, LOAD_PROPERTIES_PREFIX_PARAM, target.getFormat().getLoadProperties());
+
+    // We suppose that the server supports custom store properties, but LibreOffice Online
+    // does not support custom store properties, only the sample web service do.
+    addPropertiesToBuilder(
+        uriBuilder,
+        STORE_PROPERTIES_PREFIX_PARAM,
+        target.getFormat().getStoreProperties(source.getFormat().getInputFamily()));
+
+    final URI uri = uriBuilder.build();
+    final Request request =
+        Request.Post(uri)
+            .connectTimeout(Long.valueOf(requestConfig.getConnectTimeout()).intValue())
+            .socketTimeout(Long.valueOf(requestConfig.getSocketTimeout()).intValue())
+            .body(entity);
+    if (requestConfig.isCompression()) {
+      // Only ask for a compressed response when it is worth it. A gzip encoded
+      // response is transparently decompressed by the HTTP client.
+      request.addHeader(
+          HttpHeaders.ACCEPT_ENCODING,
+          DocumentFormatUtils.isCompressible(target.getFormat()) ? "gzip" : "identity");
+    }
+    return request;
+  }
+
+  private void executeHedged(
+      final RemoteOfficeContext context,
+      final ExecutorService executor,
+      final File sourceFile,
+      final File targetFile)
+      throws Exception {
+
+    final RequestConfig requestConfig = context.getRequestConfig();
+    final CompletionService<Attempt> completionService =
+        new ExecutorCompletionService<Attempt>(executor);
+    final File targetDir = targetFile.getAbsoluteFile().getParentFile();
+
+    // Send the primary request. The latency of the conversion is measured from now on, so
+    // a slow primary request that loses against the duplicate request is accounted for.
+    final long start = System.currentTimeMillis();
+    hedgingPolicy.recordRequest();
+    final Attempt primary = new Attempt(context, requestConfig.getUrl(), sourceFile, targetDir);
+    final Future<Attempt> primaryFuture = completionService.submit(primary);
+
+    Attempt hedge = null;
+    Future<Attempt> hedgeFuture = null;
+    RemoteOfficeConnection.AlternatePermit hedgePermit = null;
+    Attempt winner = null;
+    Exception lastError = null;
+    try {
+      // Wait for the primary response until the hedging delay expires.
+      Future<Attempt> done =
+          completionService.poll(
+              hedgingPolicy.getDelay(target.getFormat()), TimeUnit.MILLISECONDS);
+      int pending = 1;
+      if (done == null) {
+        // Send a duplicate request to another endpoint, if one can accept it.
+        hedgePermit = acquireHedgePermit(context);
+        if (hedgePermit != null && !hedgingPolicy.tryAcquire()) {
+          hedgePermit.release();
+          hedgePermit = null;
+        }
+        if (hedgePermit != null) {
+          LOGGER.debug(
+              "No response after hedging delay; sending duplicate request to {}",
+              hedgePermit.getUrl());
+          hedge = new Attempt(context, hedgePermit.getUrl(), sourceFile, targetDir);
+          hedgeFuture = completionService.submit(hedge);
+          pending++;
+        }
+      }
+
+      // The first successful response wins.
+      while (winner == null && pending > 0) {
+        if (done == null) {
+          done = completionService.take();
+        }
+        pending--;
+        try {
+          winner = done.get();
+        } catch (ExecutionException ex) {
+          lastError = ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+        }
+        done = null;
+      }
+    } finally {
+      // Abort the loser, or every request if the task has been interrupted.
+      abort(primary, primaryFuture, winner);
+      abort(hedge, hedgeFuture, winner);
+      if (hedgePermit != null) {
+        hedgePermit.release();
+      }
+    }
+
+    if (winner == null) {
+      throw lastError;
+    }
+    if (winner == hedge) {
+      LOGGER.debug("Duplicate request won against the primary request");
+    }
+    hedgingPolicy.recordLatency(target.getFormat(), System.currentTimeMillis() - start);
+
+    // Move the winning response to the target file.
+    FileUtils.delete(targetFile);
+    if (!winner.responseFile.renameTo(targetFile)) {
+      FileUtils.deleteQuietly(winner.responseFile);
+      throw new IOException("Could not move " + winner.responseFile + " to " + targetFile);
+    }
+  }
+
+  // Acquires the permission to send a duplicate request to an endpoint supporting the conversion.
+  private RemoteOfficeConnection.AlternatePermit acquireHedgePermit(
+      final RemoteOfficeContext context) {
+
+    final String sourceExtension =
+        source.getFormat() == null ? null : source.getFormat().getExtension();
+    if (context instanceof RemoteOfficeConnection) {
+      return ((RemoteOfficeConnection) context)
+          .tryAcquireAlternate(sourceExtension, target.getFormat().getExtension());
+    }
+
+    // A custom context does not limit the requests sent to its endpoints.
+    final List<String> alternateUrls = context.getRequestConfig().getAlternateUrls();
+    return RemoteOfficeConnection.AlternatePermit.unlimited(
+        alternateUrls.get(RANDOM.nextInt(alternateUrls.size())));
+  }
+
+  private void abort(final Attempt attempt, final Future<Attempt> future, final Attempt winner) {
+
+    if (attempt != null && attempt != winner) {
+      attempt.abort();
+      future.cancel(true);
+    }
+  }
+
   private String buildUrl(final String connectionUrl) {
 
     // an example URL is like:
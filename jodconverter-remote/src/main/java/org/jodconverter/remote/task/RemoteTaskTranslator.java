@@ -0,0 +1,62 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.remote.task;
+
+import org.jodconverter.core.task.ConversionTask;
+import org.jodconverter.core.task.OfficeTask;
+import org.jodconverter.core.task.OfficeTaskTranslator;
+
+/**
+ * Translates portable conversion tasks (for example local conversions without filters) into {@link
+ * RemoteConversionTask}, so they can be spilled over to a remote office manager.
+ *
+ * @see org.jodconverter.core.office.SpilloverOfficeManager
+ */
+public class RemoteTaskTranslator implements OfficeTaskTranslator {
+
+  private final HedgingPolicy hedgingPolicy;
+
+  /** Creates a new translator. */
+  public RemoteTaskTranslator() {
+    this(null);
+  }
+
+  /**
+   * Creates a new translator that will apply the specified hedging policy to the translated tasks.
+   *
+   * @param hedgingPolicy The hedging policy to apply, may be {@code null} to disable hedging.
+   */
+  public RemoteTaskTranslator(final HedgingPolicy hedgingPolicy) {
+    super();
+
+    this.hedgingPolicy = hedgingPolicy;
+  }
+
+  @Override
+  public OfficeTask translate(final OfficeTask task) {
+
+    if (task instanceof ConversionTask && ((ConversionTask) task).isPortable()) {
+      final ConversionTask conversionTask = (ConversionTask) task;
+      return new RemoteConversionTask(
+          conversionTask.getSource(), conversionTask.getTarget(), hedgingPolicy);
+    }
+    return null;
+  }
+}
@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -40,6 +41,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.util.Assert;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
@@ -47,6 +49,7 @@ import org.springframework.web.multipart.MultipartFile;
 import org.jodconverter.core.DocumentConverter;
 import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
 import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.document.DocumentFormatUtils;
 import org.jodconverter.core.office.OfficeException;
 import org.jodconverter.core.office.OfficeManager;
 import org.jodconverter.core.util.FileUtils;
@@ -105,10 +108,13 @@ public class ConverterController {
           @RequestParam(name = "format")
           final String convertToFormat,
       @ApiParam("The custom options to apply to the conversion.") @RequestParam(required = false)
-          final Map<String, String> parameters) {
+          final Map<String, String> parameters,
+      @ApiParam("The content-encodings accepted for the converted document.")
+          @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false)
+          final String acceptEncoding) {
 
     LOGGER.debug("convertUsingRequestParam > Converting file to {}", convertToFormat);
-    return convert(inputFile, convertToFormat, parameters);
+    return convert(inputFile, convertToFormat, parameters, acceptEncoding);
   }
 
   @ApiOperation(
@@ -128,10 +134,13 @@ public class ConverterController {
           @PathVariable(name = "format")
           final String convertToFormat,
       @ApiParam("The custom options to apply to the conversion.") @RequestParam(required = false)
-          final Map<String, String> parameters) {
+          final Map<String, String> parameters,
+      @ApiParam("The content-encodings accepted for the converted document.")
+          @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false)
+          final String acceptEncoding) {
 
     LOGGER.debug("convertUsingPathVariable > Converting file to {}", convertToFormat);
-    return convert(inputFile, convertToFormat, parameters);
+    return convert(inputFile, convertToFormat, parameters, acceptEncoding);
   }
 
   private void addFilterDataProperty(
@@ -189,10 +198,35 @@ public class ConverterController {
     }
   }
 
+  private boolean acceptsGzip(final String acceptEncoding) {
+
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (final String encoding : acceptEncoding.split(",")) {
+      final String[] tokens = encoding.trim().split(";");
+      if ("gzip".equalsIgnoreCase(tokens[0].trim())
+          && (tokens.length == 1 || !tokens[1].trim().matches("q\\s*=\\s*0(\\.0*)?"))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private byte[] gzip(final byte[] bytes) throws IOException {
+
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes.length / 2);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(baos)) {
+      gzip.write(bytes);
+    }
+    return baos.toByteArray();
+  }
+
   private ResponseEntity<Object> convert(
       final MultipartFile inputFile,
       final String outputFormat,
-      final Map<String, String> parameters) {
+      final Map<String, String> parameters,
+      final String acceptEncoding) {
 
     if (inputFile.isEmpty()) {
       return ResponseEntity.badRequest().build();
@@ -234,6 +268,12 @@ public class ConverterController {
               + FileUtils.getBaseName(inputFile.getOriginalFilename())
               + "."
               + targetFormat.getExtension());
+
+      // Compress the converted document if the client accepts it and it is worth it.
+      if (acceptsGzip(acceptEncoding) && DocumentFormatUtils.isCompressible(targetFormat)) {
+        headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return ResponseEntity.ok().headers(headers).body(gzip(baos.toByteArray()));
+      }
       return ResponseEntity.ok().headers(headers).body(baos.toByteArray());
 
     } catch (OfficeException | IOException ex) {
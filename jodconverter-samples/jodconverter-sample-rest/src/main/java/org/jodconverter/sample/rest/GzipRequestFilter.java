@@ -0,0 +1,145 @@
+/*
+ * Copyright 2004 - 2012 Mirko Nasato and contributors
+ *           2016 - 2020 Simon Braconnier and contributors
+ *
+ * This file is part of JODConverter - Java OpenDocument Converter.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jodconverter.sample.rest;
+
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter that decompresses the body of the requests sent using the gzip content-encoding, like the
+ * requests sent by the jodconverter-remote module when compression is enabled.
+ */
+@Component
+public class GzipRequestFilter extends OncePerRequestFilter {
+
+  @Override
+  protected void doFilterInternal(
+      final HttpServletRequest request,
+      final HttpServletResponse response,
+      final FilterChain filterChain)
+      throws ServletException, IOException {
+
+    final String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+    if (contentEncoding != null && contentEncoding.trim().equalsIgnoreCase("gzip")) {
+      filterChain.doFilter(new GzipRequestWrapper(request), response);
+    } else {
+      filterChain.doFilter(request, response);
+    }
+  }
+
+  /** Request wrapper that exposes the decompressed request body. */
+  private static final class GzipRequestWrapper extends HttpServletRequestWrapper {
+
+    private ServletInputStream inputStream;
+
+    private GzipRequestWrapper(final HttpServletRequest request) {
+      super(request);
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+
+      if (inputStream == null) {
+        final GZIPInputStream gzip = new GZIPInputStream(super.getInputStream());
+        inputStream =
+            new ServletInputStream() {
+              private boolean finished;
+
+              @Override
+              public int read() throws IOException {
+                final int read = gzip.read();
+                finished = read == -1;
+                return read;
+              }
+
+              @Override
+              public int read(final byte[] buffer, final int off, final int len)
+                  throws IOException {
+                final int read = gzip.read(buffer, off, len);
+                finished = read == -1;
+                return read;
+              }
+
+              @Override
+              public boolean isFinished() {
+                return finished;
+              }
+
+              @Override
+              public boolean isReady() {
+                // Reads block until the decompressed data is available.
+                return true;
+              }
+
+              @Override
+              public void setReadListener(final ReadListener readListener) {
+
+                // Since the stream is always ready, the data can be read right away.
+                try {
+                  readListener.onDataAvailable();
+                  if (finished) {
+                    readListener.onAllDataRead();
+                  }
+                } catch (IOException ex) {
+                  readListener.onError(ex);
+                }
+              }
+
+              @Override
+              public void close() throws IOException {
+                gzip.close();
+              }
+            };
+      }
+      return inputStream;
+    }
+
+    @Override
+    public String getHeader(final String name) {
+
+      // The body is no longer encoded.
+      if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) {
+        return null;
+      }
+      return super.getHeader(name);
+    }
+
+    @Override
+    public int getContentLength() {
+      return -1; // Unknown once decompressed
+    }
+
+    @Override
+    public long getContentLengthLong() {
+      return -1L; // Unknown once decompressed
+    }
+  }
+}
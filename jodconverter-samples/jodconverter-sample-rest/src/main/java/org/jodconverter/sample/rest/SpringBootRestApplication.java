@@ -23,8 +23,12 @@ import java.util.Collections;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.multipart.commons.CommonsMultipartResolver;
 import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.builders.RequestHandlerSelectors;
 import springfox.documentation.service.ApiInfo;
@@ -35,6 +39,7 @@ import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
 /** Main application. */
 @SpringBootApplication
+@EnableConfigurationProperties(MultipartProperties.class)
 public class SpringBootRestApplication {
 
   /**
@@ -46,6 +51,31 @@ public class SpringBootRestApplication {
     SpringApplication.run(SpringBootRestApplication.class, args);
   }
 
+  /**
+   * Creates the multipart resolver. The commons-fileupload resolver parses the request through the
+   * (possibly decompressed, see {@link GzipRequestFilter}) request input stream, while the default
+   * resolver would parse the raw request body.
+   *
+   * @param properties The {@code spring.servlet.multipart} properties, applied to the resolver.
+   * @return The multipart resolver.
+   */
+  @Bean
+  public MultipartResolver multipartResolver(final MultipartProperties properties) {
+
+    final CommonsMultipartResolver resolver = new CommonsMultipartResolver();
+    if (properties.getMaxFileSize() != null) {
+      resolver.setMaxUploadSizePerFile(properties.getMaxFileSize().toBytes());
+    }
+    if (properties.getMaxRequestSize() != null) {
+      resolver.setMaxUploadSize(properties.getMaxRequestSize().toBytes());
+    }
+    if (properties.getFileSizeThreshold() != null) {
+      resolver.setMaxInMemorySize((int) properties.getFileSizeThreshold().toBytes());
+    }
+    resolver.setResolveLazily(properties.isResolveLazily());
+    return resolver;
+  }
+
   /** Swagger configuration. */
   @Configuration
   @EnableSwagger2
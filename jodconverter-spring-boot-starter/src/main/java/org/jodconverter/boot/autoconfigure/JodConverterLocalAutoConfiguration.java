@@ -97,6 +97,13 @@ public class JodConverterLocalAutoConfiguration {
   /* default */ DocumentFormatRegistry documentFormatRegistry(final ResourceLoader resourceLoader)
       throws Exception {
 
+    // Without custom formats nor custom options, use the default registry that is
+    // created from the formats generated at build time (no JSON parsing).
+    if (StringUtils.isBlank(properties.getDocumentFormatRegistry())
+        && properties.getFormatOptions() == null) {
+      return DefaultDocumentFormatRegistryInstanceHolder.getInstance();
+    }
+
     try (InputStream in =
         // Load the json resource containing default document formats.
         (StringUtils.isBlank(properties.getDocumentFormatRegistry())